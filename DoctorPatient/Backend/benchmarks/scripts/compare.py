@@ -0,0 +1,71 @@
+#!/usr/bin/env python3
+"""Compares two JMH JSON result files (-rf json) and flags regressions.
+
+Usage: compare.py baseline.json candidate.json [--threshold 10]
+
+A benchmark counts as regressed when it got slower by more than the threshold (in percent)
+and the confidence intervals of the two runs don't overlap. Exits with status 1 if any
+benchmark regressed.
+"""
+import argparse
+import json
+import sys
+
+# Modes where a lower score is better; throughput (thrpt) is the other way round
+LOWER_IS_BETTER = {"avgt", "sample", "ss"}
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((run.get("params") or {}).items()))
+            name = run["benchmark"].rsplit(".", 2)
+            key = (".".join(name[-2:]), params, run["mode"])
+            metric = run["primaryMetric"]
+            error = metric.get("scoreError")
+            results[key] = (metric["score"], 0.0 if error in (None, "NaN") else float(error), metric["scoreUnit"])
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compare two JMH JSON result files")
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=10.0, help="regression threshold in percent")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+
+    regressions = 0
+    print("| Benchmark | Params | Mode | Baseline | Candidate | Change | |")
+    print("|---|---|---|---|---|---|---|")
+    for key in sorted(baseline.keys() | candidate.keys()):
+        name, params, mode = key
+        if key not in baseline or key not in candidate:
+            side = "candidate" if key not in baseline else "baseline"
+            print(f"| {name} | {params} | {mode} | | | | only in {side} |")
+            continue
+        old, old_error, unit = baseline[key]
+        new, new_error, _ = candidate[key]
+        change = (new - old) / old * 100 if old else 0.0
+        worse = change if mode in LOWER_IS_BETTER else -change
+        overlapping = abs(new - old) <= old_error + new_error
+        status = ""
+        if worse > args.threshold and not overlapping:
+            status = "REGRESSION"
+            regressions += 1
+        elif -worse > args.threshold and not overlapping:
+            status = "improved"
+        print(f"| {name} | {params} | {mode} | {old:.3f} ± {old_error:.3f} {unit} "
+              f"| {new:.3f} ± {new_error:.3f} {unit} | {change:+.1f}% | {status} |")
+
+    if regressions:
+        print(f"\n{regressions} benchmark(s) regressed by more than {args.threshold:g}%", file=sys.stderr)
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,120 @@
+package com.doctorpat.benchmarks;
+
+import com.doctorpat.entity.Appointment;
+import com.doctorpat.entity.User;
+import com.doctorpat.repository.AppointmentRepository;
+import com.doctorpat.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scheduling conflict query run by POST /appointments, through the real repository and
+ * Hibernate against an in-memory H2 database holding a doctor's calendar of the given size.
+ * Absolute numbers differ from MySQL; the benchmark is meant to catch regressions in the query
+ * and its mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AppointmentConflictBenchmark {
+    
+    @Param({"1000"})
+    public int appointments;
+    
+    private ConfigurableApplicationContext context;
+    private AppointmentRepository appointmentRepository;
+    private User doctor;
+    private LocalDate bookedDate;
+    private LocalDate freeDate;
+    
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = AppointmentRepository.class)
+    static class PersistenceOnly {
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(PersistenceOnly.class)
+                .web(WebApplicationType.NONE)
+                // Skips the application's own application.properties and its MySQL settings
+                .properties(
+                        "spring.config.name=benchmarks",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "spring.sql.init.mode=never",
+                        "spring.flyway.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        appointmentRepository = context.getBean(AppointmentRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        
+        User patient = Fixtures.patient();
+        patient.setId(null);
+        patient = userRepository.save(patient);
+        doctor = Fixtures.doctor();
+        doctor.setId(null);
+        doctor = userRepository.save(doctor);
+        
+        // Eight half-hour slots a day from 09:00
+        LocalDate firstDay = LocalDate.of(2024, 1, 1);
+        List<Appointment> calendar = new ArrayList<>();
+        for (int i = 0; i < appointments; i++) {
+            Appointment appointment = new Appointment();
+            appointment.setPatient(patient);
+            appointment.setDoctor(doctor);
+            appointment.setAppointmentDate(firstDay.plusDays(i / 8));
+            appointment.setAppointmentTime(LocalTime.of(9, 0).plusMinutes(30L * (i % 8)));
+            calendar.add(appointment);
+        }
+        appointmentRepository.saveAll(calendar);
+        bookedDate = firstDay.plusDays(appointments / 16);
+        freeDate = firstDay.minusDays(1);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<Appointment> conflictingSlot() {
+        return appointmentRepository.findByDoctorAndDateTime(doctor, bookedDate, LocalTime.of(10, 0));
+    }
+    
+    @Benchmark
+    public List<Appointment> freeSlot() {
+        return appointmentRepository.findByDoctorAndDateTime(doctor, freeDate, LocalTime.of(10, 0));
+    }
+}
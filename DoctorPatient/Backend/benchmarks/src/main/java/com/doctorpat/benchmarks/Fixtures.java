@@ -0,0 +1,112 @@
+package com.doctorpat.benchmarks;
+
+import com.doctorpat.dto.AuthResponse;
+import com.doctorpat.dto.UserRegistrationRequest;
+import com.doctorpat.entity.Appointment;
+import com.doctorpat.entity.Payment;
+import com.doctorpat.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Representative objects shared by the benchmarks, filled the way the API returns them
+final class Fixtures {
+    
+    static final String JWT_SECRET = "your-secret-key-here-make-it-very-long-and-secure-for-production";
+    static final long JWT_EXPIRATION = 86400000L;
+    static final String PASSWORD_HASH = "$2a$10$7EqJtq98hPqEX7fNZaFWoOa6lMp9Sbn2/hFo3n.XH3p0OmwUjzbNO";
+    
+    private Fixtures() {}
+    
+    static User patient() {
+        User patient = new User("Jane Patient", "jane.patient@example.com", PASSWORD_HASH, User.UserRole.PATIENT);
+        patient.setId(1L);
+        patient.setPhoneNumber("+1-555-0100");
+        patient.setDateOfBirth("1988-03-14");
+        patient.setGender(User.Gender.FEMALE);
+        patient.setAddress("221B Baker Street, London");
+        patient.setCreatedAt(LocalDateTime.of(2024, 1, 5, 9, 30));
+        patient.setUpdatedAt(LocalDateTime.of(2024, 1, 5, 9, 30));
+        return patient;
+    }
+    
+    static User doctor() {
+        User doctor = new User("Dr. John Smith", "john.smith@example.com", PASSWORD_HASH, User.UserRole.DOCTOR);
+        doctor.setId(2L);
+        doctor.setPhoneNumber("+1-555-0101");
+        doctor.setSpecialization("Cardiology, Internal Medicine");
+        doctor.setLicenseNumber("MD-123456");
+        doctor.setYearsOfExperience(15);
+        doctor.setConsultationFee(120.0);
+        doctor.setCreatedAt(LocalDateTime.of(2023, 6, 1, 8, 0));
+        doctor.setUpdatedAt(LocalDateTime.of(2024, 2, 1, 8, 0));
+        return doctor;
+    }
+    
+    static Appointment appointment() {
+        Appointment appointment = new Appointment();
+        appointment.setId(10L);
+        appointment.setPatient(patient());
+        appointment.setDoctor(doctor());
+        appointment.setAppointmentDate(LocalDate.of(2024, 3, 18));
+        appointment.setAppointmentTime(LocalTime.of(10, 30));
+        appointment.setStatus(Appointment.AppointmentStatus.CONFIRMED);
+        appointment.setPaymentStatus(Appointment.PaymentStatus.PAID);
+        appointment.setNotes("Follow-up on blood pressure readings");
+        appointment.setConsultationFee(120.0);
+        appointment.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 0));
+        appointment.setUpdatedAt(LocalDateTime.of(2024, 3, 2, 12, 0));
+        return appointment;
+    }
+    
+    static Payment payment() {
+        Appointment appointment = appointment();
+        Payment payment = new Payment();
+        payment.setId(100L);
+        payment.setAppointment(appointment);
+        payment.setPatient(appointment.getPatient());
+        payment.setDoctor(appointment.getDoctor());
+        payment.setAmount(new BigDecimal("120.00"));
+        payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        payment.setStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setTransactionId("7d3c1a52-5f8e-4c1e-9a55-0f7f8e2b9c11");
+        payment.setPaymentGatewayResponse("Approved");
+        payment.setCardLastFour("4242");
+        payment.setCardType("VISA");
+        payment.setCreatedAt(LocalDateTime.of(2024, 3, 2, 12, 5));
+        payment.setProcessedAt(LocalDateTime.of(2024, 3, 2, 12, 5, 1));
+        return payment;
+    }
+    
+    static AuthResponse authResponse() {
+        return new AuthResponse("header.payload.signature", "header.payload.signature", JWT_EXPIRATION, patient());
+    }
+    
+    static UserRegistrationRequest patientRegistration() {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Jane Patient");
+        request.setEmail("jane.patient@example.com");
+        request.setPassword("secret123");
+        request.setRole("patient");
+        request.setPhoneNumber("+1-555-0100");
+        request.setDateOfBirth("1988-03-14");
+        request.setGender("female");
+        request.setAddress("221B Baker Street, London");
+        return request;
+    }
+    
+    static UserRegistrationRequest doctorRegistration() {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setName("Dr. John Smith");
+        request.setEmail("john.smith@example.com");
+        request.setPassword("secret123");
+        request.setRole("DOCTOR");
+        request.setSpecialization("Cardiology");
+        request.setLicenseNumber("MD-123456");
+        request.setYearsOfExperience(15);
+        request.setConsultationFee(120.0);
+        return request;
+    }
+}
@@ -0,0 +1,72 @@
+package com.doctorpat.benchmarks;
+
+import com.doctorpat.dto.AuthResponse;
+import com.doctorpat.entity.Appointment;
+import com.doctorpat.entity.Payment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Response bodies as Spring MVC writes them, with an ObjectMapper configured like Spring Boot's
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    
+    private ObjectMapper objectMapper;
+    private Appointment appointment;
+    private List<Appointment> appointments;
+    private Payment payment;
+    private AuthResponse authResponse;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        appointment = Fixtures.appointment();
+        appointments = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            appointments.add(Fixtures.appointment());
+        }
+        payment = Fixtures.payment();
+        authResponse = Fixtures.authResponse();
+    }
+    
+    @Benchmark
+    public byte[] appointment() throws Exception {
+        return objectMapper.writeValueAsBytes(appointment);
+    }
+    
+    @Benchmark
+    public byte[] appointmentList() throws Exception {
+        return objectMapper.writeValueAsBytes(appointments);
+    }
+    
+    @Benchmark
+    public byte[] payment() throws Exception {
+        return objectMapper.writeValueAsBytes(payment);
+    }
+    
+    @Benchmark
+    public byte[] authResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(authResponse);
+    }
+}
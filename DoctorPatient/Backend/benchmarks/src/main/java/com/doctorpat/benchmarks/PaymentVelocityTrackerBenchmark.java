@@ -0,0 +1,71 @@
+package com.doctorpat.benchmarks;
+
+import com.doctorpat.service.PaymentVelocityTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The velocity check run by POST /payments/process before the gateway is called: 50k patients
+ * paying with 9k distinct cards, plus a tracker whose windows are full, where every attempt from a
+ * new card is held for review.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class PaymentVelocityTrackerBenchmark {
+    
+    private static final int PATIENTS = 50_000;
+    private static final int CARDS = 9_000;
+    private static final String[] CARD_TYPES = {"VISA", "MASTERCARD", "AMEX"};
+    
+    private PaymentVelocityTracker tracker;
+    private PaymentVelocityTracker fullTracker;
+    private String[] lastFours;
+    
+    @Setup
+    public void setUp() {
+        // Thresholds high enough that the counts keep growing instead of holding every payment
+        tracker = new PaymentVelocityTracker(true, 600, 60, Integer.MAX_VALUE, Integer.MAX_VALUE, 100_000);
+        fullTracker = new PaymentVelocityTracker(true, 600, 60, Integer.MAX_VALUE, Integer.MAX_VALUE, PATIENTS);
+        lastFours = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            lastFours[i] = String.format("%04d", i);
+        }
+        for (long patientId = 0; patientId < PATIENTS; patientId++) {
+            fullTracker.recordAttempt(patientId, "VISA", "0000");
+        }
+        for (int i = 0; i < PATIENTS; i++) {
+            fullTracker.recordAttempt(null, "TEST", String.valueOf(i));
+        }
+    }
+    
+    @Benchmark
+    public Optional<String> recordAttempt() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return tracker.recordAttempt((long) random.nextInt(PATIENTS), CARD_TYPES[random.nextInt(CARD_TYPES.length)],
+                lastFours[random.nextInt(CARDS)]);
+    }
+    
+    @Benchmark
+    public Optional<String> recordAttemptWhenFull() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return fullTracker.recordAttempt((long) random.nextInt(PATIENTS), "MASTERCARD", lastFours[random.nextInt(CARDS)]);
+    }
+}
@@ -0,0 +1,46 @@
+package com.doctorpat.benchmarks;
+
+import com.doctorpat.dto.UserRegistrationRequest;
+import com.doctorpat.entity.User;
+import com.doctorpat.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Registration request to User mapping; password hashing is excluded, the hash is passed in
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+    
+    private UserRegistrationRequest patientRegistration;
+    private UserRegistrationRequest doctorRegistration;
+    
+    @Setup
+    public void setUp() {
+        patientRegistration = Fixtures.patientRegistration();
+        doctorRegistration = Fixtures.doctorRegistration();
+    }
+    
+    @Benchmark
+    public User patient() {
+        return AuthService.newUser(patientRegistration, Fixtures.PASSWORD_HASH);
+    }
+    
+    @Benchmark
+    public User doctor() {
+        return AuthService.newUser(doctorRegistration, Fixtures.PASSWORD_HASH);
+    }
+}
@@ -0,0 +1,249 @@
+package com.doctorpat.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The user journeys of the load mix against a database seeded by LoadTestDataGenerator: patients
+ * log in, browse doctors, book appointments and pay for them, and an admin looks at the
+ * statistics pages. Each operation is one HTTP request; the caller records its outcome under
+ * the returned endpoint name.
+ */
+class ClinicScenario {
+    
+    enum Operation {
+        LOGIN, BROWSE_DOCTORS, BOOK, PAY, ADMIN_STATS
+    }
+    
+    record Result(String endpoint, CompletableFuture<Integer> status) {
+    }
+    
+    private record Session(long userId, String token) {
+    }
+    
+    private record Booking(Session session, long appointmentId, double fee) {
+    }
+    
+    private static final String[] ADMIN_PAGES = {"/users/stats", "/appointments/stats", "/payments/revenue"};
+    private static final String[] CARD_TYPES = {"VISA", "MASTERCARD", "AMEX"};
+    
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String emailDomain;
+    private final String password;
+    private final int patients;
+    private final Duration timeout;
+    
+    private final AtomicReferenceArray<Session> sessions;
+    private final Queue<Booking> unpaid = new ConcurrentLinkedQueue<>();
+    private Session admin;
+    private List<Long> doctorIds;
+    private List<String> specializations;
+    
+    ClinicScenario(HttpClient client, String baseUrl, String emailDomain, String password, int patients,
+                   int sessions, Duration timeout) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.emailDomain = emailDomain;
+        this.password = password;
+        this.patients = patients;
+        this.sessions = new AtomicReferenceArray<>(sessions);
+        this.timeout = timeout;
+    }
+    
+    /**
+     * Logs in the admin and the initial patient sessions and loads the doctor directory. Retries
+     * the first login while the backend is still starting or generating data.
+     */
+    void prepare(SplittableRandom random, Duration waitForBackend) throws Exception {
+        long deadline = System.nanoTime() + waitForBackend.toNanos();
+        while (true) {
+            try {
+                admin = login("admin@" + emailDomain, "ADMIN");
+                break;
+            } catch (IOException | IllegalStateException e) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Backend not ready at " + baseUrl + ": " + e.getMessage(), e);
+                }
+                Thread.sleep(2000);
+            }
+        }
+        for (int i = 0; i < sessions.length(); i++) {
+            sessions.set(i, login(patientEmail(random), "PATIENT"));
+        }
+        
+        HttpResponse<String> response = client.send(get("/users/doctors", admin.token()),
+                HttpResponse.BodyHandlers.ofString());
+        doctorIds = new ArrayList<>();
+        Set<String> names = new LinkedHashSet<>();
+        for (JsonNode doctor : objectMapper.readTree(response.body())) {
+            doctorIds.add(doctor.get("id").asLong());
+            for (String name : doctor.path("specialization").asText("").split(",")) {
+                if (!name.isBlank()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        specializations = new ArrayList<>(names);
+        if (doctorIds.isEmpty()) {
+            throw new IllegalStateException("No doctors found; is the backend running with the loadtest profile?");
+        }
+    }
+    
+    int getDoctorCount() {
+        return doctorIds.size();
+    }
+    
+    Result execute(Operation operation, SplittableRandom random) {
+        switch (operation) {
+            case LOGIN:
+                return loginOperation(random);
+            case BROWSE_DOCTORS:
+                return browseOperation(random);
+            case PAY: {
+                Booking booking = unpaid.poll();
+                // Nothing booked yet: the patient books first
+                return booking != null ? payOperation(booking, random) : bookOperation(random);
+            }
+            case ADMIN_STATS: {
+                String page = ADMIN_PAGES[random.nextInt(ADMIN_PAGES.length)];
+                return new Result("GET " + page, status(get(page, admin.token())));
+            }
+            default:
+                return bookOperation(random);
+        }
+    }
+    
+    private Result loginOperation(SplittableRandom random) {
+        int slot = random.nextInt(sessions.length());
+        HttpRequest request = post("/auth/login", null, Map.of(
+                "email", patientEmail(random), "password", password, "role", "PATIENT"));
+        CompletableFuture<Integer> status = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() == 200) {
+                        // The new login replaces one of the active sessions
+                        sessions.set(slot, session(response.body()));
+                    }
+                    return response.statusCode();
+                });
+        return new Result("POST /auth/login", status);
+    }
+    
+    private Result browseOperation(SplittableRandom random) {
+        Session session = sessions.get(random.nextInt(sessions.length()));
+        if (specializations.isEmpty() || random.nextInt(4) == 0) {
+            return new Result("GET /users/doctors", status(get("/users/doctors", session.token())));
+        }
+        String specialization = specializations.get(random.nextInt(specializations.size()));
+        String path = "/users/doctors/specialization/" + URLEncoder.encode(specialization, StandardCharsets.UTF_8)
+                .replace("+", "%20");
+        return new Result("GET /users/doctors/specialization/{specialization}", status(get(path, session.token())));
+    }
+    
+    private Result bookOperation(SplittableRandom random) {
+        Session session = sessions.get(random.nextInt(sessions.length()));
+        LocalDate date = LocalDate.now().plusDays(1 + random.nextInt(60));
+        LocalTime time = LocalTime.of(9, 0).plusMinutes(30L * random.nextInt(16));
+        double fee = 50 + 10 * random.nextInt(26);
+        HttpRequest request = post("/appointments", session.token(), Map.of(
+                "patient", Map.of("id", session.userId()),
+                "doctor", Map.of("id", doctorIds.get(random.nextInt(doctorIds.size()))),
+                "appointmentDate", date.toString(),
+                "appointmentTime", time.toString(),
+                "consultationFee", fee,
+                "notes", "Booked by the load driver"));
+        CompletableFuture<Integer> status = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() == 200) {
+                        unpaid.add(new Booking(session, readTree(response.body()).get("id").asLong(), fee));
+                    }
+                    return response.statusCode();
+                });
+        return new Result("POST /appointments", status);
+    }
+    
+    private Result payOperation(Booking booking, SplittableRandom random) {
+        HttpRequest request = post("/payments/process", booking.session().token(), Map.of(
+                "appointmentId", booking.appointmentId(),
+                "amount", booking.fee(),
+                "paymentMethod", "CREDIT_CARD",
+                "cardLastFour", String.format("%04d", booking.session().userId() % 10000),
+                "cardType", CARD_TYPES[random.nextInt(CARD_TYPES.length)],
+                "billingAddress", "1 Main Street"));
+        return new Result("POST /payments/process", status(request));
+    }
+    
+    private Session login(String email, String role) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(post("/auth/login", null, Map.of(
+                "email", email, "password", password, "role", role)), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login of " + email + " failed with HTTP " + response.statusCode());
+        }
+        return session(response.body());
+    }
+    
+    private Session session(String body) {
+        JsonNode auth = readTree(body);
+        return new Session(auth.path("user").path("id").asLong(), auth.get("token").asText());
+    }
+    
+    private String patientEmail(SplittableRandom random) {
+        return "patient" + (1 + random.nextInt(patients)) + "@" + emailDomain;
+    }
+    
+    private CompletableFuture<Integer> status(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+    
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+    
+    private HttpRequest post(String path, String token, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        try {
+            return builder.POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private JsonNode readTree(String body) {
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.doctorpat.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcomes and latencies of one endpoint. Latencies are kept as raw samples (microseconds) so
+ * the percentiles are exact; a ten-minute run at a few hundred requests per second is a few
+ * megabytes.
+ */
+class EndpointStats {
+    
+    private final String endpoint;
+    private long[] latencies = new long[1024];
+    private int count;
+    private long success;
+    private long clientErrors;
+    private long serverErrors;
+    private long failures;
+    
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+    
+    // status is 0 when the request failed without a response (connection error, timeout)
+    synchronized void record(int status, long latencyMicros) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyMicros;
+        if (status == 0) {
+            failures++;
+        } else if (status >= 500) {
+            serverErrors++;
+        } else if (status >= 400) {
+            clientErrors++;
+        } else {
+            success++;
+        }
+    }
+    
+    synchronized Map<String, Object> summary(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", endpoint);
+        summary.put("requests", count);
+        summary.put("success", success);
+        summary.put("clientErrors", clientErrors);
+        summary.put("serverErrors", serverErrors);
+        summary.put("failures", failures);
+        summary.put("throughput", seconds > 0 ? count / seconds : 0.0);
+        summary.put("p50Ms", percentile(sorted, 50.0));
+        summary.put("p90Ms", percentile(sorted, 90.0));
+        summary.put("p99Ms", percentile(sorted, 99.0));
+        summary.put("p999Ms", percentile(sorted, 99.9));
+        summary.put("maxMs", sorted.length > 0 ? sorted[sorted.length - 1] / 1000.0 : 0.0);
+        return summary;
+    }
+    
+    // Nearest-rank percentile
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1000.0;
+    }
+}
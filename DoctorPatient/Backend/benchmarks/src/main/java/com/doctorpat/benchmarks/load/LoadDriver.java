@@ -0,0 +1,227 @@
+package com.doctorpat.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays the clinic load mix against a running backend at a fixed arrival rate and reports
+ * throughput and latency percentiles per endpoint.
+ *
+ * <p>Requests are started on a fixed schedule whether or not earlier ones have finished (an
+ * open workload, like real users), and each latency is measured from the request's scheduled
+ * start, so a stalled server shows up in the percentiles instead of silently lowering the rate.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.doctorpat.benchmarks.load.LoadDriver \
+ *     --base-url=http://localhost:8080/api --rps=200 --duration=120 --warmup=20 \
+ *     --mix=login:10,browse:40,book:20,pay:20,admin:10 --out=load.json
+ * </pre>
+ */
+public class LoadDriver {
+    
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    
+    static {
+        DEFAULTS.put("base-url", "http://localhost:8080/api");
+        DEFAULTS.put("rps", "100");
+        DEFAULTS.put("duration", "60");
+        DEFAULTS.put("warmup", "10");
+        DEFAULTS.put("mix", "login:10,browse:40,book:20,pay:20,admin:10");
+        DEFAULTS.put("patients", "1000000");
+        DEFAULTS.put("sessions", "500");
+        DEFAULTS.put("password", "LoadTest123");
+        DEFAULTS.put("email-domain", "loadtest.local");
+        DEFAULTS.put("seed", "");
+        DEFAULTS.put("max-in-flight", "2000");
+        DEFAULTS.put("timeout", "30");
+        DEFAULTS.put("wait-for-backend", "600");
+        DEFAULTS.put("out", "");
+    }
+    
+    private static final Map<String, ClinicScenario.Operation> MIX_NAMES = Map.of(
+            "login", ClinicScenario.Operation.LOGIN,
+            "browse", ClinicScenario.Operation.BROWSE_DOCTORS,
+            "book", ClinicScenario.Operation.BOOK,
+            "pay", ClinicScenario.Operation.PAY,
+            "admin", ClinicScenario.Operation.ADMIN_STATS);
+    
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        System.exit(new LoadDriver().run(options) ? 0 : 1);
+    }
+    
+    boolean run(Map<String, String> options) throws Exception {
+        double rps = Double.parseDouble(options.get("rps"));
+        long duration = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("duration")));
+        long warmup = TimeUnit.SECONDS.toNanos(Long.parseLong(options.get("warmup")));
+        Map<ClinicScenario.Operation, Integer> mix = parseMix(options.get("mix"));
+        int maxInFlight = Integer.parseInt(options.get("max-in-flight"));
+        // A fixed seed replays the same requests, but its bookings then conflict with the previous run's
+        long seed = options.get("seed").isBlank() ? System.nanoTime() : Long.parseLong(options.get("seed"));
+        SplittableRandom random = new SplittableRandom(seed);
+        
+        ExecutorService callbacks = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(callbacks)
+                .build();
+        ClinicScenario scenario = new ClinicScenario(client, options.get("base-url"), options.get("email-domain"),
+                options.get("password"), Integer.parseInt(options.get("patients")),
+                Integer.parseInt(options.get("sessions")), Duration.ofSeconds(Long.parseLong(options.get("timeout"))));
+        
+        System.out.printf("Preparing %s sessions against %s%n", options.get("sessions"), options.get("base-url"));
+        scenario.prepare(random, Duration.ofSeconds(Long.parseLong(options.get("wait-for-backend"))));
+        System.out.printf("Running %.0f req/s for %ds after %ds warmup, mix %s, %d doctors, seed %d%n", rps,
+                TimeUnit.NANOSECONDS.toSeconds(duration), TimeUnit.NANOSECONDS.toSeconds(warmup), mix,
+                scenario.getDoctorCount(), seed);
+        
+        ClinicScenario.Operation[] operations = weighted(mix);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rps);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup;
+        long end = measureFrom + duration;
+        long nextReport = start + TimeUnit.SECONDS.toNanos(10);
+        
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * interval;
+            if (scheduled >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < scheduled) {
+                LockSupport.parkNanos(scheduled - now);
+            }
+            if (now >= nextReport) {
+                System.out.printf("  %3ds  completed %d, in flight %d, dropped %d%n",
+                        TimeUnit.NANOSECONDS.toSeconds(now - start), completed.get(),
+                        maxInFlight - inFlight.availablePermits(), dropped.get());
+                nextReport += TimeUnit.SECONDS.toNanos(10);
+            }
+            // The client can't keep up or the server stopped answering; counted, not queued
+            if (!inFlight.tryAcquire()) {
+                dropped.incrementAndGet();
+                continue;
+            }
+            
+            boolean measured = scheduled >= measureFrom;
+            ClinicScenario.Result result;
+            try {
+                result = scenario.execute(operations[random.nextInt(operations.length)], random);
+            } catch (RuntimeException e) {
+                inFlight.release();
+                throw e;
+            }
+            result.status().whenComplete((status, error) -> {
+                long latency = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduled);
+                if (measured) {
+                    stats.computeIfAbsent(result.endpoint(), EndpointStats::new)
+                            .record(error != null ? 0 : status, latency);
+                }
+                completed.incrementAndGet();
+                inFlight.release();
+            });
+        }
+        
+        // Let the requests still in flight finish so their latencies are counted
+        inFlight.tryAcquire(maxInFlight, Long.parseLong(options.get("timeout")) + 5, TimeUnit.SECONDS);
+        callbacks.shutdownNow();
+        return report(TimeUnit.NANOSECONDS.toMillis(duration) / 1000.0, rps, options.get("out"));
+    }
+    
+    private boolean report(double seconds, double rps, String out) throws Exception {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        stats.values().forEach(endpoint -> endpoints.add(endpoint.summary(seconds)));
+        endpoints.sort((a, b) -> ((String) a.get("endpoint")).compareTo((String) b.get("endpoint")));
+        
+        long total = 0;
+        long failed = 0;
+        System.out.printf("%n%-52s %8s %7s %6s %6s %6s %9s %9s %9s %9s %9s%n", "Endpoint", "Requests",
+                "Req/s", "4xx", "5xx", "Fail", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map<String, Object> endpoint : endpoints) {
+            total += ((Number) endpoint.get("requests")).longValue();
+            failed += ((Number) endpoint.get("serverErrors")).longValue() + ((Number) endpoint.get("failures")).longValue();
+            System.out.printf("%-52s %8d %7.1f %6d %6d %6d %9.1f %9.1f %9.1f %9.1f %9.1f%n", endpoint.get("endpoint"),
+                    endpoint.get("requests"), endpoint.get("throughput"), endpoint.get("clientErrors"),
+                    endpoint.get("serverErrors"), endpoint.get("failures"), endpoint.get("p50Ms"),
+                    endpoint.get("p90Ms"), endpoint.get("p99Ms"), endpoint.get("p999Ms"), endpoint.get("maxMs"));
+        }
+        System.out.printf("%nTotal %d requests in %.0fs (%.1f req/s of %.1f targeted), %d dropped, %d failed%n",
+                total, seconds, total / seconds, rps, dropped.get(), failed);
+        
+        if (!out.isBlank()) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("targetRps", rps);
+            result.put("durationSeconds", seconds);
+            result.put("dropped", dropped.get());
+            result.put("endpoints", endpoints);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(new File(out), result);
+            System.out.println("Results written to " + out);
+        }
+        return failed == 0 && dropped.get() == 0;
+    }
+    
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : null;
+            if (name == null || !DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option " + arg + "; options are --" +
+                        String.join("=, --", DEFAULTS.keySet()) + "=");
+            }
+            options.put(name, arg.substring(equals + 1));
+        }
+        return options;
+    }
+    
+    static Map<ClinicScenario.Operation, Integer> parseMix(String mix) {
+        Map<ClinicScenario.Operation, Integer> weights = new EnumMap<>(ClinicScenario.Operation.class);
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split(":");
+            ClinicScenario.Operation operation = MIX_NAMES.get(entry[0].trim());
+            if (operation == null || entry.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + part + "'; use name:weight with names " +
+                        MIX_NAMES.keySet());
+            }
+            weights.put(operation, Integer.parseInt(entry[1].trim()));
+        }
+        return weights;
+    }
+    
+    // One slot per unit of weight, so a uniform pick follows the mix
+    private static ClinicScenario.Operation[] weighted(Map<ClinicScenario.Operation, Integer> mix) {
+        List<ClinicScenario.Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no weight");
+        }
+        return slots.toArray(new ClinicScenario.Operation[0]);
+    }
+}
@@ -0,0 +1,106 @@
+package com.doctorpat.config;
+
+import com.doctorpat.event.DoctorsImportedEvent;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache for users and wellness services, plus a query cache for the
+ * active-doctor and active-service lists, on Caffeine through JCache. Every region is created
+ * here with its own size and TTL from second-level-cache.&lt;region&gt;.max-entries and
+ * .ttl-seconds (0 = no expiry), and reports cache.gets/puts/evictions per region.
+ */
+@Configuration
+@ConditionalOnProperty(name = "second-level-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+    
+    public static final String USERS_REGION = "users";
+    public static final String WELLNESS_SERVICES_REGION = "wellness-services";
+    public static final String ACTIVE_DOCTORS_QUERY_REGION = "query.active-doctors";
+    public static final String ACTIVE_WELLNESS_SERVICES_QUERY_REGION = "query.active-wellness-services";
+    
+    // Default max entries and TTL seconds per region
+    private static final Map<String, long[]> REGION_DEFAULTS = Map.of(
+            USERS_REGION, new long[] {50000, 600},
+            WELLNESS_SERVICES_REGION, new long[] {10000, 300},
+            ACTIVE_DOCTORS_QUERY_REGION, new long[] {1000, 300},
+            ACTIVE_WELLNESS_SERVICES_QUERY_REGION, new long[] {100, 300},
+            "default-query-results-region", new long[] {1000, 300},
+            // Cached query results are checked against these timestamps, so they must not expire first
+            "default-update-timestamps-region", new long[] {10000, 0});
+    
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    
+    public SecondLevelCacheConfig(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+    
+    @Bean(destroyMethod = "close")
+    public static CacheManager secondLevelCacheManager(Environment environment) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        REGION_DEFAULTS.forEach((region, defaults) -> {
+            long maxEntries = environment.getProperty("second-level-cache." + region + ".max-entries", Long.class,
+                    defaults[0]);
+            long ttlSeconds = environment.getProperty("second-level-cache." + region + ".ttl-seconds", Long.class,
+                    defaults[1]);
+            
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            if (ttlSeconds > 0) {
+                configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            }
+            // Hibernate caches its own disassembled state, there's no need to copy it again
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, configuration);
+            }
+        });
+        return cacheManager;
+    }
+    
+    @Bean
+    public static HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            // A region missing above is a configuration error rather than an unbounded cache
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+    
+    @Bean
+    public static MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> REGION_DEFAULTS.keySet().forEach(region -> JCacheMetrics.monitor(registry,
+                secondLevelCacheManager.getCache(region), Tags.of("cacheManager", "hibernate")));
+    }
+    
+    // Imported doctors are inserted with JDBC, which the query cache doesn't see
+    @EventListener
+    public void onDoctorsImported(DoctorsImportedEvent event) {
+        entityManagerFactory.getObject().getCache().unwrap(org.hibernate.Cache.class)
+                .evictQueryRegion(ACTIVE_DOCTORS_QUERY_REGION);
+    }
+}
@@ -0,0 +1,67 @@
+package com.doctorpat.controller;
+
+import com.doctorpat.dto.AdminDashboard;
+import com.doctorpat.dto.DoctorDashboard;
+import com.doctorpat.dto.PatientDashboard;
+import com.doctorpat.service.DashboardService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/dashboard")
+@Tag(name = "Dashboards", description = "Everything a dashboard shows on load, in one call")
+@CrossOrigin(origins = "*")
+public class DashboardController {
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @GetMapping("/doctor")
+    @Operation(
+        summary = "Doctor Dashboard",
+        description = "The signed-in doctor's profile, today's appointments, upcoming and unpaid appointment counts and this month's revenue"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Dashboard retrieved; sections listed in unavailable are null"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('DOCTOR')")
+    public ResponseEntity<DoctorDashboard> getDoctorDashboard(Authentication authentication) {
+        return ResponseEntity.ok(dashboardService.getDoctorDashboard(authentication.getName()));
+    }
+    
+    @GetMapping("/patient")
+    @Operation(
+        summary = "Patient Dashboard",
+        description = "The signed-in patient's profile, next appointments, unpaid appointment count and latest payments"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Dashboard retrieved; sections listed in unavailable are null"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('PATIENT')")
+    public ResponseEntity<PatientDashboard> getPatientDashboard(Authentication authentication) {
+        return ResponseEntity.ok(dashboardService.getPatientDashboard(authentication.getName()));
+    }
+    
+    @GetMapping("/admin")
+    @Operation(
+        summary = "Admin Dashboard",
+        description = "Users by role, appointments and payments by status and this month's revenue"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Dashboard retrieved; sections listed in unavailable are null"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AdminDashboard> getAdminDashboard() {
+        return ResponseEntity.ok(dashboardService.getAdminDashboard());
+    }
+}
@@ -1,11 +1,19 @@
 package com.doctorpat.controller;
 
+import com.doctorpat.dto.BatchSettlementRequest;
+import com.doctorpat.dto.BatchSettlementResponse;
 import com.doctorpat.entity.Payment;
 import com.doctorpat.entity.Appointment;
 import com.doctorpat.entity.User;
 import com.doctorpat.repository.PaymentRepository;
 import com.doctorpat.repository.AppointmentRepository;
 import com.doctorpat.repository.UserRepository;
+import com.doctorpat.service.PaymentExportService;
+import com.doctorpat.service.PaymentGatewayResult;
+import com.doctorpat.service.PaymentGatewayService;
+import com.doctorpat.service.PaymentPartitionService;
+import com.doctorpat.service.PaymentSettlementService;
+import com.doctorpat.service.PaymentVelocityTracker;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,13 +21,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,6 +57,24 @@ public class PaymentController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private PaymentGatewayService paymentGatewayService;
+    
+    @Autowired
+    private PaymentExportService paymentExportService;
+    
+    @Autowired
+    private PaymentSettlementService paymentSettlementService;
+    
+    @Autowired
+    private PaymentPartitionService paymentPartitionService;
+    
+    @Autowired
+    private PaymentVelocityTracker paymentVelocityTracker;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
     @GetMapping
     @Operation(
         summary = "Get All Payments",
@@ -55,6 +90,59 @@ public class PaymentController {
         return ResponseEntity.ok(payments);
     }
     
+    @GetMapping("/export")
+    @Operation(
+        summary = "Export Payments",
+        description = "Stream payments in a date range as gzip-compressed CSV or NDJSON for reconciliation"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid date, status, method or format"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+        @Parameter(description = "Start date (yyyy-MM-dd)")
+        @RequestParam(required = false) String startDate,
+        @Parameter(description = "End date, inclusive (yyyy-MM-dd)")
+        @RequestParam(required = false) String endDate,
+        @Parameter(description = "Payment status")
+        @RequestParam(required = false) String status,
+        @Parameter(description = "Payment method")
+        @RequestParam(required = false) String paymentMethod,
+        @Parameter(description = "Export format (csv or ndjson)")
+        @RequestParam(defaultValue = "csv") String format) {
+        
+        LocalDate start;
+        LocalDate end;
+        Payment.PaymentStatus paymentStatus;
+        Payment.PaymentMethod method;
+        PaymentExportService.Format exportFormat;
+        try {
+            end = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+            start = startDate != null ? LocalDate.parse(startDate) : end.minusDays(30);
+            paymentStatus = status != null ? Payment.PaymentStatus.valueOf(status.toUpperCase()) : null;
+            method = paymentMethod != null ? Payment.PaymentMethod.valueOf(paymentMethod.toUpperCase()) : null;
+            exportFormat = PaymentExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        String fileName = "payments-" + start + "-" + end + (exportFormat == PaymentExportService.Format.CSV ? ".csv" : ".ndjson");
+        MediaType contentType = exportFormat == PaymentExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        
+        StreamingResponseBody body = outputStream -> paymentExportService.export(
+            start.atStartOfDay(), end.plusDays(1).atStartOfDay(), paymentStatus, method, exportFormat, outputStream);
+        
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+    
     @GetMapping("/{id}")
     @Operation(
         summary = "Get Payment by ID",
@@ -148,8 +236,11 @@ public class PaymentController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Payment processed successfully"),
-        @ApiResponse(responseCode = "400", description = "Bad request"),
-        @ApiResponse(responseCode = "404", description = "Appointment not found")
+        @ApiResponse(responseCode = "202", description = "Payment held for review or gateway outcome unknown, payment pending"),
+        @ApiResponse(responseCode = "400", description = "Bad request or payment declined"),
+        @ApiResponse(responseCode = "404", description = "Appointment not found"),
+        @ApiResponse(responseCode = "409", description = "Appointment already paid or has another payment in progress"),
+        @ApiResponse(responseCode = "503", description = "Payment gateway busy or unavailable, payment cancelled without charge")
     })
     public ResponseEntity<Payment> processPayment(
         @Parameter(description = "Payment details", required = true)
@@ -162,6 +253,7 @@ public class PaymentController {
         }
         
         Appointment appointment = appointmentOptional.get();
+        Long appointmentId = appointment.getId();
         
         // Create payment
         Payment payment = new Payment();
@@ -174,39 +266,140 @@ public class PaymentController {
         payment.setCardLastFour(paymentRequest.getCardLastFour());
         payment.setCardType(paymentRequest.getCardType());
         payment.setBillingAddress(paymentRequest.getBillingAddress());
+        payment.setStatus(Payment.PaymentStatus.PROCESSING);
         
-        // Simulate payment processing
-        try {
-            // In a real application, this would integrate with a payment gateway
-            Thread.sleep(1000); // Simulate processing time
-            
-            // Simulate successful payment (90% success rate)
-            if (Math.random() > 0.1) {
-                payment.setStatus(Payment.PaymentStatus.COMPLETED);
-                payment.setProcessedAt(LocalDateTime.now());
-                
-                // Update appointment payment status
-                appointment.setPaymentStatus(Appointment.PaymentStatus.PAID);
-                appointmentRepository.save(appointment);
-                
-                Payment savedPayment = paymentRepository.save(payment);
-                return ResponseEntity.ok(savedPayment);
-            } else {
-                payment.setStatus(Payment.PaymentStatus.FAILED);
-                payment.setFailureReason("Payment gateway error");
-                payment.setProcessedAt(LocalDateTime.now());
-                
-                Payment savedPayment = paymentRepository.save(payment);
-                return ResponseEntity.badRequest().body(savedPayment);
+        // Claim the appointment before calling the gateway: under its row lock, refuse it if it is paid
+        // or has another payment in progress, otherwise record this payment as PROCESSING. Concurrent
+        // payments and settlements for the same appointment then see the claim and back off.
+        Payment claimedPayment = transactionTemplate.execute(status -> {
+            List<Appointment> locked = appointmentRepository.findAllByIdForUpdate(List.of(appointmentId));
+            if (locked.isEmpty() || locked.get(0).getPaymentStatus() == Appointment.PaymentStatus.PAID
+                    || !paymentRepository.findAppointmentIdsWithStatus(List.of(appointmentId),
+                            PaymentSettlementService.CLAIMING_STATUSES).isEmpty()) {
+                return null;
             }
-        } catch (InterruptedException e) {
-            payment.setStatus(Payment.PaymentStatus.FAILED);
-            payment.setFailureReason("Processing timeout");
-            payment.setProcessedAt(LocalDateTime.now());
+            return paymentRepository.save(payment);
+        });
+        if (claimedPayment == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        
+        // Bursts from the same patient or card are held for review without reaching the gateway
+        Optional<String> reviewReason = paymentVelocityTracker.recordAttempt(
+            appointment.getPatient() != null ? appointment.getPatient().getId() : null,
+            paymentRequest.getCardType(), paymentRequest.getCardLastFour());
+        if (reviewReason.isPresent()) {
+            claimedPayment.setStatus(Payment.PaymentStatus.UNDER_REVIEW);
+            claimedPayment.setFailureReason(reviewReason.get());
             
-            Payment savedPayment = paymentRepository.save(payment);
-            return ResponseEntity.badRequest().body(savedPayment);
+            Payment savedPayment = paymentRepository.save(claimedPayment);
+            return ResponseEntity.accepted().body(savedPayment);
         }
+        
+        return authorizeClaimed(claimedPayment, appointmentId);
+    }
+    
+    @PostMapping("/{id}/approve")
+    @Operation(
+        summary = "Approve Held Payment",
+        description = "Release a payment held for review to the gateway"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Payment approved by the gateway"),
+        @ApiResponse(responseCode = "202", description = "Gateway outcome unknown, payment pending"),
+        @ApiResponse(responseCode = "400", description = "Payment not held for review, or declined"),
+        @ApiResponse(responseCode = "404", description = "Payment not found"),
+        @ApiResponse(responseCode = "409", description = "Appointment paid or another payment in progress meanwhile"),
+        @ApiResponse(responseCode = "503", description = "Payment gateway busy or unavailable, payment cancelled without charge")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Payment> approveHeldPayment(
+        @Parameter(description = "Payment ID", required = true)
+        @PathVariable Long id) {
+        
+        Optional<Payment> paymentOptional = paymentRepository.findById(id);
+        if (paymentOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (paymentOptional.get().getStatus() != Payment.PaymentStatus.UNDER_REVIEW) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long appointmentId = paymentOptional.get().getAppointment().getId();
+        
+        // Claim the appointment the same way /process does; the patient may have paid another way while it was held
+        Payment claimedPayment = transactionTemplate.execute(status -> {
+            List<Appointment> locked = appointmentRepository.findAllByIdForUpdate(List.of(appointmentId));
+            Payment held = paymentRepository.findById(id).orElse(null);
+            if (locked.isEmpty() || locked.get(0).getPaymentStatus() == Appointment.PaymentStatus.PAID
+                    || held == null || held.getStatus() != Payment.PaymentStatus.UNDER_REVIEW
+                    || !paymentRepository.findAppointmentIdsWithStatus(List.of(appointmentId),
+                            PaymentSettlementService.CLAIMING_STATUSES).isEmpty()) {
+                return null;
+            }
+            held.setStatus(Payment.PaymentStatus.PROCESSING);
+            held.setFailureReason(null);
+            return paymentRepository.save(held);
+        });
+        if (claimedPayment == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        
+        return authorizeClaimed(claimedPayment, appointmentId);
+    }
+    
+    @PostMapping("/{id}/reject")
+    @Operation(
+        summary = "Reject Held Payment",
+        description = "Cancel a payment held for review without charging it"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Payment cancelled"),
+        @ApiResponse(responseCode = "400", description = "Payment not held for review"),
+        @ApiResponse(responseCode = "404", description = "Payment not found")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Payment> rejectHeldPayment(
+        @Parameter(description = "Payment ID", required = true)
+        @PathVariable Long id,
+        @Parameter(description = "Rejection reason")
+        @RequestParam(required = false) String reason) {
+        
+        Optional<Payment> paymentOptional = paymentRepository.findById(id);
+        if (paymentOptional.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        Payment payment = paymentOptional.get();
+        
+        if (payment.getStatus() != Payment.PaymentStatus.UNDER_REVIEW) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        payment.setStatus(Payment.PaymentStatus.CANCELLED);
+        payment.setFailureReason(reason != null ? reason : "Rejected in review");
+        payment.setProcessedAt(LocalDateTime.now());
+        
+        Payment updatedPayment = paymentRepository.save(payment);
+        return ResponseEntity.ok(updatedPayment);
+    }
+    
+    @PostMapping("/settlements")
+    @Operation(
+        summary = "Settle Appointments in Batch",
+        description = "Pay many appointments with one gateway authorization and return a result per appointment"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Settlement processed, see per-item results"),
+        @ApiResponse(responseCode = "400", description = "Bad request"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BatchSettlementResponse> settleAppointments(
+        @Parameter(description = "Appointments and payment details", required = true)
+        @Valid @RequestBody BatchSettlementRequest settlementRequest) {
+        
+        BatchSettlementResponse response = paymentSettlementService.settle(settlementRequest);
+        return ResponseEntity.ok(response);
     }
     
     @PostMapping("/{id}/refund")
@@ -288,6 +481,80 @@ public class PaymentController {
         ));
     }
     
+    @GetMapping("/partitions")
+    @Operation(
+        summary = "Get Payment Partitions",
+        description = "List the monthly partitions of the payments table and the partitions the date-range queries read"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Partition information retrieved successfully"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Object> getPartitions(
+        @Parameter(description = "Start date (yyyy-MM-dd)")
+        @RequestParam(required = false) String startDate,
+        @Parameter(description = "End date (yyyy-MM-dd)")
+        @RequestParam(required = false) String endDate,
+        @Parameter(description = "Patient ID; when given, the patient query is explained too")
+        @RequestParam(required = false) Long patientId,
+        @Parameter(description = "Doctor ID; when given, the doctor query is explained too")
+        @RequestParam(required = false) Long doctorId) {
+        
+        LocalDate today = LocalDate.now();
+        LocalDateTime start = startDate != null ? LocalDateTime.parse(startDate + "T00:00:00") : today.withDayOfMonth(1).atStartOfDay();
+        LocalDateTime end = endDate != null ? LocalDateTime.parse(endDate + "T23:59:59") : today.atTime(23, 59, 59);
+        
+        return ResponseEntity.ok(Map.of(
+            "partitions", paymentPartitionService.getPartitions(),
+            "partitionsRead", paymentPartitionService.explainDateRangeQueries(start, end, patientId, doctorId),
+            "startDate", start,
+            "endDate", end
+        ));
+    }
+    
+    // Authorizes a payment that claims its appointment (PROCESSING) and records the outcome. Timeouts
+    // and errors fall back to PENDING, a payment the bulkhead or an open circuit kept from the gateway
+    // is cancelled.
+    private ResponseEntity<Payment> authorizeClaimed(Payment claimedPayment, Long appointmentId) {
+        PaymentGatewayResult result = paymentGatewayService.authorize(claimedPayment);
+        claimedPayment.setPaymentGatewayResponse(result.getMessage());
+        
+        switch (result.getOutcome()) {
+            case APPROVED: {
+                claimedPayment.setStatus(Payment.PaymentStatus.COMPLETED);
+                claimedPayment.setProcessedAt(LocalDateTime.now());
+                
+                // Record the payment and mark the appointment paid together
+                Payment savedPayment = transactionTemplate.execute(status -> {
+                    appointmentRepository.updatePaymentStatus(List.of(appointmentId), Appointment.PaymentStatus.PAID);
+                    return paymentRepository.save(claimedPayment);
+                });
+                return ResponseEntity.ok(savedPayment);
+            }
+            case DECLINED: {
+                claimedPayment.setStatus(Payment.PaymentStatus.FAILED);
+                claimedPayment.setFailureReason(result.getMessage());
+                claimedPayment.setProcessedAt(LocalDateTime.now());
+                
+                Payment savedPayment = paymentRepository.save(claimedPayment);
+                return ResponseEntity.badRequest().body(savedPayment);
+            }
+            case NOT_SENT: {
+                claimedPayment.setStatus(Payment.PaymentStatus.CANCELLED);
+                claimedPayment.setFailureReason(result.getMessage());
+                
+                Payment savedPayment = paymentRepository.save(claimedPayment);
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(savedPayment);
+            }
+            default: {
+                claimedPayment.setStatus(Payment.PaymentStatus.PENDING);
+                Payment savedPayment = paymentRepository.save(claimedPayment);
+                return ResponseEntity.accepted().body(savedPayment);
+            }
+        }
+    }
+    
     // Inner class for payment request
     public static class PaymentRequest {
         private Long appointmentId;
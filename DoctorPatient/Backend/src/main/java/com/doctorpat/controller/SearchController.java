@@ -0,0 +1,44 @@
+package com.doctorpat.controller;
+
+import com.doctorpat.dto.AutocompleteSuggestion;
+import com.doctorpat.service.AutocompleteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search")
+@Tag(name = "Search", description = "Search and autocomplete APIs")
+@CrossOrigin(origins = "*")
+public class SearchController {
+    
+    private static final int MAX_SUGGESTIONS = 50;
+    
+    @Autowired
+    private AutocompleteService autocompleteService;
+    
+    @GetMapping("/autocomplete")
+    @Operation(
+        summary = "Autocomplete",
+        description = "Suggest doctors, specializations and wellness services whose name or one of its words starts with the query"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully")
+    })
+    public ResponseEntity<List<AutocompleteSuggestion>> autocomplete(
+        @Parameter(description = "Text typed so far", required = true)
+        @RequestParam String q,
+        @Parameter(description = "Maximum number of suggestions (up to 50)")
+        @RequestParam(defaultValue = "10") int limit) {
+        
+        List<AutocompleteSuggestion> suggestions = autocompleteService.suggest(q, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(suggestions);
+    }
+}
@@ -1,7 +1,15 @@
 package com.doctorpat.controller;
 
+import com.doctorpat.dto.PatientSummary;
+import com.doctorpat.dto.UserImportResponse;
+import com.doctorpat.dto.UserSummary;
+import com.doctorpat.entity.Specialization;
 import com.doctorpat.entity.User;
+import com.doctorpat.event.DoctorDirectoryChangedEvent;
 import com.doctorpat.repository.UserRepository;
+import com.doctorpat.service.DoctorDirectoryService;
+import com.doctorpat.service.SpecializationService;
+import com.doctorpat.service.UserImportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,10 +18,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 import java.util.Map;
@@ -27,6 +38,18 @@ public class UserController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private DoctorDirectoryService doctorDirectoryService;
+    
+    @Autowired
+    private SpecializationService specializationService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private UserImportService userImportService;
+    
     @GetMapping
     @Operation(
         summary = "Get All Users",
@@ -37,8 +60,8 @@ public class UserController {
         @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userRepository.findAll();
+    public ResponseEntity<List<UserSummary>> getAllUsers() {
+        List<UserSummary> users = userRepository.findAllSummaries();
         return ResponseEntity.ok(users);
     }
     
@@ -71,13 +94,13 @@ public class UserController {
         @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getUsersByRole(
+    public ResponseEntity<List<UserSummary>> getUsersByRole(
         @Parameter(description = "User role (PATIENT, DOCTOR, ADMIN)", required = true)
         @PathVariable String role) {
         
         try {
             User.UserRole userRole = User.UserRole.valueOf(role.toUpperCase());
-            List<User> users = userRepository.findByRole(userRole);
+            List<UserSummary> users = userRepository.findSummariesByRole(userRole);
             return ResponseEntity.ok(users);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -93,7 +116,7 @@ public class UserController {
         @ApiResponse(responseCode = "200", description = "Doctors retrieved successfully")
     })
     public ResponseEntity<List<User>> getAllDoctors() {
-        List<User> doctors = userRepository.findAllActiveDoctors();
+        List<User> doctors = doctorDirectoryService.getActiveDoctors();
         return ResponseEntity.ok(doctors);
     }
     
@@ -109,10 +132,23 @@ public class UserController {
         @Parameter(description = "Doctor specialization", required = true)
         @PathVariable String specialization) {
         
-        List<User> doctors = userRepository.findDoctorsBySpecialization(specialization);
+        List<User> doctors = doctorDirectoryService.getDoctorsBySpecialization(specialization);
         return ResponseEntity.ok(doctors);
     }
     
+    @GetMapping("/specializations")
+    @Operation(
+        summary = "Get Specializations",
+        description = "Retrieve the catalog of doctor specializations"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Specializations retrieved successfully")
+    })
+    public ResponseEntity<List<Specialization>> getSpecializations() {
+        List<Specialization> specializations = specializationService.getAll();
+        return ResponseEntity.ok(specializations);
+    }
+    
     @GetMapping("/patients")
     @Operation(
         summary = "Get All Patients",
@@ -123,11 +159,36 @@ public class UserController {
         @ApiResponse(responseCode = "403", description = "Access denied")
     })
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR')")
-    public ResponseEntity<List<User>> getAllPatients() {
-        List<User> patients = userRepository.findAllActivePatients();
+    public ResponseEntity<List<PatientSummary>> getAllPatients() {
+        List<PatientSummary> patients = userRepository.findActivePatientSummaries();
         return ResponseEntity.ok(patients);
     }
     
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson", "text/plain"})
+    @Operation(
+        summary = "Import Users",
+        description = "Register patients and doctors in bulk from a CSV file with a header row or from NDJSON, " +
+            "and return the rows that could not be imported"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import processed, see per-row errors"),
+        @ApiResponse(responseCode = "400", description = "Invalid format or CSV header"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResponse> importUsers(
+        @Parameter(description = "Import format (csv or ndjson)")
+        @RequestParam(defaultValue = "csv") String format,
+        InputStream body) throws IOException {
+        
+        try {
+            UserImportService.Format importFormat = UserImportService.Format.valueOf(format.toUpperCase());
+            return ResponseEntity.ok(userImportService.importUsers(body, importFormat));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @PutMapping("/{id}")
     @Operation(
         summary = "Update User",
@@ -147,6 +208,7 @@ public class UserController {
         Optional<User> userOptional = userRepository.findById(id);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
+            String previousSpecialization = user.getSpecialization();
             user.setName(userDetails.getName());
             user.setPhoneNumber(userDetails.getPhoneNumber());
             user.setProfileImage(userDetails.getProfileImage());
@@ -157,13 +219,17 @@ public class UserController {
                 user.setDateOfBirth(userDetails.getDateOfBirth());
                 user.setGender(userDetails.getGender());
             } else if (user.getRole() == User.UserRole.DOCTOR) {
-                user.setSpecialization(userDetails.getSpecialization());
+                specializationService.assign(user, userDetails.getSpecialization());
                 user.setLicenseNumber(userDetails.getLicenseNumber());
                 user.setYearsOfExperience(userDetails.getYearsOfExperience());
                 user.setConsultationFee(userDetails.getConsultationFee());
             }
             
             User updatedUser = userRepository.save(user);
+            if (updatedUser.getRole() == User.UserRole.DOCTOR) {
+                eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(
+                    updatedUser.getId(), previousSpecialization, updatedUser.getSpecialization()));
+            }
             return ResponseEntity.ok(updatedUser);
         } else {
             return ResponseEntity.notFound().build();
@@ -190,6 +256,10 @@ public class UserController {
             User user = userOptional.get();
             user.setIsActive(false);
             userRepository.save(user);
+            if (user.getRole() == User.UserRole.DOCTOR) {
+                eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(
+                    user.getId(), user.getSpecialization(), user.getSpecialization()));
+            }
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.notFound().build();
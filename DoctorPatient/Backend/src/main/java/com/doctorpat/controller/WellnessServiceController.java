@@ -1,7 +1,17 @@
 package com.doctorpat.controller;
 
+import com.doctorpat.dto.WellnessCatalogFilter;
+import com.doctorpat.dto.WellnessCatalogResult;
 import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import com.doctorpat.repository.UserRepository;
 import com.doctorpat.repository.WellnessServiceRepository;
+import com.doctorpat.service.SeatAvailabilityService;
+import com.doctorpat.service.SubscriberLimitException;
+import com.doctorpat.service.WellnessCatalogService;
+import com.doctorpat.service.WellnessEnrollmentService;
+import com.doctorpat.service.WellnessFilterService;
+import com.doctorpat.service.WellnessSearchService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,15 +19,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Map;
 
 @RestController
@@ -29,6 +47,27 @@ public class WellnessServiceController {
     @Autowired
     private WellnessServiceRepository wellnessServiceRepository;
     
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WellnessCatalogService wellnessCatalogService;
+    
+    @Autowired
+    private WellnessSearchService wellnessSearchService;
+    
+    @Autowired
+    private WellnessEnrollmentService wellnessEnrollmentService;
+    
+    @Autowired
+    private WellnessFilterService wellnessFilterService;
+    
+    @Autowired
+    private SeatAvailabilityService seatAvailabilityService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @GetMapping
     @Operation(
         summary = "Get All Wellness Services",
@@ -38,7 +77,7 @@ public class WellnessServiceController {
         @ApiResponse(responseCode = "200", description = "Wellness services retrieved successfully")
     })
     public ResponseEntity<List<WellnessService>> getAllWellnessServices() {
-        List<WellnessService> services = wellnessServiceRepository.findByIsActiveTrue();
+        List<WellnessService> services = wellnessCatalogService.getActiveServices();
         return ResponseEntity.ok(services);
     }
     
@@ -75,7 +114,7 @@ public class WellnessServiceController {
         
         try {
             WellnessService.ServiceCategory serviceCategory = WellnessService.ServiceCategory.valueOf(category.toUpperCase());
-            List<WellnessService> services = wellnessServiceRepository.findByCategoryAndIsActiveTrue(serviceCategory);
+            List<WellnessService> services = wellnessCatalogService.getByCategory(serviceCategory);
             return ResponseEntity.ok(services);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
@@ -85,23 +124,79 @@ public class WellnessServiceController {
     @GetMapping("/search")
     @Operation(
         summary = "Search Wellness Services",
-        description = "Search wellness services by keyword"
+        description = "Full-text search of active wellness services by name, description, benefits and requirements, best match first"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Search results retrieved successfully")
+        @ApiResponse(responseCode = "200", description = "Search results retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid page or size")
     })
-    public ResponseEntity<List<WellnessService>> searchWellnessServices(
-        @Parameter(description = "Search keyword", required = true)
-        @RequestParam String keyword) {
+    public ResponseEntity<Page<WellnessService>> searchWellnessServices(
+        @Parameter(description = "Search keywords", required = true)
+        @RequestParam String keyword,
+        @Parameter(description = "Page number, starting at 0")
+        @RequestParam(defaultValue = "0") int page,
+        @Parameter(description = "Page size (1-100)")
+        @RequestParam(defaultValue = "20") int size) {
+        
+        if (page < 0 || size < 1 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
         
-        List<WellnessService> services = wellnessServiceRepository.searchByKeyword(keyword);
+        Page<WellnessService> services = wellnessSearchService.search(keyword, page, size);
         return ResponseEntity.ok(services);
     }
     
+    @GetMapping("/filter")
+    @Operation(
+        summary = "Filter Wellness Services",
+        description = "Filter active wellness services by any combination of category, price range, duration, availability and keyword, " +
+                      "with counts of all matches per category and price band"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Filtered services retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid category, page or size")
+    })
+    public ResponseEntity<WellnessCatalogResult> filterWellnessServices(
+        @Parameter(description = "Service category")
+        @RequestParam(required = false) String category,
+        @Parameter(description = "Minimum price")
+        @RequestParam(required = false) BigDecimal minPrice,
+        @Parameter(description = "Maximum price")
+        @RequestParam(required = false) BigDecimal maxPrice,
+        @Parameter(description = "Maximum duration in minutes")
+        @RequestParam(required = false) Integer maxDuration,
+        @Parameter(description = "Only services with free seats")
+        @RequestParam(defaultValue = "false") boolean available,
+        @Parameter(description = "Search keywords")
+        @RequestParam(required = false) String keyword,
+        @Parameter(description = "Page number, starting at 0")
+        @RequestParam(defaultValue = "0") int page,
+        @Parameter(description = "Page size (1-100)")
+        @RequestParam(defaultValue = "20") int size) {
+        
+        if (page < 0 || size < 1 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        WellnessCatalogFilter filter = new WellnessCatalogFilter();
+        try {
+            filter.setCategory(category != null ? WellnessService.ServiceCategory.valueOf(category.toUpperCase()) : null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        filter.setMinPrice(minPrice);
+        filter.setMaxPrice(maxPrice);
+        filter.setMaxDuration(maxDuration);
+        filter.setAvailableOnly(available);
+        filter.setKeyword(keyword);
+        
+        return ResponseEntity.ok(wellnessFilterService.filter(filter, page, size));
+    }
+    
     @GetMapping("/price-range")
     @Operation(
         summary = "Get Wellness Services by Price Range",
-        description = "Retrieve wellness services within a specific price range"
+        description = "Retrieve wellness services within a specific price range, cheapest first"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Wellness services retrieved successfully")
@@ -112,16 +207,24 @@ public class WellnessServiceController {
         @Parameter(description = "Maximum price")
         @RequestParam(required = false) BigDecimal maxPrice) {
         
-        if (minPrice != null && maxPrice != null) {
-            List<WellnessService> services = wellnessServiceRepository.findByPriceRange(minPrice, maxPrice);
-            return ResponseEntity.ok(services);
-        } else if (maxPrice != null) {
-            List<WellnessService> services = wellnessServiceRepository.findByMaxPrice(maxPrice);
-            return ResponseEntity.ok(services);
-        } else {
-            List<WellnessService> services = wellnessServiceRepository.findByIsActiveTrue();
-            return ResponseEntity.ok(services);
-        }
+        List<WellnessService> services = wellnessCatalogService.getByPriceRange(minPrice, maxPrice);
+        return ResponseEntity.ok(services);
+    }
+    
+    @GetMapping("/max-duration")
+    @Operation(
+        summary = "Get Wellness Services by Maximum Duration",
+        description = "Retrieve wellness services that take at most the given number of minutes, shortest first"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Wellness services retrieved successfully")
+    })
+    public ResponseEntity<List<WellnessService>> getWellnessServicesByMaxDuration(
+        @Parameter(description = "Maximum duration in minutes", required = true)
+        @RequestParam Integer minutes) {
+        
+        List<WellnessService> services = wellnessCatalogService.getByMaxDuration(minutes);
+        return ResponseEntity.ok(services);
     }
     
     @GetMapping("/available")
@@ -133,7 +236,7 @@ public class WellnessServiceController {
         @ApiResponse(responseCode = "200", description = "Available services retrieved successfully")
     })
     public ResponseEntity<List<WellnessService>> getAvailableWellnessServices() {
-        List<WellnessService> services = wellnessServiceRepository.findAvailableServices();
+        List<WellnessService> services = wellnessCatalogService.getAvailable();
         return ResponseEntity.ok(services);
     }
     
@@ -153,6 +256,7 @@ public class WellnessServiceController {
         @Valid @RequestBody WellnessService wellnessService) {
         
         WellnessService savedService = wellnessServiceRepository.save(wellnessService);
+        eventPublisher.publishEvent(new WellnessServiceChangedEvent(savedService));
         return ResponseEntity.ok(savedService);
     }
     
@@ -190,6 +294,7 @@ public class WellnessServiceController {
             service.setIsActive(wellnessServiceDetails.getIsActive());
             
             WellnessService updatedService = wellnessServiceRepository.save(service);
+            eventPublisher.publishEvent(new WellnessServiceChangedEvent(updatedService));
             return ResponseEntity.ok(updatedService);
         } else {
             return ResponseEntity.notFound().build();
@@ -215,7 +320,7 @@ public class WellnessServiceController {
         if (serviceOptional.isPresent()) {
             WellnessService service = serviceOptional.get();
             service.setIsActive(false);
-            wellnessServiceRepository.save(service);
+            eventPublisher.publishEvent(new WellnessServiceChangedEvent(wellnessServiceRepository.save(service)));
             return ResponseEntity.ok().build();
         } else {
             return ResponseEntity.notFound().build();
@@ -225,7 +330,7 @@ public class WellnessServiceController {
     @PutMapping("/{id}/participants")
     @Operation(
         summary = "Update Participant Count",
-        description = "Update the current participant count for a wellness service"
+        description = "Overwrite the current participant count of a wellness service, for corrections; enrollments go through the enrollments endpoints"
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Participant count updated successfully"),
@@ -250,12 +355,100 @@ public class WellnessServiceController {
             
             service.setCurrentParticipants(currentParticipants);
             WellnessService updatedService = wellnessServiceRepository.save(service);
+            eventPublisher.publishEvent(new WellnessServiceChangedEvent(updatedService));
             return ResponseEntity.ok(updatedService);
         } else {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @PostMapping("/{id}/enrollments")
+    @Operation(
+        summary = "Enroll in Wellness Service",
+        description = "Take one seat in a wellness service for the current user if it is active and not full"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Enrolled successfully"),
+        @ApiResponse(responseCode = "404", description = "Wellness service not found"),
+        @ApiResponse(responseCode = "409", description = "Wellness service is full or inactive, or already enrolled"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'PATIENT')")
+    public ResponseEntity<Void> enroll(
+        @Parameter(description = "Wellness service ID", required = true)
+        @PathVariable Long id,
+        Authentication authentication) {
+        
+        Optional<Long> patientId = userRepository.findIdByEmail(authentication.getName());
+        if (patientId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (wellnessEnrollmentService.enroll(id, patientId.get())) {
+            return ResponseEntity.ok().build();
+        }
+        return wellnessServiceRepository.existsById(id)
+                ? ResponseEntity.status(HttpStatus.CONFLICT).build()
+                : ResponseEntity.notFound().build();
+    }
+    
+    @DeleteMapping("/{id}/enrollments")
+    @Operation(
+        summary = "Unenroll from Wellness Service",
+        description = "Give back the current user's seat in a wellness service"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Unenrolled successfully"),
+        @ApiResponse(responseCode = "404", description = "Wellness service not found"),
+        @ApiResponse(responseCode = "409", description = "Not enrolled in this wellness service"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN', 'PATIENT')")
+    public ResponseEntity<Void> unenroll(
+        @Parameter(description = "Wellness service ID", required = true)
+        @PathVariable Long id,
+        Authentication authentication) {
+        
+        Optional<Long> patientId = userRepository.findIdByEmail(authentication.getName());
+        if (patientId.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (wellnessEnrollmentService.unenroll(id, patientId.get())) {
+            return ResponseEntity.ok().build();
+        }
+        return wellnessServiceRepository.existsById(id)
+                ? ResponseEntity.status(HttpStatus.CONFLICT).build()
+                : ResponseEntity.notFound().build();
+    }
+    
+    @GetMapping(path = "/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+        summary = "Stream Seat Availability",
+        description = "Server-Sent Events stream of seat counts for the given services: the current counts first, " +
+                      "then at most one 'seats' event per changed service per interval"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened"),
+        @ApiResponse(responseCode = "400", description = "No services or too many services requested"),
+        @ApiResponse(responseCode = "429", description = "Too many open streams from this client"),
+        @ApiResponse(responseCode = "503", description = "Too many open streams")
+    })
+    public ResponseEntity<SseEmitter> streamSeatAvailability(
+        @Parameter(description = "Wellness service IDs, comma separated", required = true)
+        @RequestParam Set<Long> ids,
+        HttpServletRequest request) {
+        
+        if (ids.isEmpty() || ids.size() > seatAvailabilityService.getMaxServicesPerSubscriber()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            return ResponseEntity.ok(seatAvailabilityService.subscribe(ids, request.getRemoteAddr()));
+        } catch (SubscriberLimitException e) {
+            return ResponseEntity.status(e.isClientLimit() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+                    .build();
+        }
+    }
+    
     @GetMapping("/stats")
     @Operation(
         summary = "Get Wellness Service Statistics",
@@ -0,0 +1,53 @@
+package com.doctorpat.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections for
+ * everything else, including work outside a transaction. It has to sit behind a
+ * LazyConnectionDataSourceProxy: the read-only flag of a transaction is only set after the
+ * transaction manager asked for its connection, so the choice is made when the first statement runs.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+    
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+    
+    // Sends the current thread's read-only transactions to the primary as well, until unpinned
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+    
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+    
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+    
+    public static Route currentRoute() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PINNED_TO_PRIMARY.get() == null) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+}
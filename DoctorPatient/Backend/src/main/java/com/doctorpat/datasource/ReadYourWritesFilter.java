@@ -0,0 +1,59 @@
+package com.doctorpat.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Keeps users on the primary while the replica may not have caught up with their own writes.
+ * Mutating requests run on the primary as a whole, so their read-modify-write steps never read
+ * stale rows; afterwards the user's reads stay on the primary for the stickiness window. Must
+ * run after Spring Security so the user is known; the security filters' own user lookup is
+ * pinned by {@link com.doctorpat.security.JwtAuthenticationFilter}.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    
+    private final RecentWriters recentWriters;
+    
+    public ReadYourWritesFilter(RecentWriters recentWriters) {
+        this.recentWriters = recentWriters;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String user = currentUser();
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write || (user != null && recentWriters.contains(user))) {
+            ReadWriteRoutingDataSource.pinToPrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.unpin();
+            // Failed writes count too: some of them commit before failing
+            if (write && user != null) {
+                recentWriters.record(user);
+            }
+        }
+    }
+    
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,36 @@
+package com.doctorpat.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Users who wrote within the stickiness window, keyed by email. Their reads stay on the primary
+ * until the replica has had time to catch up with those writes. Kept per application instance.
+ */
+public class RecentWriters {
+    
+    private final Cache<String, Boolean> writers;
+    
+    public RecentWriters(Duration stickiness) {
+        this(stickiness, Ticker.systemTicker());
+    }
+    
+    RecentWriters(Duration stickiness, Ticker ticker) {
+        this.writers = Caffeine.newBuilder()
+                .expireAfterWrite(stickiness)
+                .maximumSize(100_000)
+                .ticker(ticker)
+                .build();
+    }
+    
+    public void record(String user) {
+        writers.put(user, Boolean.TRUE);
+    }
+    
+    public boolean contains(String user) {
+        return writers.getIfPresent(user) != null;
+    }
+}
@@ -0,0 +1,51 @@
+package com.doctorpat.dto;
+
+import com.doctorpat.entity.Appointment;
+import com.doctorpat.entity.Payment;
+import com.doctorpat.entity.User;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// System-wide counts for the admin overview; sections listed in unavailable couldn't be loaded in time and are null
+public class AdminDashboard {
+    
+    private final Map<User.UserRole, Long> usersByRole;
+    private final Map<Appointment.AppointmentStatus, Long> appointmentsByStatus;
+    private final Map<Payment.PaymentStatus, Long> paymentsByStatus;
+    private final BigDecimal monthRevenue;
+    private final List<String> unavailable;
+    
+    public AdminDashboard(Map<User.UserRole, Long> usersByRole,
+                          Map<Appointment.AppointmentStatus, Long> appointmentsByStatus,
+                          Map<Payment.PaymentStatus, Long> paymentsByStatus, BigDecimal monthRevenue,
+                          List<String> unavailable) {
+        this.usersByRole = usersByRole;
+        this.appointmentsByStatus = appointmentsByStatus;
+        this.paymentsByStatus = paymentsByStatus;
+        this.monthRevenue = monthRevenue;
+        this.unavailable = unavailable;
+    }
+    
+    // Getters
+    public Map<User.UserRole, Long> getUsersByRole() {
+        return usersByRole;
+    }
+    
+    public Map<Appointment.AppointmentStatus, Long> getAppointmentsByStatus() {
+        return appointmentsByStatus;
+    }
+    
+    public Map<Payment.PaymentStatus, Long> getPaymentsByStatus() {
+        return paymentsByStatus;
+    }
+    
+    public BigDecimal getMonthRevenue() {
+        return monthRevenue;
+    }
+    
+    public List<String> getUnavailable() {
+        return unavailable;
+    }
+}
@@ -0,0 +1,32 @@
+package com.doctorpat.dto;
+
+// One typeahead suggestion: a doctor, a specialization or a wellness service
+public class AutocompleteSuggestion {
+    
+    public enum Type {
+        DOCTOR, SPECIALIZATION, WELLNESS_SERVICE
+    }
+    
+    private final Type type;
+    private final Long id;
+    private final String text;
+    
+    public AutocompleteSuggestion(Type type, Long id, String text) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+    }
+    
+    // Getters
+    public Type getType() {
+        return type;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public String getText() {
+        return text;
+    }
+}
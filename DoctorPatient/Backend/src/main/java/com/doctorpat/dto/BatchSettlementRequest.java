@@ -0,0 +1,66 @@
+package com.doctorpat.dto;
+
+import com.doctorpat.entity.Payment;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchSettlementRequest {
+    
+    @NotEmpty(message = "At least one appointment is required")
+    @Size(max = 200, message = "A settlement can cover at most 200 appointments")
+    private List<Long> appointmentIds;
+    
+    @NotNull(message = "Payment method is required")
+    private Payment.PaymentMethod paymentMethod;
+    
+    private String cardLastFour;
+    private String cardType;
+    private String billingAddress;
+    
+    // Constructors
+    public BatchSettlementRequest() {}
+    
+    // Getters and Setters
+    public List<Long> getAppointmentIds() {
+        return appointmentIds;
+    }
+    
+    public void setAppointmentIds(List<Long> appointmentIds) {
+        this.appointmentIds = appointmentIds;
+    }
+    
+    public Payment.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+    
+    public void setPaymentMethod(Payment.PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+    
+    public String getCardLastFour() {
+        return cardLastFour;
+    }
+    
+    public void setCardLastFour(String cardLastFour) {
+        this.cardLastFour = cardLastFour;
+    }
+    
+    public String getCardType() {
+        return cardType;
+    }
+    
+    public void setCardType(String cardType) {
+        this.cardType = cardType;
+    }
+    
+    public String getBillingAddress() {
+        return billingAddress;
+    }
+    
+    public void setBillingAddress(String billingAddress) {
+        this.billingAddress = billingAddress;
+    }
+}
@@ -0,0 +1,104 @@
+package com.doctorpat.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchSettlementResponse {
+    
+    private int settled;
+    private int failed;
+    private int pending;
+    private int skipped;
+    private BigDecimal totalSettled = BigDecimal.ZERO;
+    private List<ItemResult> items = new ArrayList<>();
+    
+    public void addItem(ItemResult item) {
+        items.add(item);
+        switch (item.getStatus()) {
+            case COMPLETED:
+                settled++;
+                totalSettled = totalSettled.add(item.getAmount());
+                break;
+            case FAILED:
+                failed++;
+                break;
+            case PENDING:
+                pending++;
+                break;
+            default:
+                skipped++;
+        }
+    }
+    
+    // Getters
+    public int getSettled() {
+        return settled;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public int getPending() {
+        return pending;
+    }
+    
+    public int getSkipped() {
+        return skipped;
+    }
+    
+    public BigDecimal getTotalSettled() {
+        return totalSettled;
+    }
+    
+    public List<ItemResult> getItems() {
+        return items;
+    }
+    
+    // Per-appointment outcome of a settlement
+    public static class ItemResult {
+        
+        public enum Status {
+            COMPLETED, FAILED, PENDING, SKIPPED
+        }
+        
+        private final Long appointmentId;
+        private final Status status;
+        private final BigDecimal amount;
+        private final String transactionId;
+        private final String message;
+        
+        public ItemResult(Long appointmentId, Status status, BigDecimal amount, String transactionId, String message) {
+            this.appointmentId = appointmentId;
+            this.status = status;
+            this.amount = amount;
+            this.transactionId = transactionId;
+            this.message = message;
+        }
+        
+        public static ItemResult skipped(Long appointmentId, String message) {
+            return new ItemResult(appointmentId, Status.SKIPPED, null, null, message);
+        }
+        
+        public Long getAppointmentId() {
+            return appointmentId;
+        }
+        
+        public Status getStatus() {
+            return status;
+        }
+        
+        public BigDecimal getAmount() {
+            return amount;
+        }
+        
+        public String getTransactionId() {
+            return transactionId;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.doctorpat.dto;
+
+import com.doctorpat.entity.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Appointment row on a dashboard; the counterpart is the patient on a doctor's dashboard and the doctor on a patient's
+public class DashboardAppointment {
+    
+    private final Long id;
+    private final LocalDate date;
+    private final LocalTime time;
+    private final Appointment.AppointmentStatus status;
+    private final Appointment.PaymentStatus paymentStatus;
+    private final Double consultationFee;
+    private final Long counterpartId;
+    private final String counterpartName;
+    
+    public DashboardAppointment(Long id, LocalDate date, LocalTime time, Appointment.AppointmentStatus status,
+                                Appointment.PaymentStatus paymentStatus, Double consultationFee,
+                                Long counterpartId, String counterpartName) {
+        this.id = id;
+        this.date = date;
+        this.time = time;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+        this.consultationFee = consultationFee;
+        this.counterpartId = counterpartId;
+        this.counterpartName = counterpartName;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public LocalTime getTime() {
+        return time;
+    }
+    
+    public Appointment.AppointmentStatus getStatus() {
+        return status;
+    }
+    
+    public Appointment.PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+    
+    public Double getConsultationFee() {
+        return consultationFee;
+    }
+    
+    public Long getCounterpartId() {
+        return counterpartId;
+    }
+    
+    public String getCounterpartName() {
+        return counterpartName;
+    }
+}
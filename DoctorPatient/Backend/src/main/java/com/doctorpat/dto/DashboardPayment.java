@@ -0,0 +1,52 @@
+package com.doctorpat.dto;
+
+import com.doctorpat.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Payment row on the patient dashboard
+public class DashboardPayment {
+    
+    private final Long id;
+    private final Long appointmentId;
+    private final BigDecimal amount;
+    private final Payment.PaymentMethod paymentMethod;
+    private final Payment.PaymentStatus status;
+    private final LocalDateTime createdAt;
+    
+    public DashboardPayment(Long id, Long appointmentId, BigDecimal amount, Payment.PaymentMethod paymentMethod,
+                            Payment.PaymentStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.appointmentId = appointmentId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public Long getAppointmentId() {
+        return appointmentId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public Payment.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+    
+    public Payment.PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
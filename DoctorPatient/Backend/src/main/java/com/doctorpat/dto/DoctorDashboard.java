@@ -0,0 +1,58 @@
+package com.doctorpat.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// A doctor's day at a glance; sections listed in unavailable couldn't be loaded in time and are null
+public class DoctorDashboard {
+    
+    private final UserSummary profile;
+    private final LocalDate date;
+    private final List<DashboardAppointment> todaysAppointments;
+    private final Long upcomingAppointments;
+    private final Long unpaidAppointments;
+    private final BigDecimal monthRevenue;
+    private final List<String> unavailable;
+    
+    public DoctorDashboard(UserSummary profile, LocalDate date, List<DashboardAppointment> todaysAppointments,
+                           Long upcomingAppointments, Long unpaidAppointments, BigDecimal monthRevenue,
+                           List<String> unavailable) {
+        this.profile = profile;
+        this.date = date;
+        this.todaysAppointments = todaysAppointments;
+        this.upcomingAppointments = upcomingAppointments;
+        this.unpaidAppointments = unpaidAppointments;
+        this.monthRevenue = monthRevenue;
+        this.unavailable = unavailable;
+    }
+    
+    // Getters
+    public UserSummary getProfile() {
+        return profile;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public List<DashboardAppointment> getTodaysAppointments() {
+        return todaysAppointments;
+    }
+    
+    public Long getUpcomingAppointments() {
+        return upcomingAppointments;
+    }
+    
+    public Long getUnpaidAppointments() {
+        return unpaidAppointments;
+    }
+    
+    public BigDecimal getMonthRevenue() {
+        return monthRevenue;
+    }
+    
+    public List<String> getUnavailable() {
+        return unavailable;
+    }
+}
@@ -0,0 +1,43 @@
+package com.doctorpat.dto;
+
+import java.util.List;
+
+// A patient's overview; sections listed in unavailable couldn't be loaded in time and are null
+public class PatientDashboard {
+    
+    private final UserSummary profile;
+    private final List<DashboardAppointment> upcomingAppointments;
+    private final Long unpaidAppointments;
+    private final List<DashboardPayment> recentPayments;
+    private final List<String> unavailable;
+    
+    public PatientDashboard(UserSummary profile, List<DashboardAppointment> upcomingAppointments,
+                            Long unpaidAppointments, List<DashboardPayment> recentPayments, List<String> unavailable) {
+        this.profile = profile;
+        this.upcomingAppointments = upcomingAppointments;
+        this.unpaidAppointments = unpaidAppointments;
+        this.recentPayments = recentPayments;
+        this.unavailable = unavailable;
+    }
+    
+    // Getters
+    public UserSummary getProfile() {
+        return profile;
+    }
+    
+    public List<DashboardAppointment> getUpcomingAppointments() {
+        return upcomingAppointments;
+    }
+    
+    public Long getUnpaidAppointments() {
+        return unpaidAppointments;
+    }
+    
+    public List<DashboardPayment> getRecentPayments() {
+        return recentPayments;
+    }
+    
+    public List<String> getUnavailable() {
+        return unavailable;
+    }
+}
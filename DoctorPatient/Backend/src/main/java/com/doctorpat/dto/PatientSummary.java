@@ -0,0 +1,55 @@
+package com.doctorpat.dto;
+
+import com.doctorpat.entity.User;
+
+// Columns a doctor needs to pick out a patient in the patient list
+public class PatientSummary {
+    
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String phoneNumber;
+    private final String profileImage;
+    private final String dateOfBirth;
+    private final User.Gender gender;
+    
+    public PatientSummary(Long id, String name, String email, String phoneNumber, String profileImage,
+                          String dateOfBirth, User.Gender gender) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.profileImage = profileImage;
+        this.dateOfBirth = dateOfBirth;
+        this.gender = gender;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+    
+    public String getProfileImage() {
+        return profileImage;
+    }
+    
+    public String getDateOfBirth() {
+        return dateOfBirth;
+    }
+    
+    public User.Gender getGender() {
+        return gender;
+    }
+}
@@ -0,0 +1,102 @@
+package com.doctorpat.dto;
+
+import com.doctorpat.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Flat, read-only view of a payment used by the reconciliation export
+public class PaymentExportRow {
+    
+    private final Long id;
+    private final String transactionId;
+    private final Long appointmentId;
+    private final Long patientId;
+    private final Long doctorId;
+    private final BigDecimal amount;
+    private final Payment.PaymentMethod paymentMethod;
+    private final Payment.PaymentStatus status;
+    private final String cardType;
+    private final String cardLastFour;
+    private final BigDecimal refundAmount;
+    private final String failureReason;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime processedAt;
+    
+    public PaymentExportRow(Long id, String transactionId, Long appointmentId, Long patientId, Long doctorId,
+                            BigDecimal amount, Payment.PaymentMethod paymentMethod, Payment.PaymentStatus status,
+                            String cardType, String cardLastFour, BigDecimal refundAmount, String failureReason,
+                            LocalDateTime createdAt, LocalDateTime processedAt) {
+        this.id = id;
+        this.transactionId = transactionId;
+        this.appointmentId = appointmentId;
+        this.patientId = patientId;
+        this.doctorId = doctorId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+        this.status = status;
+        this.cardType = cardType;
+        this.cardLastFour = cardLastFour;
+        this.refundAmount = refundAmount;
+        this.failureReason = failureReason;
+        this.createdAt = createdAt;
+        this.processedAt = processedAt;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public Long getAppointmentId() {
+        return appointmentId;
+    }
+    
+    public Long getPatientId() {
+        return patientId;
+    }
+    
+    public Long getDoctorId() {
+        return doctorId;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public Payment.PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+    
+    public Payment.PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public String getCardType() {
+        return cardType;
+    }
+    
+    public String getCardLastFour() {
+        return cardLastFour;
+    }
+    
+    public BigDecimal getRefundAmount() {
+        return refundAmount;
+    }
+    
+    public String getFailureReason() {
+        return failureReason;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.doctorpat.dto;
+
+// Seat count of one wellness service as pushed to seat-availability subscribers
+public class SeatAvailability {
+    
+    private final Long serviceId;
+    private final boolean active;
+    private final Integer currentParticipants;
+    private final Integer maxParticipants;
+    
+    public SeatAvailability(Long serviceId, boolean active, Integer currentParticipants, Integer maxParticipants) {
+        this.serviceId = serviceId;
+        this.active = active;
+        this.currentParticipants = currentParticipants;
+        this.maxParticipants = maxParticipants;
+    }
+    
+    public boolean isAvailable() {
+        return active && (maxParticipants == null || currentParticipants == null || currentParticipants < maxParticipants);
+    }
+    
+    // Getters
+    public Long getServiceId() {
+        return serviceId;
+    }
+    
+    public boolean isActive() {
+        return active;
+    }
+    
+    public Integer getCurrentParticipants() {
+        return currentParticipants;
+    }
+    
+    public Integer getMaxParticipants() {
+        return maxParticipants;
+    }
+}
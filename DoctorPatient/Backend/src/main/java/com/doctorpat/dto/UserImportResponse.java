@@ -0,0 +1,67 @@
+package com.doctorpat.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserImportResponse {
+    
+    private int total;
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+    
+    public void addImported(int count) {
+        total += count;
+        imported += count;
+    }
+    
+    public void addError(RowError error) {
+        total++;
+        failed++;
+        errors.add(error);
+    }
+    
+    // Getters
+    public int getTotal() {
+        return total;
+    }
+    
+    public int getImported() {
+        return imported;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public List<RowError> getErrors() {
+        return errors;
+    }
+    
+    // A row that was not imported; line is where the record starts in the uploaded file
+    public static class RowError {
+        
+        private final long line;
+        private final String email;
+        private final String message;
+        
+        public RowError(long line, String email, String message) {
+            this.line = line;
+            this.email = email;
+            this.message = message;
+        }
+        
+        // Getters
+        public long getLine() {
+            return line;
+        }
+        
+        public String getEmail() {
+            return email;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.doctorpat.dto;
+
+import com.doctorpat.entity.User;
+
+import java.time.LocalDateTime;
+
+// Columns shown in user lists; the full User (password hash, address, doctor details) is only loaded by id
+public class UserSummary {
+    
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final User.UserRole role;
+    private final String phoneNumber;
+    private final String profileImage;
+    private final Boolean isActive;
+    private final LocalDateTime createdAt;
+    
+    public UserSummary(Long id, String name, String email, User.UserRole role, String phoneNumber,
+                       String profileImage, Boolean isActive, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.role = role;
+        this.phoneNumber = phoneNumber;
+        this.profileImage = profileImage;
+        this.isActive = isActive;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public User.UserRole getRole() {
+        return role;
+    }
+    
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+    
+    public String getProfileImage() {
+        return profileImage;
+    }
+    
+    public Boolean getIsActive() {
+        return isActive;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
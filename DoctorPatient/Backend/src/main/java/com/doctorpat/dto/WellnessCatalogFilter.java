@@ -0,0 +1,65 @@
+package com.doctorpat.dto;
+
+import com.doctorpat.entity.WellnessService;
+
+import java.math.BigDecimal;
+
+// Optional criteria for browsing the wellness catalog; unset fields don't filter
+public class WellnessCatalogFilter {
+    
+    private WellnessService.ServiceCategory category;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer maxDuration;
+    private boolean availableOnly;
+    private String keyword;
+    
+    // Getters and Setters
+    public WellnessService.ServiceCategory getCategory() {
+        return category;
+    }
+    
+    public void setCategory(WellnessService.ServiceCategory category) {
+        this.category = category;
+    }
+    
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+    
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+    
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+    
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+    
+    public Integer getMaxDuration() {
+        return maxDuration;
+    }
+    
+    public void setMaxDuration(Integer maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+    
+    public boolean isAvailableOnly() {
+        return availableOnly;
+    }
+    
+    public void setAvailableOnly(boolean availableOnly) {
+        this.availableOnly = availableOnly;
+    }
+    
+    public String getKeyword() {
+        return keyword;
+    }
+    
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+}
@@ -0,0 +1,78 @@
+package com.doctorpat.dto;
+
+import com.doctorpat.entity.WellnessService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// One page of filtered services plus how the whole match set splits by category and price band
+public class WellnessCatalogResult {
+    
+    public enum PriceBand {
+        UNDER_25(null, new BigDecimal("25")),
+        FROM_25_TO_50(new BigDecimal("25"), new BigDecimal("50")),
+        FROM_50_TO_100(new BigDecimal("50"), new BigDecimal("100")),
+        OVER_100(new BigDecimal("100"), null);
+        
+        // Lower bound inclusive, upper bound exclusive; null means open
+        private final BigDecimal from;
+        private final BigDecimal to;
+        
+        PriceBand(BigDecimal from, BigDecimal to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        public BigDecimal getFrom() {
+            return from;
+        }
+        
+        public BigDecimal getTo() {
+            return to;
+        }
+    }
+    
+    private final List<WellnessService> services;
+    private final int page;
+    private final int size;
+    private final long totalElements;
+    private final Map<WellnessService.ServiceCategory, Long> categoryCounts;
+    private final Map<PriceBand, Long> priceBandCounts;
+    
+    public WellnessCatalogResult(List<WellnessService> services, int page, int size,
+                                 Map<WellnessService.ServiceCategory, Long> categoryCounts,
+                                 Map<PriceBand, Long> priceBandCounts) {
+        this.services = services;
+        this.page = page;
+        this.size = size;
+        this.categoryCounts = categoryCounts;
+        this.priceBandCounts = priceBandCounts;
+        this.totalElements = categoryCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+    
+    // Getters
+    public List<WellnessService> getServices() {
+        return services;
+    }
+    
+    public int getPage() {
+        return page;
+    }
+    
+    public int getSize() {
+        return size;
+    }
+    
+    public long getTotalElements() {
+        return totalElements;
+    }
+    
+    public Map<WellnessService.ServiceCategory, Long> getCategoryCounts() {
+        return categoryCounts;
+    }
+    
+    public Map<PriceBand, Long> getPriceBandCounts() {
+        return priceBandCounts;
+    }
+}
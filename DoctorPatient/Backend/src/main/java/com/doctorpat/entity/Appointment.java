@@ -1,5 +1,6 @@
 package com.doctorpat.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -10,8 +11,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+    @Index(name = "idx_appointments_doctor_date_time", columnList = "doctor_id, appointment_date, appointment_time"),
+    @Index(name = "idx_appointments_patient_date", columnList = "patient_id, appointment_date"),
+    @Index(name = "idx_appointments_status_date", columnList = "status, appointment_date"),
+    @Index(name = "idx_appointments_payment_status", columnList = "payment_status")
+})
 public class Appointment {
     
     @Id
@@ -4,29 +4,42 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_doctor_created", columnList = "doctor_id, created_at"),
+    @Index(name = "idx_payments_patient_created", columnList = "patient_id, created_at"),
+    @Index(name = "idx_payments_appointment_status", columnList = "appointment_id, status"),
+    @Index(name = "idx_payments_status_created", columnList = "status, created_at"),
+    @Index(name = "idx_payments_created", columnList = "created_at"),
+    @Index(name = "idx_payments_method", columnList = "payment_method")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payments_transaction_created", columnNames = {"transaction_id", "created_at"})
+})
 public class Payment {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // payments is partitioned by month (see db/migration/mysql/V4__partition_payments.sql) and MySQL
+    // doesn't support foreign keys on partitioned tables
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "appointment_id", nullable = false)
+    @JoinColumn(name = "appointment_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Appointment appointment;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "patient_id", nullable = false)
+    @JoinColumn(name = "patient_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User patient;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "doctor_id", nullable = false)
+    @JoinColumn(name = "doctor_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User doctor;
     
     @NotNull(message = "Amount is required")
@@ -34,15 +47,20 @@ public class Payment {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal amount;
     
+    // Stored as VARCHAR rather than MySQL ENUM so adding a value doesn't rebuild the partitioned table
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
     private PaymentMethod paymentMethod;
     
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 20)
     private PaymentStatus status = PaymentStatus.PENDING;
     
-    @Column(name = "transaction_id", unique = true)
+    // Unique keys on the partitioned payments table have to include created_at, so the database only
+    // enforces (transaction_id, created_at). Transaction ids are random UUIDs, so they don't repeat anyway
+    @Column(name = "transaction_id")
     private String transactionId;
     
     @Column(name = "payment_gateway_response")
@@ -67,7 +85,7 @@ public class Payment {
     private String refundReason;
     
     @CreationTimestamp
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @UpdateTimestamp
@@ -83,7 +101,7 @@ public class Payment {
     }
     
     public enum PaymentStatus {
-        PENDING, PROCESSING, COMPLETED, FAILED, REFUNDED, CANCELLED
+        PENDING, PROCESSING, COMPLETED, FAILED, REFUNDED, CANCELLED, UNDER_REVIEW
     }
     
     // Constructors
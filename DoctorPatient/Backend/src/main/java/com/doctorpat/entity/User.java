@@ -1,16 +1,28 @@
 package com.doctorpat.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 
+// Lazy references to this entity are Hibernate proxies; their interceptor fields are not data
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
-@Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_role_active_name", columnList = "role, is_active, name")
+})
 public class User {
     
     @Id
@@ -53,9 +65,20 @@ public class User {
     private String address;
     
     // Doctor-specific fields
+    // Display text; lookups go through the normalized specializations below
     @Column(columnDefinition = "TEXT")
     private String specialization;
     
+    @JsonIgnore
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+        name = "doctor_specializations",
+        joinColumns = @JoinColumn(name = "doctor_id"),
+        inverseJoinColumns = @JoinColumn(name = "specialization_id"),
+        indexes = @Index(name = "idx_doctor_specializations_specialization", columnList = "specialization_id, doctor_id")
+    )
+    private Set<Specialization> specializations = new HashSet<>();
+    
     @Column(name = "license_number")
     private String licenseNumber;
     
@@ -184,6 +207,14 @@ public class User {
         this.specialization = specialization;
     }
     
+    public Set<Specialization> getSpecializations() {
+        return specializations;
+    }
+    
+    public void setSpecializations(Set<Specialization> specializations) {
+        this.specializations = specializations;
+    }
+    
     public String getLicenseNumber() {
         return licenseNumber;
     }
@@ -0,0 +1,75 @@
+package com.doctorpat.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A patient holding a seat in a wellness service. Enrollments are written next to the conditional
+ * participant count updates and never loaded with the service, so they refer to it and to the
+ * patient by id only.
+ */
+@Entity
+@Table(name = "wellness_enrollments", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_wellness_enrollments_service_patient", columnNames = {"wellness_service_id", "patient_id"})
+}, indexes = {
+    @Index(name = "idx_wellness_enrollments_patient", columnList = "patient_id")
+})
+public class WellnessEnrollment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "wellness_service_id", nullable = false)
+    private Long wellnessServiceId;
+    
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public WellnessEnrollment() {}
+    
+    public WellnessEnrollment(Long wellnessServiceId, Long patientId) {
+        this.wellnessServiceId = wellnessServiceId;
+        this.patientId = patientId;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getWellnessServiceId() {
+        return wellnessServiceId;
+    }
+    
+    public void setWellnessServiceId(Long wellnessServiceId) {
+        this.wellnessServiceId = wellnessServiceId;
+    }
+    
+    public Long getPatientId() {
+        return patientId;
+    }
+    
+    public void setPatientId(Long patientId) {
+        this.patientId = patientId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,7 +13,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "wellness_services")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "wellness-services")
+@Table(name = "wellness_services", indexes = {
+    @Index(name = "idx_wellness_active_category_price", columnList = "is_active, category, price"),
+    @Index(name = "idx_wellness_active_price", columnList = "is_active, price"),
+    @Index(name = "idx_wellness_active_duration", columnList = "is_active, duration_minutes"),
+    @Index(name = "idx_wellness_category", columnList = "category")
+})
 public class WellnessService {
     
     @Id
@@ -0,0 +1,31 @@
+package com.doctorpat.event;
+
+/**
+ * Published whenever a doctor is registered, updated or deactivated, carrying the
+ * specializations the doctor was listed under before and after the change.
+ */
+public class DoctorDirectoryChangedEvent {
+    
+    private final Long doctorId;
+    private final String previousSpecialization;
+    private final String specialization;
+    
+    public DoctorDirectoryChangedEvent(Long doctorId, String previousSpecialization, String specialization) {
+        this.doctorId = doctorId;
+        this.previousSpecialization = previousSpecialization;
+        this.specialization = specialization;
+    }
+    
+    // Getters
+    public Long getDoctorId() {
+        return doctorId;
+    }
+    
+    public String getPreviousSpecialization() {
+        return previousSpecialization;
+    }
+    
+    public String getSpecialization() {
+        return specialization;
+    }
+}
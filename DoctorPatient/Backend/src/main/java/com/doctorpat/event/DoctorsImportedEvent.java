@@ -0,0 +1,21 @@
+package com.doctorpat.event;
+
+import java.util.List;
+
+/**
+ * Published once after a bulk import added doctors, instead of one
+ * {@link DoctorDirectoryChangedEvent} per doctor.
+ */
+public class DoctorsImportedEvent {
+    
+    private final List<Long> doctorIds;
+    
+    public DoctorsImportedEvent(List<Long> doctorIds) {
+        this.doctorIds = List.copyOf(doctorIds);
+    }
+    
+    // Getters
+    public List<Long> getDoctorIds() {
+        return doctorIds;
+    }
+}
@@ -0,0 +1,25 @@
+package com.doctorpat.event;
+
+/**
+ * Published after the participant count of a wellness service has been changed in the database
+ * by enrollments, with the number of participants added (negative when removed).
+ */
+public class WellnessEnrollmentChangedEvent {
+    
+    private final Long serviceId;
+    private final int delta;
+    
+    public WellnessEnrollmentChangedEvent(Long serviceId, int delta) {
+        this.serviceId = serviceId;
+        this.delta = delta;
+    }
+    
+    // Getters
+    public Long getServiceId() {
+        return serviceId;
+    }
+    
+    public int getDelta() {
+        return delta;
+    }
+}
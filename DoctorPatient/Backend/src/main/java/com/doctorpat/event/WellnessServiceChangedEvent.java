@@ -0,0 +1,21 @@
+package com.doctorpat.event;
+
+import com.doctorpat.entity.WellnessService;
+
+/**
+ * Published after a wellness service is created, updated or deactivated, carrying the
+ * service as it was saved.
+ */
+public class WellnessServiceChangedEvent {
+    
+    private final WellnessService service;
+    
+    public WellnessServiceChangedEvent(WellnessService service) {
+        this.service = service;
+    }
+    
+    // Getters
+    public WellnessService getService() {
+        return service;
+    }
+}
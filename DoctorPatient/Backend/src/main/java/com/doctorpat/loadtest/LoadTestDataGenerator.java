@@ -0,0 +1,347 @@
+package com.doctorpat.loadtest;
+
+import com.doctorpat.entity.Specialization;
+import com.doctorpat.repository.SpecializationRepository;
+import com.doctorpat.service.SpecializationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds the offline load-test database (profile "loadtest") with a synthetic population: an
+ * admin, doctors linked to the specializations catalog, patients, appointments around the anchor
+ * date, payments for part of the past appointments, and wellness services. The same seed and
+ * anchor date always produce the same rows. Every user shares one password so the load driver
+ * can log in as anyone. Rows are written in JDBC batches before the application reports ready,
+ * so the caches built on startup already see them; nothing is generated when users exist.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataGenerator implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+    
+    public static final String EMAIL_DOMAIN = "loadtest.local";
+    
+    static final List<String> SPECIALIZATIONS = List.of("Cardiology", "Dermatology", "Endocrinology",
+            "Family Medicine", "Gastroenterology", "General Practice", "Internal Medicine", "Neurology",
+            "Obstetrics", "Oncology", "Ophthalmology", "Orthopedics", "Pediatrics", "Psychiatry",
+            "Pulmonology", "Radiology", "Rheumatology", "Urology");
+    
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Priya", "Arjun", "Mei", "Wei", "Fatima", "Omar", "Sofia", "Mateo"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas",
+            "Taylor", "Moore", "Jackson", "Patel", "Sharma", "Chen", "Wang", "Khan", "Ali", "Rossi", "Silva"};
+    private static final String[] CARD_TYPES = {"VISA", "MASTERCARD", "AMEX"};
+    private static final String[] WELLNESS_NAMES = {"Morning Yoga", "Mindful Meditation", "Nutrition Coaching",
+            "Strength Training", "Sleep Clinic", "Stress Relief Workshop", "Physio Rehabilitation",
+            "Weight Loss Program", "Health Screening", "Pilates"};
+    
+    private static final String INSERT_USER_SQL = "INSERT INTO users (name, email, password, role, phone_number, " +
+            "date_of_birth, gender, address, specialization, license_number, years_of_experience, consultation_fee, " +
+            "is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_DOCTOR_SPECIALIZATION_SQL =
+            "INSERT INTO doctor_specializations (doctor_id, specialization_id) VALUES (?, ?)";
+    private static final String INSERT_APPOINTMENT_SQL = "INSERT INTO appointments (patient_id, doctor_id, " +
+            "appointment_date, appointment_time, status, payment_status, consultation_fee, appointment_duration, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PAYMENT_SQL = "INSERT INTO payments (appointment_id, patient_id, doctor_id, " +
+            "amount, payment_method, status, transaction_id, payment_gateway_response, card_last_four, card_type, " +
+            "created_at, updated_at, processed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_WELLNESS_SERVICE_SQL = "INSERT INTO wellness_services (name, description, " +
+            "category, duration_minutes, price, is_active, max_participants, current_participants, created_at, " +
+            "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String[] WELLNESS_CATEGORIES = {"FITNESS", "NUTRITION", "MENTAL_HEALTH", "PREVENTIVE_CARE",
+            "REHABILITATION", "WEIGHT_MANAGEMENT", "STRESS_MANAGEMENT", "SLEEP_THERAPY", "YOGA", "MEDITATION"};
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final SpecializationRepository specializationRepository;
+    
+    private final long seed;
+    private final String anchorDate;
+    private final int doctors;
+    private final int patients;
+    private final int appointments;
+    private final double paidShare;
+    private final int wellnessServices;
+    private final String password;
+    private final int batchSize;
+    
+    @Autowired
+    public LoadTestDataGenerator(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PasswordEncoder passwordEncoder,
+            SpecializationRepository specializationRepository,
+            @Value("${loadtest.data.seed:42}") long seed,
+            @Value("${loadtest.data.anchor-date:}") String anchorDate,
+            @Value("${loadtest.data.doctors:5000}") int doctors,
+            @Value("${loadtest.data.patients:1000000}") int patients,
+            @Value("${loadtest.data.appointments:2000000}") int appointments,
+            @Value("${loadtest.data.paid-share:0.6}") double paidShare,
+            @Value("${loadtest.data.wellness-services:2000}") int wellnessServices,
+            @Value("${loadtest.data.password:LoadTest123}") String password,
+            @Value("${loadtest.data.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.specializationRepository = specializationRepository;
+        this.seed = seed;
+        this.anchorDate = anchorDate;
+        this.doctors = doctors;
+        this.patients = patients;
+        this.appointments = appointments;
+        this.paidShare = paidShare;
+        this.wellnessServices = wellnessServices;
+        this.password = password;
+        this.batchSize = Math.max(1, batchSize);
+    }
+    
+    public static String email(String role, int number) {
+        return role.toLowerCase() + number + "@" + EMAIL_DOMAIN;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        Long existingUsers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (existingUsers != null && existingUsers > 0) {
+            log.info("Load-test database already has {} users, skipping data generation", existingUsers);
+            return;
+        }
+        
+        long started = System.currentTimeMillis();
+        LocalDate anchor = anchorDate.isBlank() ? LocalDate.now() : LocalDate.parse(anchorDate);
+        // One hash for everyone: hashing millions of passwords would take hours
+        String passwordHash = passwordEncoder.encode(password);
+        SplittableRandom random = new SplittableRandom(seed);
+        
+        List<Specialization> catalog = createSpecializations();
+        long[] doctorIds = generateDoctors(random, passwordHash, anchor, catalog);
+        long[] patientIds = generatePatients(random, passwordHash, anchor);
+        long payments = generateAppointments(random, anchor, doctorIds, patientIds);
+        generateWellnessServices(random, anchor);
+        // Last, so the load driver's admin login only succeeds once everything is there
+        jdbcTemplate.update(INSERT_USER_SQL, admin(passwordHash, anchor));
+        
+        log.info("Load-test data ready in {} s: {} doctors, {} patients, {} appointments, {} payments, " +
+                        "{} wellness services (seed {}, anchor {})", (System.currentTimeMillis() - started) / 1000,
+                doctorIds.length, patientIds.length, appointments, payments, wellnessServices, seed, anchor);
+    }
+    
+    private List<Specialization> createSpecializations() {
+        List<Specialization> catalog = new ArrayList<>();
+        for (String name : SPECIALIZATIONS) {
+            catalog.add(new Specialization(name, SpecializationService.normalize(name)));
+        }
+        return specializationRepository.saveAll(catalog);
+    }
+    
+    private Object[] admin(String passwordHash, LocalDate anchor) {
+        Timestamp created = Timestamp.valueOf(anchor.minusYears(2).atStartOfDay());
+        return new Object[] {"Load Test Admin", "admin@" + EMAIL_DOMAIN, passwordHash, "ADMIN", null, null, null,
+                null, null, null, null, null, true, created, created};
+    }
+    
+    private long[] generateDoctors(SplittableRandom random, String passwordHash, LocalDate anchor,
+                                   List<Specialization> catalog) {
+        long[] ids = new long[doctors];
+        for (int from = 0; from < doctors; from += batchSize) {
+            int to = Math.min(doctors, from + batchSize);
+            List<Object[]> rows = new ArrayList<>();
+            List<long[]> links = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                // One or two specializations per doctor
+                Specialization first = catalog.get(random.nextInt(catalog.size()));
+                Specialization second = random.nextInt(4) == 0 ? catalog.get(random.nextInt(catalog.size())) : first;
+                String display = first == second ? first.getName() : first.getName() + ", " + second.getName();
+                links.add(first == second ? new long[] {first.getId()} : new long[] {first.getId(), second.getId()});
+                
+                Timestamp created = createdAt(random, anchor);
+                rows.add(new Object[] {"Dr. " + name(random), email("DOCTOR", i + 1), passwordHash, "DOCTOR",
+                        phone(random), null, null, null, display, "LIC-" + (100000 + i), 1 + random.nextInt(35),
+                        (double) (50 + 10 * random.nextInt(26)), true, created, created});
+            }
+            
+            List<Long> keys = transactionTemplate.execute(status -> {
+                List<Long> inserted = insertReturningKeys(INSERT_USER_SQL, rows);
+                List<Object[]> joins = new ArrayList<>();
+                for (int i = 0; i < inserted.size(); i++) {
+                    for (long specializationId : links.get(i)) {
+                        joins.add(new Object[] {inserted.get(i), specializationId});
+                    }
+                }
+                jdbcTemplate.batchUpdate(INSERT_DOCTOR_SPECIALIZATION_SQL, joins);
+                return inserted;
+            });
+            copy(keys, ids, from);
+        }
+        return ids;
+    }
+    
+    private long[] generatePatients(SplittableRandom random, String passwordHash, LocalDate anchor) {
+        long[] ids = new long[patients];
+        for (int from = 0; from < patients; from += batchSize) {
+            int to = Math.min(patients, from + batchSize);
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Timestamp created = createdAt(random, anchor);
+                LocalDate birth = anchor.minusYears(18 + random.nextInt(70)).minusDays(random.nextInt(365));
+                rows.add(new Object[] {name(random), email("PATIENT", i + 1), passwordHash, "PATIENT",
+                        phone(random), birth.toString(), random.nextBoolean() ? "FEMALE" : "MALE",
+                        (1 + random.nextInt(999)) + " Main Street", null, null, null, null, true, created, created});
+            }
+            List<Long> keys = transactionTemplate.execute(status -> insertReturningKeys(INSERT_USER_SQL, rows));
+            copy(keys, ids, from);
+            progress("patients", to, patients);
+        }
+        return ids;
+    }
+    
+    // Appointments from 180 days before to 60 days after the anchor; past ones are mostly completed and paid
+    private long generateAppointments(SplittableRandom random, LocalDate anchor, long[] doctorIds, long[] patientIds) {
+        if (doctorIds.length == 0 || patientIds.length == 0) {
+            return 0;
+        }
+        long payments = 0;
+        for (int from = 0; from < appointments; from += batchSize) {
+            int to = Math.min(appointments, from + batchSize);
+            List<Object[]> rows = new ArrayList<>();
+            List<Object[]> paymentRows = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                long patientId = patientIds[random.nextInt(patientIds.length)];
+                long doctorId = doctorIds[random.nextInt(doctorIds.length)];
+                LocalDate date = anchor.plusDays(random.nextInt(-180, 61));
+                LocalTime time = LocalTime.of(9, 0).plusMinutes(30L * random.nextInt(16));
+                BigDecimal fee = BigDecimal.valueOf(50 + 10 * random.nextInt(26)).setScale(2);
+                LocalDateTime created = date.atTime(time).minusDays(1 + random.nextInt(30));
+                
+                String status;
+                String paymentStatus = "PENDING";
+                if (date.isBefore(anchor)) {
+                    int outcome = random.nextInt(20);
+                    status = outcome == 0 ? "NO_SHOW" : outcome <= 2 ? "CANCELLED" : "COMPLETED";
+                    if (status.equals("COMPLETED") && random.nextDouble() < paidShare) {
+                        paymentStatus = "PAID";
+                        LocalDateTime paidAt = date.atTime(time).plusMinutes(45);
+                        paymentRows.add(new Object[] {i - from, patientId, doctorId, fee,
+                                random.nextInt(5) == 0 ? "DEBIT_CARD" : "CREDIT_CARD", "COMPLETED",
+                                "lt-" + seed + "-" + i, "Approved", String.format("%04d", random.nextInt(10000)),
+                                CARD_TYPES[random.nextInt(CARD_TYPES.length)], Timestamp.valueOf(paidAt),
+                                Timestamp.valueOf(paidAt), Timestamp.valueOf(paidAt)});
+                    }
+                } else {
+                    status = random.nextBoolean() ? "CONFIRMED" : "SCHEDULED";
+                }
+                rows.add(new Object[] {patientId, doctorId, Date.valueOf(date), Time.valueOf(time), status,
+                        paymentStatus, fee.doubleValue(), 30, Timestamp.valueOf(created), Timestamp.valueOf(created)});
+            }
+            
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Long> keys = insertReturningKeys(INSERT_APPOINTMENT_SQL, rows);
+                // The first column held the row's index in this batch until its id was known
+                for (Object[] payment : paymentRows) {
+                    payment[0] = keys.get((Integer) payment[0]);
+                }
+                jdbcTemplate.batchUpdate(INSERT_PAYMENT_SQL, paymentRows);
+            });
+            payments += paymentRows.size();
+            progress("appointments", to, appointments);
+        }
+        return payments;
+    }
+    
+    private void generateWellnessServices(SplittableRandom random, LocalDate anchor) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < wellnessServices; i++) {
+            String category = WELLNESS_CATEGORIES[random.nextInt(WELLNESS_CATEGORIES.length)];
+            int maxParticipants = 5 + random.nextInt(46);
+            Timestamp created = createdAt(random, anchor);
+            rows.add(new Object[] {WELLNESS_NAMES[random.nextInt(WELLNESS_NAMES.length)] + " " + (i + 1),
+                    "Synthetic " + category.toLowerCase().replace('_', ' ') + " service", category,
+                    15 * (2 + random.nextInt(7)), BigDecimal.valueOf(10 + random.nextInt(191)).setScale(2),
+                    random.nextInt(10) != 0, maxParticipants, random.nextInt(maxParticipants + 1), created, created});
+        }
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Object[]> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_WELLNESS_SERVICE_SQL, batch));
+        }
+    }
+    
+    private List<Long> insertReturningKeys(String sql, List<Object[]> rows) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Object[] row = rows.get(i);
+                        for (int column = 0; column < row.length; column++) {
+                            ps.setObject(column + 1, row[column]);
+                        }
+                    }
+                    
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keys);
+        List<Long> ids = new ArrayList<>(rows.size());
+        keys.getKeyList().forEach(key -> ids.add(((Number) key.values().iterator().next()).longValue()));
+        return ids;
+    }
+    
+    private static void copy(List<Long> keys, long[] target, int offset) {
+        for (int i = 0; i < keys.size(); i++) {
+            target[offset + i] = keys.get(i);
+        }
+    }
+    
+    private void progress(String what, int done, int total) {
+        if (done == total || done / batchSize % 100 == 0) {
+            log.info("Generated {} of {} {}", done, total, what);
+        }
+    }
+    
+    private static Timestamp createdAt(SplittableRandom random, LocalDate anchor) {
+        return Timestamp.valueOf(anchor.minusDays(1 + random.nextInt(730)).atTime(8 + random.nextInt(10), random.nextInt(60)));
+    }
+    
+    private static String name(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+    
+    private static String phone(SplittableRandom random) {
+        return String.format("+1-555-%03d-%04d", random.nextInt(1000), random.nextInt(10000));
+    }
+}
@@ -0,0 +1,61 @@
+package com.doctorpat.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets through one in {@code oneIn} of the verbose events (at {@code level} or below) of the
+ * configured logger prefixes, so DEBUG logging of hot categories such as org.hibernate.SQL can
+ * stay on, or be switched on in production, without writing every statement. Turbo filters run
+ * before Logback creates the event, so dropped events cost no allocation. Events of disabled
+ * levels and the {@code isDebugEnabled()}-style checks are left alone, which keeps guarded
+ * calls from being sampled twice.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    
+    private String[] loggers = new String[0];
+    private Level level = Level.DEBUG;
+    private int oneIn = 1;
+    
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toArray(String[]::new);
+    }
+    
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.DEBUG);
+    }
+    
+    public void setOneIn(int oneIn) {
+        this.oneIn = oneIn;
+    }
+    
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (oneIn <= 1 || level == null || format == null || !isStarted()
+                || level.toInt() > this.level.toInt()
+                || level.toInt() < logger.getEffectiveLevel().toInt()
+                || !sampled(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(oneIn) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+    
+    private boolean sampled(String name) {
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)
+                    && (name.length() == prefix.length() || name.charAt(prefix.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package com.doctorpat.monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out the SQL Hibernate generates for repository queries, so tools can look at the real
+ * statements instead of hand-written copies. While {@link #dryRun} is active on the current
+ * thread, statements are recorded and sent with LIMIT 0, so the query runs without reading rows.
+ * Registered through hibernate.session_factory.statement_inspector; outside a dry run it
+ * returns every statement unchanged.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+    
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+    
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured == null) {
+            return sql;
+        }
+        captured.add(sql);
+        return sql + " limit 0";
+    }
+    
+    /**
+     * Runs the select queries issued by the action without reading any rows and returns their SQL
+     * in execution order. Only meant for plain selects such as the repository finders.
+     */
+    public static List<String> dryRun(Runnable action) {
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+}
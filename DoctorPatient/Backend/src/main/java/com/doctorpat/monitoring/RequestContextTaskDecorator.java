@@ -0,0 +1,45 @@
+package com.doctorpat.monitoring;
+
+import com.doctorpat.datasource.ReadWriteRoutingDataSource;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the per-request state kept in thread locals over to a task run for that request on a
+ * pool thread: the read-your-writes pin to the primary, and the request's SQL stats. The task
+ * counts its statements in stats of its own, which are added to the request's when it ends, so
+ * the Server-Timing header and SQL budget include them. Whatever the running thread had before
+ * is put back afterwards, which matters when a full pool runs the task on the request thread.
+ * Not a bean, so it doesn't compete with {@link com.doctorpat.logging.MdcTaskDecorator} for the
+ * application task executor.
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+    
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        boolean pinned = ReadWriteRoutingDataSource.isPinnedToPrimary();
+        RequestSqlStats requestStats = RequestSqlStats.current();
+        return () -> {
+            boolean previousPinned = ReadWriteRoutingDataSource.isPinnedToPrimary();
+            RequestSqlStats previousStats = RequestSqlStats.current();
+            setPinned(pinned);
+            RequestSqlStats taskStats = requestStats != null ? RequestSqlStats.start() : null;
+            try {
+                runnable.run();
+            } finally {
+                RequestSqlStats.setCurrent(previousStats);
+                setPinned(previousPinned);
+                if (taskStats != null) {
+                    requestStats.add(taskStats);
+                }
+            }
+        };
+    }
+    
+    private static void setPinned(boolean pinned) {
+        if (pinned) {
+            ReadWriteRoutingDataSource.pinToPrimary();
+        } else {
+            ReadWriteRoutingDataSource.unpin();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.doctorpat.monitoring;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements and database time of the HTTP request being handled on the current thread.
+ * Statements are grouped by shape (the SQL with whitespace and bind-parameter lists collapsed),
+ * so a lazy association loaded row by row shows up as one shape executed many times.
+ */
+public class RequestSqlStats {
+    
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+    
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final int MAX_SHAPE_LENGTH = 300;
+    
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Shape> shapes = new HashMap<>();
+    private int statements;
+    private long dbNanos;
+    private long serializationNanos;
+    private long queryStartNanos;
+    
+    public static RequestSqlStats start() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+    
+    // Null outside a tracked request, e.g. on scheduler threads
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+    
+    public static void clear() {
+        CURRENT.remove();
+    }
+    
+    // Null clears it; lets work for a request on another thread swap its own stats in and back out
+    public static void setCurrent(RequestSqlStats stats) {
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+    }
+    
+    public void queryStarted() {
+        queryStartNanos = System.nanoTime();
+    }
+    
+    // A JDBC batch counts as one statement: it is one round trip
+    public synchronized void queryFinished(String sql) {
+        long elapsed = System.nanoTime() - queryStartNanos;
+        statements++;
+        dbNanos += elapsed;
+        shapes.computeIfAbsent(shape(sql), Shape::new).add(elapsed);
+    }
+    
+    public synchronized void serialized(long nanos) {
+        serializationNanos += nanos;
+    }
+    
+    /**
+     * Adds the statements another thread ran for this request, such as a dashboard section.
+     * The accessors are synchronized because that work can finish after the request moved on.
+     */
+    public synchronized void add(RequestSqlStats other) {
+        statements += other.statements;
+        dbNanos += other.dbNanos;
+        other.shapes.forEach((sql, shape) -> shapes.computeIfAbsent(sql, Shape::new).add(shape.count, shape.nanos));
+    }
+    
+    public synchronized int getStatements() {
+        return statements;
+    }
+    
+    public synchronized long getDbNanos() {
+        return dbNanos;
+    }
+    
+    public synchronized long getSerializationNanos() {
+        return serializationNanos;
+    }
+    
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+    
+    // Most executed shapes first
+    public synchronized List<Shape> topShapes(int limit) {
+        return shapes.values().stream()
+                .sorted(Comparator.comparingInt(Shape::getCount).reversed().thenComparing(Shape::getSql))
+                .limit(limit)
+                .toList();
+    }
+    
+    public synchronized String serverTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d statements\", serialization;dur=%.1f, total;dur=%.1f",
+                millis(dbNanos), statements, millis(serializationNanos), millis(getElapsedNanos()));
+    }
+    
+    static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?...)");
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+    }
+    
+    static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+    
+    public static class Shape {
+        
+        private final String sql;
+        private int count;
+        private long nanos;
+        
+        Shape(String sql) {
+            this.sql = sql;
+        }
+        
+        void add(long elapsed) {
+            add(1, elapsed);
+        }
+        
+        void add(int times, long elapsed) {
+            count += times;
+            nanos += elapsed;
+        }
+        
+        // Getters
+        public String getSql() {
+            return sql;
+        }
+        
+        public int getCount() {
+            return count;
+        }
+        
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.doctorpat.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the SQL statements and database time of each HTTP request. The totals go out in a
+ * Server-Timing header and to the http.server.requests.sql.* meters; requests over the
+ * statement budget are logged with their most repeated query shapes, and a shape repeated more
+ * than the N+1 threshold is called out as a likely lazy-loading loop.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+    
+    static final String SERVER_TIMING = "Server-Timing";
+    
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxStatements;
+    private final int nPlusOneThreshold;
+    
+    @Autowired
+    public SqlBudgetFilter(
+            MeterRegistry meterRegistry,
+            @Value("${sql.budget.enabled:true}") boolean enabled,
+            @Value("${sql.budget.max-statements:30}") int maxStatements,
+            @Value("${sql.budget.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxStatements = maxStatements;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.clear();
+            // JSON bodies get the header from the message converter; this covers bodiless responses
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, stats.serverTiming());
+            }
+            record(request, stats);
+        }
+    }
+    
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per HTTP request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Database time per HTTP request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofNanos(stats.getDbNanos()));
+        
+        if (stats.getStatements() > maxStatements) {
+            meterRegistry.counter("http.server.requests.sql.budget.exceeded", "method", request.getMethod(), "uri", uri)
+                    .increment();
+            boolean nPlusOne = stats.topShapes(1).stream().anyMatch(shape -> shape.getCount() > nPlusOneThreshold);
+            log.warn("{} {} ran {} SQL statements (budget {}) in {} ms{}; most repeated:\n{}",
+                    request.getMethod(), request.getRequestURI(), stats.getStatements(), maxStatements,
+                    Math.round(RequestSqlStats.millis(stats.getDbNanos())),
+                    nPlusOne ? ", likely N+1" : "",
+                    stats.topShapes(5).stream()
+                            .map(shape -> String.format("  %dx %s", shape.getCount(), shape.getSql()))
+                            .collect(Collectors.joining("\n")));
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.doctorpat.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+// Feeds every statement executed through the proxied DataSource into the current request's stats
+public class SqlStatementListener implements QueryExecutionListener {
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.queryStarted();
+        }
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null && !queryInfoList.isEmpty()) {
+            stats.queryFinished(queryInfoList.get(0).getQuery());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.doctorpat.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Serializes JSON responses into a buffer first so the serialization time, including any lazy
+ * loading it triggers, can be added to the Server-Timing header before the body is written.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+    
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+            
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        stats.serialized(System.nanoTime() - start);
+        
+        try {
+            outputMessage.getHeaders().set(SqlBudgetFilter.SERVER_TIMING, stats.serverTiming());
+        } catch (UnsupportedOperationException e) {
+            // Headers are read-only once the response is committed, e.g. for later events of a stream
+        }
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -1,14 +1,21 @@
 package com.doctorpat.repository;
 
+import com.doctorpat.dto.DashboardAppointment;
 import com.doctorpat.entity.Appointment;
 import com.doctorpat.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,6 +25,8 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     
     List<Appointment> findByDoctor(User doctor);
     
+    List<Appointment> findByStatus(Appointment.AppointmentStatus status);
+    
     List<Appointment> findByPatientAndStatus(User patient, Appointment.AppointmentStatus status);
     
     List<Appointment> findByDoctorAndStatus(User doctor, Appointment.AppointmentStatus status);
@@ -44,12 +53,61 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor = :doctor AND a.appointmentDate = :date")
     Long countByDoctorAndDate(@Param("doctor") User doctor, @Param("date") LocalDate date);
     
+    @Transactional(readOnly = true)
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.status = :status")
     Long countByStatus(@Param("status") Appointment.AppointmentStatus status);
     
+    @Transactional(readOnly = true)
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.paymentStatus = :paymentStatus")
     Long countByPaymentStatus(@Param("paymentStatus") Appointment.PaymentStatus paymentStatus);
     
     @Query("SELECT a FROM Appointment a WHERE a.appointmentDate < :date AND a.status = 'SCHEDULED'")
     List<Appointment> findOverdueAppointments(@Param("date") LocalDate date);
+    
+    // Locks the appointments in id order, so concurrent claims on overlapping sets can't deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Appointment a WHERE a.id IN :ids ORDER BY a.id")
+    List<Appointment> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+    
+    // Conditional, so an appointment already in the target state is left alone and not counted
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.paymentStatus = :paymentStatus, a.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE a.id IN :ids AND (a.paymentStatus IS NULL OR a.paymentStatus <> :paymentStatus)")
+    int updatePaymentStatus(@Param("ids") Collection<Long> ids,
+                            @Param("paymentStatus") Appointment.PaymentStatus paymentStatus);
+    
+    // Dashboard sections, keyed by the signed-in user's email so they don't wait on a user lookup
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.doctorpat.dto.DashboardAppointment(a.id, a.appointmentDate, a.appointmentTime, a.status, " +
+           "a.paymentStatus, a.consultationFee, p.id, p.name) FROM Appointment a JOIN a.doctor d JOIN a.patient p " +
+           "WHERE d.email = :email AND a.appointmentDate = :date ORDER BY a.appointmentTime")
+    List<DashboardAppointment> findDoctorDay(@Param("email") String email, @Param("date") LocalDate date);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.doctorpat.dto.DashboardAppointment(a.id, a.appointmentDate, a.appointmentTime, a.status, " +
+           "a.paymentStatus, a.consultationFee, d.id, d.name) FROM Appointment a JOIN a.patient p JOIN a.doctor d " +
+           "WHERE p.email = :email AND a.appointmentDate >= :date AND a.status IN ('SCHEDULED', 'CONFIRMED') " +
+           "ORDER BY a.appointmentDate, a.appointmentTime")
+    List<DashboardAppointment> findUpcomingForPatient(@Param("email") String email, @Param("date") LocalDate date,
+                                                      Pageable pageable);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.email = :email AND a.appointmentDate > :date " +
+           "AND a.status IN ('SCHEDULED', 'CONFIRMED')")
+    long countUpcomingForDoctor(@Param("email") String email, @Param("date") LocalDate date);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.doctor.email = :email AND a.paymentStatus = 'PENDING' " +
+           "AND a.status <> 'CANCELLED'")
+    long countUnpaidForDoctor(@Param("email") String email);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT COUNT(a) FROM Appointment a WHERE a.patient.email = :email AND a.paymentStatus = 'PENDING' " +
+           "AND a.status <> 'CANCELLED'")
+    long countUnpaidForPatient(@Param("email") String email);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT a.status, COUNT(a) FROM Appointment a GROUP BY a.status")
+    List<Object[]> countGroupedByStatus();
 }
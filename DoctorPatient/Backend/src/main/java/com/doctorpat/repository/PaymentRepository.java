@@ -1,16 +1,27 @@
 package com.doctorpat.repository;
 
+import com.doctorpat.dto.DashboardPayment;
+import com.doctorpat.dto.PaymentExportRow;
 import com.doctorpat.entity.Payment;
 import com.doctorpat.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -61,4 +72,54 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     @Query("SELECT COUNT(p) FROM Payment p WHERE p.paymentMethod = :paymentMethod")
     Long countByPaymentMethod(@Param("paymentMethod") Payment.PaymentMethod paymentMethod);
+    
+    @Query("SELECT DISTINCT p.appointment.id FROM Payment p WHERE p.appointment.id IN :appointmentIds " +
+           "AND p.status IN :statuses")
+    List<Long> findAppointmentIdsWithStatus(@Param("appointmentIds") Collection<Long> appointmentIds,
+                                            @Param("statuses") Collection<Payment.PaymentStatus> statuses);
+    
+    // Bounded by created_at, so MySQL reads only the partitions old enough to hold matching rows
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :newStatus, p.failureReason = :reason, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.status = :status AND p.createdAt < :createdBefore")
+    int updateStatusCreatedBefore(@Param("status") Payment.PaymentStatus status,
+                                  @Param("createdBefore") LocalDateTime createdBefore,
+                                  @Param("newStatus") Payment.PaymentStatus newStatus,
+                                  @Param("reason") String reason);
+    
+    // Forward-only cursor over flat rows for the reconciliation export; no entities are
+    // loaded, so the persistence context stays empty however many rows are read
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.doctorpat.dto.PaymentExportRow(p.id, p.transactionId, p.appointment.id, p.patient.id, " +
+           "p.doctor.id, p.amount, p.paymentMethod, p.status, p.cardType, p.cardLastFour, p.refundAmount, " +
+           "p.failureReason, p.createdAt, p.processedAt) FROM Payment p " +
+           "WHERE p.createdAt >= :startDate AND p.createdAt < :endDate " +
+           "AND (:status IS NULL OR p.status = :status) " +
+           "AND (:paymentMethod IS NULL OR p.paymentMethod = :paymentMethod) " +
+           "ORDER BY p.createdAt, p.id")
+    Stream<PaymentExportRow> streamForExport(@Param("startDate") LocalDateTime startDate,
+                                             @Param("endDate") LocalDateTime endDate,
+                                             @Param("status") Payment.PaymentStatus status,
+                                             @Param("paymentMethod") Payment.PaymentMethod paymentMethod);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.doctorpat.dto.DashboardPayment(p.id, p.appointment.id, p.amount, p.paymentMethod, " +
+           "p.status, p.createdAt) FROM Payment p WHERE p.patient.email = :email ORDER BY p.createdAt DESC, p.id DESC")
+    List<DashboardPayment> findRecentForPatient(@Param("email") String email, Pageable pageable);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.doctor.email = :email AND p.status = 'COMPLETED' " +
+           "AND p.createdAt >= :startDate AND p.createdAt < :endDate")
+    BigDecimal sumCompletedForDoctor(@Param("email") String email, @Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'COMPLETED' " +
+           "AND p.createdAt >= :startDate AND p.createdAt < :endDate")
+    BigDecimal sumCompleted(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT p.status, COUNT(p) FROM Payment p GROUP BY p.status")
+    List<Object[]> countGroupedByStatus();
 }
@@ -0,0 +1,22 @@
+package com.doctorpat.repository;
+
+import com.doctorpat.entity.Specialization;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SpecializationRepository extends JpaRepository<Specialization, Long> {
+
+    Optional<Specialization> findBySlug(String slug);
+
+    List<Specialization> findAllByOrderByNameAsc();
+
+    // Rows of [id, name, active doctor count]
+    @Query("SELECT s.id, s.name, COUNT(u) FROM User u JOIN u.specializations s " +
+           "WHERE u.role = 'DOCTOR' AND u.isActive = true GROUP BY s.id, s.name")
+    List<Object[]> countActiveDoctorsBySpecialization();
+}
@@ -1,11 +1,19 @@
 package com.doctorpat.repository;
 
+import com.doctorpat.config.SecondLevelCacheConfig;
+import com.doctorpat.dto.PatientSummary;
+import com.doctorpat.dto.UserSummary;
 import com.doctorpat.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,22 +28,60 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     List<User> findByRoleAndIsActiveTrue(User.UserRole role);
     
+    // Cached in the query cache; imports written with JDBC evict it explicitly
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.ACTIVE_DOCTORS_QUERY_REGION)})
     @Query("SELECT u FROM User u WHERE u.role = 'DOCTOR' AND u.isActive = true")
     List<User> findAllActiveDoctors();
     
     @Query("SELECT u FROM User u WHERE u.role = 'PATIENT' AND u.isActive = true")
     List<User> findAllActivePatients();
     
-    @Query("SELECT u FROM User u WHERE u.specialization = :specialization AND u.role = 'DOCTOR' AND u.isActive = true")
-    List<User> findDoctorsBySpecialization(@Param("specialization") String specialization);
+    // List projections: only the listed columns are selected and no entities are managed
+    @Query("SELECT new com.doctorpat.dto.UserSummary(u.id, u.name, u.email, u.role, u.phoneNumber, " +
+           "u.profileImage, u.isActive, u.createdAt) FROM User u ORDER BY u.id")
+    List<UserSummary> findAllSummaries();
     
+    @Query("SELECT new com.doctorpat.dto.UserSummary(u.id, u.name, u.email, u.role, u.phoneNumber, " +
+           "u.profileImage, u.isActive, u.createdAt) FROM User u WHERE u.role = :role ORDER BY u.id")
+    List<UserSummary> findSummariesByRole(@Param("role") User.UserRole role);
+    
+    @Query("SELECT new com.doctorpat.dto.PatientSummary(u.id, u.name, u.email, u.phoneNumber, u.profileImage, " +
+           "u.dateOfBirth, u.gender) FROM User u WHERE u.role = 'PATIENT' AND u.isActive = true ORDER BY u.name, u.id")
+    List<PatientSummary> findActivePatientSummaries();
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.ACTIVE_DOCTORS_QUERY_REGION)})
+    @Query("SELECT u FROM User u JOIN u.specializations s WHERE s.slug = :slug AND u.role = 'DOCTOR' AND u.isActive = true")
+    List<User> findDoctorsBySpecialization(@Param("slug") String slug);
+    
+    @Query("SELECT u FROM User u WHERE u.role = 'DOCTOR' AND u.specialization IS NOT NULL AND u.specializations IS EMPTY")
+    List<User> findDoctorsWithoutSpecializations();
+    
+    @Transactional(readOnly = true)
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role")
     Long countByRole(@Param("role") User.UserRole role);
     
+    @Transactional(readOnly = true)
     @Query("SELECT COUNT(u) FROM User u WHERE u.role = :role AND u.isActive = true")
     Long countActiveByRole(@Param("role") User.UserRole role);
     
     boolean existsByEmail(String email);
     
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
     boolean existsByEmailAndIdNot(String email, Long id);
+    
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.doctorpat.dto.UserSummary(u.id, u.name, u.email, u.role, u.phoneNumber, " +
+           "u.profileImage, u.isActive, u.createdAt) FROM User u WHERE u.email = :email")
+    Optional<UserSummary> findSummaryByEmail(@Param("email") String email);
+    
+    @Transactional(readOnly = true)
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupedByRole();
 }
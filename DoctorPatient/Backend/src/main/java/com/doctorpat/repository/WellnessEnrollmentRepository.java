@@ -0,0 +1,19 @@
+package com.doctorpat.repository;
+
+import com.doctorpat.entity.WellnessEnrollment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface WellnessEnrollmentRepository extends JpaRepository<WellnessEnrollment, Long> {
+    
+    // Returns the number of rows deleted (0 or 1), so only the patient's own seat is given back
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM WellnessEnrollment e WHERE e.wellnessServiceId = :serviceId AND e.patientId = :patientId")
+    int deleteEnrollment(@Param("serviceId") Long serviceId, @Param("patientId") Long patientId);
+}
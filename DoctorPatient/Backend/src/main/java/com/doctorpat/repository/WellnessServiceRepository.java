@@ -1,10 +1,16 @@
 package com.doctorpat.repository;
 
+import com.doctorpat.config.SecondLevelCacheConfig;
 import com.doctorpat.entity.WellnessService;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -12,6 +18,8 @@ import java.util.List;
 @Repository
 public interface WellnessServiceRepository extends JpaRepository<WellnessService, Long> {
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.ACTIVE_WELLNESS_SERVICES_QUERY_REGION)})
     List<WellnessService> findByIsActiveTrue();
     
     List<WellnessService> findByCategory(WellnessService.ServiceCategory category);
@@ -31,12 +39,36 @@ public interface WellnessServiceRepository extends JpaRepository<WellnessService
     @Query("SELECT ws FROM WellnessService ws WHERE ws.currentParticipants < ws.maxParticipants AND ws.isActive = true")
     List<WellnessService> findAvailableServices();
     
-    @Query("SELECT ws FROM WellnessService ws WHERE ws.name LIKE %:keyword% OR ws.description LIKE %:keyword% AND ws.isActive = true")
+    @Query("SELECT ws FROM WellnessService ws WHERE (ws.name LIKE %:keyword% OR ws.description LIKE %:keyword%) AND ws.isActive = true")
     List<WellnessService> searchByKeyword(@Param("keyword") String keyword);
     
+    @Transactional(readOnly = true)
     @Query("SELECT COUNT(ws) FROM WellnessService ws WHERE ws.category = :category")
     Long countByCategory(@Param("category") WellnessService.ServiceCategory category);
     
+    @Transactional(readOnly = true)
     @Query("SELECT COUNT(ws) FROM WellnessService ws WHERE ws.isActive = true")
     Long countActiveServices();
+    
+    // Check and write in one statement, so concurrent enrollments can neither overbook nor
+    // overwrite each other's counts. Both return the number of rows updated (0 or 1).
+    @Transactional
+    @Modifying
+    @Query("UPDATE WellnessService ws SET ws.currentParticipants = COALESCE(ws.currentParticipants, 0) + :count " +
+           "WHERE ws.id = :id AND ws.isActive = true " +
+           "AND (ws.maxParticipants IS NULL OR COALESCE(ws.currentParticipants, 0) + :count <= ws.maxParticipants)")
+    int addParticipants(@Param("id") Long id, @Param("count") int count);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE WellnessService ws SET ws.currentParticipants = ws.currentParticipants - 1 " +
+           "WHERE ws.id = :id AND ws.currentParticipants > 0")
+    int removeParticipant(@Param("id") Long id);
+    
+    // Gives back seats reserved in bulk; refuses to take the count below zero
+    @Transactional
+    @Modifying
+    @Query("UPDATE WellnessService ws SET ws.currentParticipants = ws.currentParticipants - :count " +
+           "WHERE ws.id = :id AND ws.currentParticipants >= :count")
+    int removeParticipants(@Param("id") Long id, @Param("count") int count);
 }
@@ -1,5 +1,7 @@
 package com.doctorpat.security;
 
+import com.doctorpat.datasource.ReadWriteRoutingDataSource;
+import com.doctorpat.datasource.RecentWriters;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +26,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
     
+    // Only present with the read replica enabled
+    @Autowired(required = false)
+    private RecentWriters recentWriters;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
                                   HttpServletResponse response, 
@@ -44,7 +50,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = loadUser(username);
             
             if (jwtUtil.validateToken(jwt, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -56,4 +62,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         filterChain.doFilter(request, response);
     }
+    
+    // Runs before ReadYourWritesFilter, so a user who just registered or changed their account
+    // is looked up on the primary here; the replica may not have their row yet
+    private UserDetails loadUser(String username) {
+        if (recentWriters == null || !recentWriters.contains(username)
+                || ReadWriteRoutingDataSource.isPinnedToPrimary()) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+        ReadWriteRoutingDataSource.pinToPrimary();
+        try {
+            return userDetailsService.loadUserByUsername(username);
+        } finally {
+            ReadWriteRoutingDataSource.unpin();
+        }
+    }
 }
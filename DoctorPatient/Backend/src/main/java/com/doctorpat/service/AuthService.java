@@ -1,12 +1,15 @@
 package com.doctorpat.service;
 
+import com.doctorpat.datasource.RecentWriters;
 import com.doctorpat.dto.AuthRequest;
 import com.doctorpat.dto.AuthResponse;
 import com.doctorpat.dto.UserRegistrationRequest;
 import com.doctorpat.entity.User;
+import com.doctorpat.event.DoctorDirectoryChangedEvent;
 import com.doctorpat.repository.UserRepository;
 import com.doctorpat.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -30,6 +33,16 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private SpecializationService specializationService;
+    
+    // Only present with the read replica enabled
+    @Autowired(required = false)
+    private RecentWriters recentWriters;
+    
     public AuthResponse login(AuthRequest authRequest) {
         // Authenticate user
         Authentication authentication = authenticationManager.authenticate(
@@ -45,6 +58,9 @@ public class AuthService {
             throw new RuntimeException("Invalid role for this user");
         }
         
+        // Keep the new session's first reads on the primary, like after a write
+        recordWriter(user.getEmail());
+        
         // Generate JWT token
         String token = jwtUtil.generateToken(authRequest.getEmail(), user.getRole().name());
         String refreshToken = jwtUtil.generateToken(authRequest.getEmail(), user.getRole().name());
@@ -59,34 +75,60 @@ public class AuthService {
         }
         
         // Create new user
+        User user = newUser(registrationRequest, passwordEncoder.encode(registrationRequest.getPassword()));
+        if (user.getRole() == User.UserRole.DOCTOR) {
+            specializationService.assign(user, registrationRequest.getSpecialization());
+        }
+        
+        // Save user
+        User savedUser = userRepository.save(user);
+        if (user.getRole() == User.UserRole.DOCTOR) {
+            eventPublisher.publishEvent(new DoctorDirectoryChangedEvent(
+                savedUser.getId(), null, savedUser.getSpecialization()));
+        }
+        
+        // Registration is anonymous, so ReadYourWritesFilter can't record it
+        recordWriter(savedUser.getEmail());
+        
+        // Generate JWT token
+        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        String refreshToken = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
+        
+        return new AuthResponse(token, refreshToken, 86400000L, savedUser);
+    }
+    
+    private void recordWriter(String email) {
+        if (recentWriters != null) {
+            recentWriters.record(email);
+        }
+    }
+    
+    /**
+     * Maps a registration onto a new, unsaved user with the given password hash. Doctors still
+     * need their specializations assigned.
+     */
+    public static User newUser(UserRegistrationRequest registrationRequest, String passwordHash) {
         User user = new User();
         user.setName(registrationRequest.getName());
         user.setEmail(registrationRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registrationRequest.getPassword()));
+        user.setPassword(passwordHash);
         user.setRole(User.UserRole.valueOf(registrationRequest.getRole().toUpperCase()));
         user.setPhoneNumber(registrationRequest.getPhoneNumber());
         user.setProfileImage(registrationRequest.getProfileImage());
         
         // Set role-specific fields
-        if (registrationRequest.getRole().equalsIgnoreCase("PATIENT")) {
+        if (user.getRole() == User.UserRole.PATIENT) {
             user.setDateOfBirth(registrationRequest.getDateOfBirth());
-            user.setGender(User.Gender.valueOf(registrationRequest.getGender().toUpperCase()));
+            if (registrationRequest.getGender() != null) {
+                user.setGender(User.Gender.valueOf(registrationRequest.getGender().toUpperCase()));
+            }
             user.setAddress(registrationRequest.getAddress());
-        } else if (registrationRequest.getRole().equalsIgnoreCase("DOCTOR")) {
-            user.setSpecialization(registrationRequest.getSpecialization());
+        } else if (user.getRole() == User.UserRole.DOCTOR) {
             user.setLicenseNumber(registrationRequest.getLicenseNumber());
             user.setYearsOfExperience(registrationRequest.getYearsOfExperience());
             user.setConsultationFee(registrationRequest.getConsultationFee());
         }
-        
-        // Save user
-        user = userRepository.save(user);
-        
-        // Generate JWT token
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
-        String refreshToken = jwtUtil.generateToken(user.getEmail(), user.getRole().name());
-        
-        return new AuthResponse(token, refreshToken, 86400000L, user);
+        return user;
     }
     
     public boolean validateToken(String token) {
@@ -0,0 +1,363 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.AutocompleteSuggestion;
+import com.doctorpat.entity.User;
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.DoctorDirectoryChangedEvent;
+import com.doctorpat.event.DoctorsImportedEvent;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import com.doctorpat.repository.SpecializationRepository;
+import com.doctorpat.repository.UserRepository;
+import com.doctorpat.repository.WellnessServiceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Typeahead over doctor names, specializations and wellness service names. Suggestions are
+ * served from an immutable sorted array of terms (every word-suffix of each name), so a lookup
+ * is a binary search plus a scan of the matching range; one- and two-letter prefixes, whose
+ * ranges are the largest, are answered from suggestions ranked when the array is built.
+ * Doctor and wellness events only mark what changed. A scheduled tick applies the changes and
+ * rebuilds the array off to the side, only when an indexed name was added, renamed or removed,
+ * then swaps it in; readers never lock. Ranking weights (experience, participants, doctors per
+ * specialization) that change on their own are picked up by the next rebuild.
+ */
+@Service
+public class AutocompleteService {
+    
+    // Matches on the start of the whole name rank above matches on a later word
+    private static final double LEADING_MATCH_BONUS = 1_000_000;
+    
+    // Prefixes up to this length get their suggestions ranked at build time, up to TOP_K of them
+    private static final int SHORT_PREFIX_LENGTH = 2;
+    private static final int TOP_K = 50;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SpecializationRepository specializationRepository;
+    
+    @Autowired
+    private WellnessServiceRepository wellnessServiceRepository;
+    
+    private final Map<String, Candidate> candidates = new ConcurrentHashMap<>();
+    private volatile PrefixIndex index = PrefixIndex.build(List.of());
+    
+    private final Set<Long> changedDoctors = ConcurrentHashMap.newKeySet();
+    private final Map<Long, WellnessService> changedServices = new ConcurrentHashMap<>();
+    private final AtomicBoolean specializationsChanged = new AtomicBoolean();
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        candidates.clear();
+        for (User doctor : userRepository.findAllActiveDoctors()) {
+            putDoctor(doctor);
+        }
+        putSpecializations();
+        for (WellnessService service : wellnessServiceRepository.findByIsActiveTrue()) {
+            putService(service);
+        }
+        index = PrefixIndex.build(candidates.values());
+    }
+    
+    @EventListener
+    public void onDoctorDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        if (event.getPreviousSpecialization() == null
+                || !Objects.equals(event.getPreviousSpecialization(), event.getSpecialization())) {
+            specializationsChanged.set(true);
+        }
+        changedDoctors.add(event.getDoctorId());
+    }
+    
+    // One rebuild for the whole import rather than one per doctor
+    @EventListener
+    public void onDoctorsImported(DoctorsImportedEvent event) {
+        rebuildRequested.set(true);
+    }
+    
+    // Also published for participant count changes; those only move the service's weight
+    @EventListener
+    public void onWellnessServiceChanged(WellnessServiceChangedEvent event) {
+        changedServices.put(event.getService().getId(), event.getService());
+    }
+    
+    /**
+     * Applies the changes marked since the last tick. The index is rebuilt only when a name was
+     * added, renamed or removed, so a burst of edits costs at most one rebuild per interval.
+     */
+    @Scheduled(fixedDelayString = "${autocomplete.refresh-interval-ms:1000}")
+    public synchronized void refreshChanges() {
+        if (rebuildRequested.getAndSet(false)) {
+            changedDoctors.clear();
+            changedServices.clear();
+            specializationsChanged.set(false);
+            rebuild();
+            return;
+        }
+        
+        boolean changed = false;
+        List<Long> doctorIds = new ArrayList<>();
+        for (Iterator<Long> it = changedDoctors.iterator(); it.hasNext(); ) {
+            doctorIds.add(it.next());
+            it.remove();
+        }
+        if (!doctorIds.isEmpty()) {
+            Map<Long, User> doctors = new HashMap<>();
+            for (User doctor : userRepository.findAllById(doctorIds)) {
+                doctors.put(doctor.getId(), doctor);
+            }
+            for (Long doctorId : doctorIds) {
+                User doctor = doctors.get(doctorId);
+                boolean listed = doctor != null && Boolean.TRUE.equals(doctor.getIsActive());
+                boolean wasListed = candidates.containsKey(key(AutocompleteSuggestion.Type.DOCTOR, doctorId));
+                if (listed != wasListed) {
+                    // Adding or dropping a doctor changes the doctor counts of their specializations
+                    specializationsChanged.set(true);
+                }
+                changed |= listed ? putDoctor(doctor) : remove(AutocompleteSuggestion.Type.DOCTOR, doctorId);
+            }
+        }
+        if (specializationsChanged.getAndSet(false)) {
+            changed |= putSpecializations();
+        }
+        
+        for (Map.Entry<Long, WellnessService> entry : changedServices.entrySet()) {
+            // A newer snapshot of the same service stays queued for the next tick
+            changedServices.remove(entry.getKey(), entry.getValue());
+            WellnessService service = entry.getValue();
+            changed |= Boolean.TRUE.equals(service.getIsActive())
+                    ? putService(service)
+                    : remove(AutocompleteSuggestion.Type.WELLNESS_SERVICE, service.getId());
+        }
+        
+        if (changed) {
+            index = PrefixIndex.build(candidates.values());
+        }
+    }
+    
+    public List<AutocompleteSuggestion> suggest(String query, int limit) {
+        if (query == null || limit <= 0) {
+            return List.of();
+        }
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        return index.search(prefix, limit);
+    }
+    
+    PrefixIndex getIndex() {
+        return index;
+    }
+    
+    private boolean putDoctor(User doctor) {
+        double experience = doctor.getYearsOfExperience() != null ? doctor.getYearsOfExperience() : 0;
+        return put(new Candidate(AutocompleteSuggestion.Type.DOCTOR, doctor.getId(), doctor.getName(), experience));
+    }
+    
+    private boolean putService(WellnessService service) {
+        double participants = service.getCurrentParticipants() != null ? service.getCurrentParticipants() : 0;
+        return put(new Candidate(AutocompleteSuggestion.Type.WELLNESS_SERVICE, service.getId(), service.getName(),
+                participants));
+    }
+    
+    // Specializations are ranked by how many active doctors they have; ones with none are left out
+    private boolean putSpecializations() {
+        Map<String, Candidate> previous = new HashMap<>();
+        candidates.values().removeIf(candidate -> {
+            if (candidate.type != AutocompleteSuggestion.Type.SPECIALIZATION) {
+                return false;
+            }
+            previous.put(key(candidate.type, candidate.id), candidate);
+            return true;
+        });
+        boolean changed = false;
+        for (Object[] row : specializationRepository.countActiveDoctorsBySpecialization()) {
+            Candidate candidate = new Candidate(AutocompleteSuggestion.Type.SPECIALIZATION, (Long) row[0],
+                    (String) row[1], ((Number) row[2]).doubleValue());
+            put(candidate);
+            Candidate old = previous.remove(key(candidate.type, candidate.id));
+            changed |= old == null || !Objects.equals(old.text, candidate.text);
+        }
+        return changed || !previous.isEmpty();
+    }
+    
+    // Returns whether the indexed text changed; a new weight alone is kept for the next rebuild
+    private boolean put(Candidate candidate) {
+        if (candidate.text == null || normalize(candidate.text).isEmpty()) {
+            return remove(candidate.type, candidate.id);
+        }
+        Candidate old = candidates.put(key(candidate.type, candidate.id), candidate);
+        return old == null || !old.text.equals(candidate.text);
+    }
+    
+    private boolean remove(AutocompleteSuggestion.Type type, Long id) {
+        return candidates.remove(key(type, id)) != null;
+    }
+    
+    private static String key(AutocompleteSuggestion.Type type, Long id) {
+        return type + ":" + id;
+    }
+    
+    // Lower case, accents and punctuation removed, single spaces: "Dr. José O'Neil" -> "dr jose oneil"
+    static String normalize(String text) {
+        String stripped = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replaceAll("[^\\p{L}\\p{N}\\s]", "")
+                .toLowerCase(Locale.ROOT);
+        return stripped.trim().replaceAll("\\s+", " ");
+    }
+    
+    private static class Candidate {
+        
+        private final AutocompleteSuggestion.Type type;
+        private final Long id;
+        private final String text;
+        private final double weight;
+        private final AutocompleteSuggestion suggestion;
+        
+        Candidate(AutocompleteSuggestion.Type type, Long id, String text, double weight) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.weight = weight;
+            this.suggestion = new AutocompleteSuggestion(type, id, text);
+        }
+    }
+    
+    static class PrefixIndex {
+        
+        private final String[] terms;
+        private final Candidate[] owners;
+        private final boolean[] leading;
+        private final Map<String, List<AutocompleteSuggestion>> shortPrefixes = new HashMap<>();
+        
+        private PrefixIndex(String[] terms, Candidate[] owners, boolean[] leading) {
+            this.terms = terms;
+            this.owners = owners;
+            this.leading = leading;
+        }
+        
+        static PrefixIndex build(Collection<Candidate> candidates) {
+            List<String> termList = new ArrayList<>();
+            List<Candidate> ownerList = new ArrayList<>();
+            List<Boolean> leadingList = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                String text = normalize(candidate.text);
+                for (int start = 0; start >= 0; start = nextWord(text, start)) {
+                    termList.add(text.substring(start));
+                    ownerList.add(candidate);
+                    leadingList.add(start == 0);
+                }
+            }
+            
+            Integer[] order = new Integer[termList.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(termList::get));
+            
+            String[] terms = new String[order.length];
+            Candidate[] owners = new Candidate[order.length];
+            boolean[] leading = new boolean[order.length];
+            for (int i = 0; i < order.length; i++) {
+                terms[i] = termList.get(order[i]);
+                owners[i] = ownerList.get(order[i]);
+                leading[i] = leadingList.get(order[i]);
+            }
+            
+            PrefixIndex index = new PrefixIndex(terms, owners, leading);
+            for (int length = 1; length <= SHORT_PREFIX_LENGTH; length++) {
+                index.rankShortPrefixes(length);
+            }
+            return index;
+        }
+        
+        // Terms sharing a prefix are adjacent, so each one- or two-letter range is ranked once here
+        private void rankShortPrefixes(int length) {
+            int from = 0;
+            while (from < terms.length) {
+                if (terms[from].length() < length) {
+                    from++;
+                    continue;
+                }
+                String prefix = terms[from].substring(0, length);
+                int to = from + 1;
+                while (to < terms.length && terms[to].startsWith(prefix)) {
+                    to++;
+                }
+                shortPrefixes.put(prefix, rank(from, to, TOP_K));
+                from = to;
+            }
+        }
+        
+        private static int nextWord(String text, int start) {
+            int space = text.indexOf(' ', start);
+            return space < 0 ? -1 : space + 1;
+        }
+        
+        List<AutocompleteSuggestion> search(String prefix, int limit) {
+            if (prefix.length() <= SHORT_PREFIX_LENGTH && limit <= TOP_K) {
+                List<AutocompleteSuggestion> ranked = shortPrefixes.getOrDefault(prefix, List.of());
+                return ranked.subList(0, Math.min(limit, ranked.size()));
+            }
+            int from = lowerBound(prefix);
+            int to = from;
+            while (to < terms.length && terms[to].startsWith(prefix)) {
+                to++;
+            }
+            return rank(from, to, limit);
+        }
+        
+        private List<AutocompleteSuggestion> rank(int from, int to, int limit) {
+            // A candidate can match through several of its words; keep its best score
+            Map<Candidate, Double> scores = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                double score = owners[i].weight + (leading[i] ? LEADING_MATCH_BONUS : 0);
+                scores.merge(owners[i], score, Math::max);
+            }
+            
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Candidate, Double>comparingByValue().reversed()
+                            .thenComparing(entry -> entry.getKey().text.length())
+                            .thenComparing(entry -> entry.getKey().text))
+                    .limit(limit)
+                    .map(entry -> entry.getKey().suggestion)
+                    .toList();
+        }
+        
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = terms.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (terms[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.AdminDashboard;
+import com.doctorpat.dto.DashboardAppointment;
+import com.doctorpat.dto.DashboardPayment;
+import com.doctorpat.dto.DoctorDashboard;
+import com.doctorpat.dto.PatientDashboard;
+import com.doctorpat.dto.UserSummary;
+import com.doctorpat.entity.Appointment;
+import com.doctorpat.entity.Payment;
+import com.doctorpat.entity.User;
+import com.doctorpat.monitoring.RequestContextTaskDecorator;
+import com.doctorpat.repository.AppointmentRepository;
+import com.doctorpat.repository.PaymentRepository;
+import com.doctorpat.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds each role's dashboard in one call. Every section is its own read-only query keyed by
+ * the signed-in user's email, so the sections run side by side on a small bounded pool and the
+ * request thread never holds a connection while it waits. A section that fails or isn't back
+ * before the deadline is left null and named in the dashboard's unavailable list rather than
+ * failing the whole response.
+ */
+@Service
+public class DashboardService {
+    
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+    
+    static final int RECENT_ITEMS = 5;
+    
+    private final UserRepository userRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final PaymentRepository paymentRepository;
+    private final long timeoutMs;
+    private final AsyncTaskExecutor executor;
+    
+    @Autowired
+    public DashboardService(
+            UserRepository userRepository,
+            AppointmentRepository appointmentRepository,
+            PaymentRepository paymentRepository,
+            TaskDecorator taskDecorator,
+            @Value("${dashboard.threads:8}") int threads,
+            @Value("${dashboard.queue-capacity:200}") int queueCapacity,
+            @Value("${dashboard.timeout-ms:2000}") long timeoutMs) {
+        this(userRepository, appointmentRepository, paymentRepository, timeoutMs,
+                executor(threads, queueCapacity, taskDecorator));
+    }
+    
+    DashboardService(UserRepository userRepository, AppointmentRepository appointmentRepository,
+                     PaymentRepository paymentRepository, long timeoutMs, AsyncTaskExecutor executor) {
+        this.userRepository = userRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.paymentRepository = paymentRepository;
+        this.timeoutMs = timeoutMs;
+        this.executor = executor;
+    }
+    
+    private static ThreadPoolTaskExecutor executor(int threads, int queueCapacity, TaskDecorator taskDecorator) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        // The request's read-your-writes pin and SQL stats go along with the MDC
+        TaskDecorator requestContext = new RequestContextTaskDecorator();
+        executor.setTaskDecorator(runnable -> taskDecorator.decorate(requestContext.decorate(runnable)));
+        // With the queue full the section runs on the request thread: slower, but still answered
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+    
+    public DoctorDashboard getDoctorDashboard(String email) {
+        LocalDate today = LocalDate.now();
+        LocalDateTime monthStart = today.withDayOfMonth(1).atStartOfDay();
+        Sections sections = new Sections();
+        
+        Future<UserSummary> profile = sections.start(() -> userRepository.findSummaryByEmail(email).orElse(null));
+        Future<List<DashboardAppointment>> todaysAppointments = sections.start(
+                () -> appointmentRepository.findDoctorDay(email, today));
+        Future<Long> upcoming = sections.start(() -> appointmentRepository.countUpcomingForDoctor(email, today));
+        Future<Long> unpaid = sections.start(() -> appointmentRepository.countUnpaidForDoctor(email));
+        Future<BigDecimal> revenue = sections.start(() -> Objects.requireNonNullElse(
+                paymentRepository.sumCompletedForDoctor(email, monthStart, monthStart.plusMonths(1)), BigDecimal.ZERO));
+        
+        return new DoctorDashboard(
+                sections.await("profile", profile),
+                today,
+                sections.await("todaysAppointments", todaysAppointments),
+                sections.await("upcomingAppointments", upcoming),
+                sections.await("unpaidAppointments", unpaid),
+                sections.await("monthRevenue", revenue),
+                sections.unavailable);
+    }
+    
+    public PatientDashboard getPatientDashboard(String email) {
+        LocalDate today = LocalDate.now();
+        Sections sections = new Sections();
+        
+        Future<UserSummary> profile = sections.start(() -> userRepository.findSummaryByEmail(email).orElse(null));
+        Future<List<DashboardAppointment>> upcoming = sections.start(() -> appointmentRepository.findUpcomingForPatient(
+                email, today, PageRequest.ofSize(RECENT_ITEMS)));
+        Future<Long> unpaid = sections.start(() -> appointmentRepository.countUnpaidForPatient(email));
+        Future<List<DashboardPayment>> recentPayments = sections.start(
+                () -> paymentRepository.findRecentForPatient(email, PageRequest.ofSize(RECENT_ITEMS)));
+        
+        return new PatientDashboard(
+                sections.await("profile", profile),
+                sections.await("upcomingAppointments", upcoming),
+                sections.await("unpaidAppointments", unpaid),
+                sections.await("recentPayments", recentPayments),
+                sections.unavailable);
+    }
+    
+    public AdminDashboard getAdminDashboard() {
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        Sections sections = new Sections();
+        
+        Future<Map<User.UserRole, Long>> users = sections.start(
+                () -> counts(User.UserRole.class, userRepository.countGroupedByRole()));
+        Future<Map<Appointment.AppointmentStatus, Long>> appointments = sections.start(
+                () -> counts(Appointment.AppointmentStatus.class, appointmentRepository.countGroupedByStatus()));
+        Future<Map<Payment.PaymentStatus, Long>> payments = sections.start(
+                () -> counts(Payment.PaymentStatus.class, paymentRepository.countGroupedByStatus()));
+        Future<BigDecimal> revenue = sections.start(() -> Objects.requireNonNullElse(
+                paymentRepository.sumCompleted(monthStart, monthStart.plusMonths(1)), BigDecimal.ZERO));
+        
+        return new AdminDashboard(
+                sections.await("usersByRole", users),
+                sections.await("appointmentsByStatus", appointments),
+                sections.await("paymentsByStatus", payments),
+                sections.await("monthRevenue", revenue),
+                sections.unavailable);
+    }
+    
+    @PreDestroy
+    public void close() {
+        if (executor instanceof ThreadPoolTaskExecutor threadPool) {
+            threadPool.shutdown();
+        }
+    }
+    
+    // Every constant gets an entry, so values with no rows show up as 0
+    private static <E extends Enum<E>> Map<E, Long> counts(Class<E> type, List<Object[]> rows) {
+        Map<E, Long> counts = new EnumMap<>(type);
+        for (E constant : type.getEnumConstants()) {
+            counts.put(constant, 0L);
+        }
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                counts.put(type.cast(row[0]), (Long) row[1]);
+            }
+        }
+        return counts;
+    }
+    
+    // The sections of one dashboard share a deadline counted from when the first one started
+    private class Sections {
+        
+        private final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        private final List<String> unavailable = new ArrayList<>();
+        
+        <T> Future<T> start(Callable<T> query) {
+            return executor.submit(query);
+        }
+        
+        <T> T await(String section, Future<T> future) {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Dashboard section {} not ready within {} ms", section, timeoutMs);
+            } catch (ExecutionException e) {
+                log.warn("Dashboard section {} failed: {}", section, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+            }
+            unavailable.add(section);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.User;
+import com.doctorpat.event.DoctorDirectoryChangedEvent;
+import com.doctorpat.event.DoctorsImportedEvent;
+import com.doctorpat.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches the public doctor listings. Concurrent misses on the same key share a single query,
+ * and entries are dropped as soon as a doctor they could contain changes; the TTL only
+ * bounds how stale a listing can get from changes made outside the application.
+ */
+@Service
+public class DoctorDirectoryService {
+    
+    private static final String ALL_DOCTORS = "";
+    
+    private final UserRepository userRepository;
+    private final LoadingCache<String, List<User>> directory;
+    
+    public DoctorDirectoryService(
+            UserRepository userRepository,
+            @Value("${doctor.directory.cache.max-entries:500}") long maxEntries,
+            @Value("${doctor.directory.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.directory = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(this::load);
+    }
+    
+    public List<User> getActiveDoctors() {
+        return directory.get(ALL_DOCTORS);
+    }
+    
+    public List<User> getDoctorsBySpecialization(String specialization) {
+        return directory.get(SpecializationService.normalize(specialization));
+    }
+    
+    @EventListener
+    public void onDoctorDirectoryChanged(DoctorDirectoryChangedEvent event) {
+        directory.invalidate(ALL_DOCTORS);
+        directory.invalidateAll(SpecializationService.slugs(event.getPreviousSpecialization()));
+        directory.invalidateAll(SpecializationService.slugs(event.getSpecialization()));
+    }
+    
+    @EventListener
+    public void onDoctorsImported(DoctorsImportedEvent event) {
+        directory.invalidateAll();
+    }
+    
+    private List<User> load(String key) {
+        List<User> doctors = ALL_DOCTORS.equals(key)
+                ? userRepository.findAllActiveDoctors()
+                : userRepository.findDoctorsBySpecialization(key);
+        return List.copyOf(doctors);
+    }
+}
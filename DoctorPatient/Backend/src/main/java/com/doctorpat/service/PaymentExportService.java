@@ -0,0 +1,124 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.PaymentExportRow;
+import com.doctorpat.entity.Payment;
+import com.doctorpat.repository.PaymentRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class PaymentExportService {
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    private static final String CSV_HEADER = "id,transaction_id,appointment_id,patient_id,doctor_id,amount," +
+            "payment_method,status,card_type,card_last_four,refund_amount,failure_reason,created_at,processed_at";
+    
+    // LocalDateTime.toString() drops zero seconds, which would mix formats within one file
+    private static final DateTimeFormatter CSV_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    /**
+     * Streams matching payments to the output as gzip-compressed CSV or NDJSON. Rows are
+     * read through a database cursor and written one at a time, so memory use does not
+     * grow with the size of the export.
+     */
+    @Transactional(readOnly = true)
+    public void export(LocalDateTime startDate, LocalDateTime endDate, Payment.PaymentStatus status,
+                       Payment.PaymentMethod paymentMethod, Format format, OutputStream outputStream) throws IOException {
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamForExport(startDate, endDate, status, paymentMethod)) {
+            write(rows, format, outputStream);
+        }
+    }
+    
+    void write(Stream<PaymentExportRow> rows, Format format, OutputStream outputStream) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(outputStream, 8192);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 16384);
+        
+        if (format == Format.NDJSON) {
+            writeNdjson(rows.iterator(), writer);
+        } else {
+            writeCsv(rows.iterator(), writer);
+        }
+        
+        writer.flush();
+        gzip.finish();
+    }
+    
+    private void writeCsv(Iterator<PaymentExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            PaymentExportRow row = rows.next();
+            writeCsvValue(writer, row.getId(), ',');
+            writeCsvValue(writer, row.getTransactionId(), ',');
+            writeCsvValue(writer, row.getAppointmentId(), ',');
+            writeCsvValue(writer, row.getPatientId(), ',');
+            writeCsvValue(writer, row.getDoctorId(), ',');
+            writeCsvValue(writer, row.getAmount(), ',');
+            writeCsvValue(writer, row.getPaymentMethod(), ',');
+            writeCsvValue(writer, row.getStatus(), ',');
+            writeCsvValue(writer, row.getCardType(), ',');
+            writeCsvValue(writer, row.getCardLastFour(), ',');
+            writeCsvValue(writer, row.getRefundAmount(), ',');
+            writeCsvValue(writer, row.getFailureReason(), ',');
+            writeCsvValue(writer, formatTimestamp(row.getCreatedAt()), ',');
+            writeCsvValue(writer, formatTimestamp(row.getProcessedAt()), '\n');
+        }
+    }
+    
+    private static String formatTimestamp(LocalDateTime timestamp) {
+        return timestamp != null ? CSV_TIMESTAMP.format(timestamp) : null;
+    }
+    
+    private void writeCsvValue(Writer writer, Object value, char terminator) throws IOException {
+        if (value != null) {
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write(terminator);
+    }
+    
+    private void writeNdjson(Iterator<PaymentExportRow> rows, Writer writer) throws IOException {
+        // Flushing after every row would push one tiny gzip chunk per payment to the client
+        ObjectWriter rowWriter = objectMapper.writerFor(PaymentExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        while (rows.hasNext()) {
+            rowWriter.writeValue(generator, rows.next());
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+}
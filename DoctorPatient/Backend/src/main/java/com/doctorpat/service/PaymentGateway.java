@@ -0,0 +1,27 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.Payment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public interface PaymentGateway {
+    
+    /**
+     * Authorizes a single payment. Implementations throw {@link PaymentGatewayException}
+     * (or any runtime exception) for technical failures; a decline is a normal result.
+     */
+    PaymentGatewayResult authorize(Payment payment);
+    
+    /**
+     * Authorizes several payments as one gateway operation, returning one result per
+     * payment in the same order. Gateways without a batch API fall back to single calls.
+     */
+    default List<PaymentGatewayResult> authorizeBatch(List<Payment> payments) {
+        List<PaymentGatewayResult> results = new ArrayList<>(payments.size());
+        for (Payment payment : payments) {
+            results.add(authorize(payment));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,8 @@
+package com.doctorpat.service;
+
+public class PaymentGatewayException extends RuntimeException {
+    
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,44 @@
+package com.doctorpat.service;
+
+public class PaymentGatewayResult {
+    
+    /**
+     * PENDING means the gateway may have received the payment but its answer is unknown;
+     * NOT_SENT means the payment never reached the gateway and was not charged.
+     */
+    public enum Outcome {
+        APPROVED, DECLINED, PENDING, NOT_SENT
+    }
+    
+    private final Outcome outcome;
+    private final String message;
+    
+    private PaymentGatewayResult(Outcome outcome, String message) {
+        this.outcome = outcome;
+        this.message = message;
+    }
+    
+    public static PaymentGatewayResult approved(String message) {
+        return new PaymentGatewayResult(Outcome.APPROVED, message);
+    }
+    
+    public static PaymentGatewayResult declined(String message) {
+        return new PaymentGatewayResult(Outcome.DECLINED, message);
+    }
+    
+    public static PaymentGatewayResult pending(String message) {
+        return new PaymentGatewayResult(Outcome.PENDING, message);
+    }
+    
+    public static PaymentGatewayResult notSent(String message) {
+        return new PaymentGatewayResult(Outcome.NOT_SENT, message);
+    }
+    
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+}
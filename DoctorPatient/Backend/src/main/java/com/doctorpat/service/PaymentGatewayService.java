@@ -0,0 +1,128 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.Payment;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Resilience layer around {@link PaymentGateway} calls: a bulkhead caps concurrent
+ * gateway calls, each call is bounded by a timeout, and a circuit breaker stops calling
+ * a failing gateway. A payment the bulkhead or the open circuit keeps from the gateway
+ * comes back NOT_SENT; one sent without an answer (timeout, error) falls back to PENDING
+ * instead of keeping the checkout waiting.
+ */
+@Service
+public class PaymentGatewayService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PaymentGatewayService.class);
+    
+    private final PaymentGateway paymentGateway;
+    private final long timeoutMs;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService executor;
+    
+    public PaymentGatewayService(
+            PaymentGateway paymentGateway,
+            @Value("${payment.gateway.timeout-ms:3000}") long timeoutMs,
+            @Value("${payment.gateway.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${payment.gateway.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${payment.gateway.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        this.paymentGateway = paymentGateway;
+        this.timeoutMs = timeoutMs;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrentCalls, runnable -> {
+            Thread thread = new Thread(runnable, "payment-gateway-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public PaymentGatewayResult authorize(Payment payment) {
+        return call(() -> paymentGateway.authorize(payment), result -> result);
+    }
+    
+    public List<PaymentGatewayResult> authorizeBatch(List<Payment> payments) {
+        return call(() -> paymentGateway.authorizeBatch(payments),
+                result -> Collections.nCopies(payments.size(), result));
+    }
+    
+    private <T> T call(Callable<T> gatewayCall, Function<PaymentGatewayResult, T> fallback) {
+        if (!bulkhead.tryAcquire()) {
+            return fallback.apply(PaymentGatewayResult.notSent("Payment gateway busy, payment not sent"));
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            return fallback.apply(PaymentGatewayResult.notSent("Payment gateway unavailable, payment not sent"));
+        }
+        
+        // The permit is released by the task itself, so timed-out calls that are still
+        // running keep counting against the bulkhead until they actually finish
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return gatewayCall.call();
+                } finally {
+                    bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            circuitBreaker.onFailure();
+            return fallback.apply(PaymentGatewayResult.notSent("Payment gateway unavailable, payment not sent"));
+        }
+        
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            log.warn("Payment gateway call timed out after {} ms", timeoutMs);
+            return fallback.apply(PaymentGatewayResult.pending("Payment gateway timeout, payment pending"));
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            log.warn("Payment gateway call failed: {}", e.getCause().getMessage());
+            return fallback.apply(PaymentGatewayResult.pending("Payment gateway error, payment pending"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            return fallback.apply(PaymentGatewayResult.pending("Payment processing interrupted, payment pending"));
+        }
+    }
+    
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+    
+    public int getAvailableConcurrentCalls() {
+        return bulkhead.availablePermits();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,218 @@
+package com.doctorpat.service;
+
+import com.doctorpat.monitoring.CapturingStatementInspector;
+import com.doctorpat.repository.PaymentRepository;
+import com.doctorpat.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of the payments table ahead of the calendar. New months are
+ * split off the catch-all p_future partition while it is still empty, so the reorganize
+ * doesn't have to move any rows.
+ */
+@Service
+public class PaymentPartitionService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PaymentPartitionService.class);
+    
+    static final String FUTURE_PARTITION = "p_future";
+    
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("p\\d{6}");
+    
+    private static final String LIST_PARTITIONS_SQL = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'payments' ORDER BY PARTITION_ORDINAL_POSITION";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${payment.partitions.months-ahead:3}")
+    private int monthsAhead;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${payment.partitions.maintenance-cron:0 0 3 * * *}")
+    public void createFuturePartitions() {
+        if (getDatabaseProduct() == null) {
+            return;
+        }
+        
+        List<String> partitions = getPartitions();
+        if (!partitions.contains(FUTURE_PARTITION)) {
+            log.warn("payments table is not partitioned by month; migration V4__partition_payments.sql has not run");
+            return;
+        }
+        
+        YearMonth earliestUnpartitioned = null;
+        if (partitions.stream().noneMatch(name -> MONTHLY_PARTITION.matcher(name).matches())) {
+            Timestamp earliest = jdbcTemplate.queryForObject(
+                    "SELECT MIN(created_at) FROM payments PARTITION (" + FUTURE_PARTITION + ")", Timestamp.class);
+            earliestUnpartitioned = earliest != null ? YearMonth.from(earliest.toLocalDateTime()) : null;
+        }
+        
+        List<YearMonth> months = planPartitions(partitions, earliestUnpartitioned, YearMonth.now(), monthsAhead);
+        if (months.isEmpty()) {
+            return;
+        }
+        
+        jdbcTemplate.execute(reorganizeStatement(months));
+        log.info("Created payments partitions {} through {}", partitionName(months.get(0)),
+                partitionName(months.get(months.size() - 1)));
+    }
+    
+    public List<String> getPartitions() {
+        if (getDatabaseProduct() == null) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+    }
+    
+    /**
+     * Runs EXPLAIN for the date-range finders of {@link PaymentRepository} and returns the partitions
+     * each one reads, so it can be checked that a query for one month only touches that month. The
+     * patient and doctor finders are only explained when an id is given.
+     */
+    public Map<String, String> explainDateRangeQueries(LocalDateTime startDate, LocalDateTime endDate,
+                                                       Long patientId, Long doctorId) {
+        Map<String, String> partitionsByQuery = new LinkedHashMap<>();
+        String product = getDatabaseProduct();
+        if (product == null) {
+            return partitionsByQuery;
+        }
+        
+        // MySQL 8 always reports partitions in EXPLAIN; MariaDB only with EXPLAIN PARTITIONS
+        String explain = product.contains("MariaDB") ? "EXPLAIN PARTITIONS " : "EXPLAIN ";
+        dateRangeQueries(startDate, endDate, patientId, doctorId).forEach((name, query) ->
+                partitionsByQuery.put(name, explainPartitions(explain + query.getSql(), query.getArgs())));
+        return partitionsByQuery;
+    }
+    
+    /**
+     * The SQL Hibernate generates for the date-range finders, captured by running them without
+     * reading rows. Arguments are in bind order, which follows the order of the JPQL predicates.
+     */
+    Map<String, CapturedQuery> dateRangeQueries(LocalDateTime startDate, LocalDateTime endDate,
+                                                Long patientId, Long doctorId) {
+        Map<String, CapturedQuery> queries = new LinkedHashMap<>();
+        queries.put("findByDateRange", capture(() -> paymentRepository.findByDateRange(startDate, endDate),
+                Timestamp.valueOf(startDate), Timestamp.valueOf(endDate)));
+        if (patientId != null) {
+            queries.put("findByPatientAndDateRange", capture(() -> paymentRepository.findByPatientAndDateRange(
+                    userRepository.getReferenceById(patientId), startDate, endDate),
+                    patientId, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate)));
+        }
+        if (doctorId != null) {
+            queries.put("findByDoctorAndDateRange", capture(() -> paymentRepository.findByDoctorAndDateRange(
+                    userRepository.getReferenceById(doctorId), startDate, endDate),
+                    doctorId, Timestamp.valueOf(startDate), Timestamp.valueOf(endDate)));
+        }
+        return queries;
+    }
+    
+    private static CapturedQuery capture(Runnable finder, Object... args) {
+        List<String> statements = CapturingStatementInspector.dryRun(finder);
+        if (statements.size() != 1) {
+            throw new IllegalStateException("Expected one statement from the finder but captured " + statements.size());
+        }
+        return new CapturedQuery(statements.get(0), args);
+    }
+    
+    private String explainPartitions(String sql, Object... args) {
+        return jdbcTemplate.query(sql, rs -> rs.next() ? rs.getString("partitions") : null, args);
+    }
+    
+    // Product name and version when the database supports partitioning (MySQL or MariaDB), otherwise
+    // null. The MySQL driver reports MariaDB servers as "MySQL" and only the version names MariaDB.
+    private String getDatabaseProduct() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName() + " " + connection.getMetaData().getDatabaseProductVersion());
+        return product.contains("MySQL") || product.contains("MariaDB") ? product : null;
+    }
+    
+    /**
+     * Months that need a partition: everything after the last monthly partition (or, on a
+     * table that has none yet, from its earliest row) up to {@code monthsAhead} months past
+     * the current one.
+     */
+    static List<YearMonth> planPartitions(List<String> existingPartitions, YearMonth earliestUnpartitioned,
+                                          YearMonth currentMonth, int monthsAhead) {
+        YearMonth next = null;
+        for (String name : existingPartitions) {
+            if (MONTHLY_PARTITION.matcher(name).matches()) {
+                YearMonth month = YearMonth.parse(name.substring(1), PARTITION_MONTH).plusMonths(1);
+                if (next == null || month.isAfter(next)) {
+                    next = month;
+                }
+            }
+        }
+        if (next == null) {
+            next = earliestUnpartitioned != null && earliestUnpartitioned.isBefore(currentMonth)
+                    ? earliestUnpartitioned
+                    : currentMonth;
+        }
+        
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth last = currentMonth.plusMonths(monthsAhead); !next.isAfter(last); next = next.plusMonths(1)) {
+            months.add(next);
+        }
+        return months;
+    }
+    
+    static String reorganizeStatement(List<YearMonth> months) {
+        StringBuilder sql = new StringBuilder("ALTER TABLE payments REORGANIZE PARTITION ")
+                .append(FUTURE_PARTITION).append(" INTO (");
+        for (YearMonth month : months) {
+            sql.append("PARTITION ").append(partitionName(month))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append(" 00:00:00'), ");
+        }
+        sql.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE))");
+        return sql.toString();
+    }
+    
+    static String partitionName(YearMonth month) {
+        return "p" + month.format(PARTITION_MONTH);
+    }
+    
+    static class CapturedQuery {
+        
+        private final String sql;
+        private final Object[] args;
+        
+        CapturedQuery(String sql, Object[] args) {
+            this.sql = sql;
+            this.args = args;
+        }
+        
+        String getSql() {
+            return sql;
+        }
+        
+        Object[] getArgs() {
+            return args;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.Payment;
+import com.doctorpat.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clears out payments that were left without a final outcome. A PROCESSING row claims its
+ * appointment only while the gateway call is in flight; one still PROCESSING after the claim
+ * timeout was never finalized (the outcome couldn't be written, or the node went down) and is
+ * released as PENDING so the appointment can be paid again. PENDING rows, whose gateway outcome
+ * is unknown, are cancelled once they are older than the pending expiry; until then they are
+ * kept for reconciliation against the gateway's settlement reports. Payments held for review
+ * that nobody approved or rejected within the review expiry are cancelled as well.
+ */
+@Service
+public class PaymentReconciliationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationService.class);
+    
+    static final String RELEASED_REASON = "Payment outcome not recorded, claim released";
+    static final String EXPIRED_REASON = "Payment outcome unknown, payment expired";
+    static final String REVIEW_EXPIRED_REASON = "Review not completed, payment cancelled";
+    
+    private final PaymentRepository paymentRepository;
+    private final long claimTimeoutSeconds;
+    private final long pendingExpirySeconds;
+    private final long reviewExpirySeconds;
+    
+    public PaymentReconciliationService(
+            PaymentRepository paymentRepository,
+            @Value("${payment.reconciliation.claim-timeout-seconds:300}") long claimTimeoutSeconds,
+            @Value("${payment.reconciliation.pending-expiry-seconds:259200}") long pendingExpirySeconds,
+            @Value("${payment.reconciliation.review-expiry-seconds:86400}") long reviewExpirySeconds) {
+        this.paymentRepository = paymentRepository;
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+        this.pendingExpirySeconds = pendingExpirySeconds;
+        this.reviewExpirySeconds = reviewExpirySeconds;
+    }
+    
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval-ms:60000}")
+    public void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        
+        int released = paymentRepository.updateStatusCreatedBefore(Payment.PaymentStatus.PROCESSING,
+                now.minusSeconds(claimTimeoutSeconds), Payment.PaymentStatus.PENDING, RELEASED_REASON);
+        if (released > 0) {
+            log.warn("Released {} payments left PROCESSING for over {} s; they are PENDING now", released,
+                    claimTimeoutSeconds);
+        }
+        
+        int expired = paymentRepository.updateStatusCreatedBefore(Payment.PaymentStatus.PENDING,
+                now.minusSeconds(pendingExpirySeconds), Payment.PaymentStatus.CANCELLED, EXPIRED_REASON);
+        if (expired > 0) {
+            log.warn("Cancelled {} PENDING payments older than {} s", expired, pendingExpirySeconds);
+        }
+        
+        int unreviewed = paymentRepository.updateStatusCreatedBefore(Payment.PaymentStatus.UNDER_REVIEW,
+                now.minusSeconds(reviewExpirySeconds), Payment.PaymentStatus.CANCELLED, REVIEW_EXPIRED_REASON);
+        if (unreviewed > 0) {
+            log.info("Cancelled {} payments held for review for over {} s", unreviewed, reviewExpirySeconds);
+        }
+    }
+}
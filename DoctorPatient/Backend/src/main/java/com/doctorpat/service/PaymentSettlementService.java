@@ -0,0 +1,254 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.BatchSettlementRequest;
+import com.doctorpat.dto.BatchSettlementResponse;
+import com.doctorpat.dto.BatchSettlementResponse.ItemResult;
+import com.doctorpat.entity.Appointment;
+import com.doctorpat.entity.Payment;
+import com.doctorpat.repository.AppointmentRepository;
+import com.doctorpat.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Settles many appointments at once in three steps. The appointments are claimed first:
+ * they are locked, checked and get a PROCESSING payment row in one short transaction, so a
+ * concurrent settlement or /payments/process for the same appointment backs off. Then
+ * one gateway round trip authorizes the claimed payments, outside any transaction. Last,
+ * one JDBC batch records the outcomes and one conditional UPDATE marks approved
+ * appointments PAID.
+ */
+@Service
+public class PaymentSettlementService {
+    
+    private static final Logger log = LoggerFactory.getLogger(PaymentSettlementService.class);
+    
+    /**
+     * Payment states that claim an appointment: a payment at the gateway right now, or a
+     * completed one. Another payment for the appointment is refused while one of these exists.
+     * PENDING payments, whose gateway outcome is unknown, don't block a retry; claims left
+     * PROCESSING by a crash are released by {@link PaymentReconciliationService}.
+     */
+    public static final Set<Payment.PaymentStatus> CLAIMING_STATUSES = Collections.unmodifiableSet(EnumSet.of(
+            Payment.PaymentStatus.PROCESSING, Payment.PaymentStatus.COMPLETED));
+    
+    private static final String INSERT_PAYMENT_SQL = "INSERT INTO payments (appointment_id, patient_id, doctor_id, " +
+            "amount, payment_method, status, transaction_id, payment_gateway_response, card_last_four, card_type, " +
+            "billing_address, failure_reason, created_at, updated_at, processed_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // created_at is the partitioning column, so each update only touches one partition
+    private static final String UPDATE_PAYMENT_SQL = "UPDATE payments SET status = ?, payment_gateway_response = ?, " +
+            "failure_reason = ?, updated_at = ?, processed_at = ? WHERE transaction_id = ? AND created_at = ?";
+    
+    private final AppointmentRepository appointmentRepository;
+    private final PaymentRepository paymentRepository;
+    private final PaymentGatewayService paymentGatewayService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    public PaymentSettlementService(AppointmentRepository appointmentRepository, PaymentRepository paymentRepository,
+                                    PaymentGatewayService paymentGatewayService, JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate) {
+        this.appointmentRepository = appointmentRepository;
+        this.paymentRepository = paymentRepository;
+        this.paymentGatewayService = paymentGatewayService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+    
+    public BatchSettlementResponse settle(BatchSettlementRequest request) {
+        List<Long> appointmentIds = new ArrayList<>(new LinkedHashSet<>(request.getAppointmentIds()));
+        // Truncated to what DATETIME(6) stores, so the finalizing UPDATE matches created_at exactly
+        LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        
+        Map<Long, ItemResult> skipped = new HashMap<>();
+        List<Payment> payments = transactionTemplate.execute(status -> claim(appointmentIds, request, createdAt, skipped));
+        
+        // The gateway call happens outside any transaction so no connection or lock is held while waiting
+        List<PaymentGatewayResult> results = payments.isEmpty()
+                ? List.of()
+                : paymentGatewayService.authorizeBatch(payments);
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> paidAppointmentIds = new ArrayList<>();
+        for (int i = 0; i < payments.size(); i++) {
+            Payment payment = payments.get(i);
+            PaymentGatewayResult result = results.get(i);
+            
+            payment.setPaymentGatewayResponse(result.getMessage());
+            switch (result.getOutcome()) {
+                case APPROVED:
+                    payment.setStatus(Payment.PaymentStatus.COMPLETED);
+                    payment.setProcessedAt(now);
+                    paidAppointmentIds.add(payment.getAppointment().getId());
+                    break;
+                case DECLINED:
+                    payment.setStatus(Payment.PaymentStatus.FAILED);
+                    payment.setFailureReason(result.getMessage());
+                    payment.setProcessedAt(now);
+                    break;
+                case NOT_SENT:
+                    payment.setStatus(Payment.PaymentStatus.CANCELLED);
+                    payment.setFailureReason(result.getMessage());
+                    break;
+                default:
+                    payment.setStatus(Payment.PaymentStatus.PENDING);
+            }
+        }
+        
+        boolean recorded = true;
+        if (!payments.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    updatePayments(payments, now, createdAt);
+                    if (!paidAppointmentIds.isEmpty()) {
+                        appointmentRepository.updatePaymentStatus(paidAppointmentIds, Appointment.PaymentStatus.PAID);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // The rows stay PROCESSING until PaymentReconciliationService releases them as PENDING
+                recorded = false;
+                log.error("Could not record the gateway outcome of {} settled payments; they remain PROCESSING",
+                        payments.size(), e);
+            }
+        }
+        
+        Map<Long, ItemResult> charged = new HashMap<>();
+        for (int i = 0; i < payments.size(); i++) {
+            Payment payment = payments.get(i);
+            Long appointmentId = payment.getAppointment().getId();
+            charged.put(appointmentId, recorded
+                    ? new ItemResult(appointmentId, itemStatus(payment.getStatus()), payment.getAmount(),
+                            payment.getTransactionId(), results.get(i).getMessage())
+                    : new ItemResult(appointmentId, ItemResult.Status.PENDING, payment.getAmount(),
+                            payment.getTransactionId(), "Payment outcome not recorded, payment pending"));
+        }
+        
+        BatchSettlementResponse response = new BatchSettlementResponse();
+        for (Long appointmentId : appointmentIds) {
+            response.addItem(charged.containsKey(appointmentId) ? charged.get(appointmentId) : skipped.get(appointmentId));
+        }
+        return response;
+    }
+    
+    // Runs in its own transaction: the row locks serialize claims on the same appointment, and
+    // the PROCESSING rows written here keep later claims off it once the locks are released
+    private List<Payment> claim(List<Long> appointmentIds, BatchSettlementRequest request, LocalDateTime createdAt,
+                                Map<Long, ItemResult> skipped) {
+        Map<Long, Appointment> appointments = new HashMap<>();
+        for (Appointment appointment : appointmentRepository.findAllByIdForUpdate(appointmentIds)) {
+            appointments.put(appointment.getId(), appointment);
+        }
+        Set<Long> claimed = appointments.isEmpty()
+                ? Set.of()
+                : new HashSet<>(paymentRepository.findAppointmentIdsWithStatus(appointments.keySet(), CLAIMING_STATUSES));
+        
+        // Decide per item what can be charged; ineligible items are reported, not charged
+        List<Payment> payments = new ArrayList<>();
+        for (Long appointmentId : appointmentIds) {
+            Appointment appointment = appointments.get(appointmentId);
+            if (appointment == null) {
+                skipped.put(appointmentId, ItemResult.skipped(appointmentId, "Appointment not found"));
+            } else if (appointment.getPaymentStatus() == Appointment.PaymentStatus.PAID) {
+                skipped.put(appointmentId, ItemResult.skipped(appointmentId, "Appointment already paid"));
+            } else if (claimed.contains(appointmentId)) {
+                skipped.put(appointmentId, ItemResult.skipped(appointmentId, "Appointment has a payment in progress"));
+            } else if (appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED) {
+                skipped.put(appointmentId, ItemResult.skipped(appointmentId, "Appointment is cancelled"));
+            } else if (appointment.getConsultationFee() == null) {
+                skipped.put(appointmentId, ItemResult.skipped(appointmentId, "Appointment has no consultation fee"));
+            } else {
+                payments.add(newPayment(appointment, request, createdAt));
+            }
+        }
+        
+        if (!payments.isEmpty()) {
+            insertPayments(payments);
+        }
+        return payments;
+    }
+    
+    private Payment newPayment(Appointment appointment, BatchSettlementRequest request, LocalDateTime createdAt) {
+        Payment payment = new Payment();
+        payment.setAppointment(appointment);
+        payment.setPatient(appointment.getPatient());
+        payment.setDoctor(appointment.getDoctor());
+        payment.setAmount(BigDecimal.valueOf(appointment.getConsultationFee()).setScale(2, RoundingMode.HALF_UP));
+        payment.setPaymentMethod(request.getPaymentMethod());
+        payment.setStatus(Payment.PaymentStatus.PROCESSING);
+        payment.setTransactionId(UUID.randomUUID().toString());
+        payment.setCardLastFour(request.getCardLastFour());
+        payment.setCardType(request.getCardType());
+        payment.setBillingAddress(request.getBillingAddress());
+        payment.setCreatedAt(createdAt);
+        return payment;
+    }
+    
+    private static ItemResult.Status itemStatus(Payment.PaymentStatus status) {
+        switch (status) {
+            case COMPLETED:
+                return ItemResult.Status.COMPLETED;
+            case FAILED:
+            case CANCELLED:
+                return ItemResult.Status.FAILED;
+            default:
+                return ItemResult.Status.PENDING;
+        }
+    }
+    
+    // IDENTITY ids stop Hibernate from batching inserts, so the rows go through one JDBC batch
+    private void insertPayments(List<Payment> payments) {
+        jdbcTemplate.batchUpdate(INSERT_PAYMENT_SQL, payments, payments.size(), (statement, payment) -> {
+            Timestamp createdAt = Timestamp.valueOf(payment.getCreatedAt());
+            statement.setLong(1, payment.getAppointment().getId());
+            statement.setLong(2, payment.getPatient().getId());
+            statement.setLong(3, payment.getDoctor().getId());
+            statement.setBigDecimal(4, payment.getAmount());
+            statement.setString(5, payment.getPaymentMethod().name());
+            statement.setString(6, payment.getStatus().name());
+            statement.setString(7, payment.getTransactionId());
+            statement.setString(8, payment.getPaymentGatewayResponse());
+            statement.setString(9, payment.getCardLastFour());
+            statement.setString(10, payment.getCardType());
+            statement.setString(11, payment.getBillingAddress());
+            statement.setString(12, payment.getFailureReason());
+            statement.setTimestamp(13, createdAt);
+            statement.setTimestamp(14, createdAt);
+            statement.setTimestamp(15, null);
+        });
+    }
+    
+    private void updatePayments(List<Payment> payments, LocalDateTime now, LocalDateTime createdAt) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        Timestamp partitionKey = Timestamp.valueOf(createdAt);
+        jdbcTemplate.batchUpdate(UPDATE_PAYMENT_SQL, payments, payments.size(), (statement, payment) -> {
+            statement.setString(1, payment.getStatus().name());
+            statement.setString(2, payment.getPaymentGatewayResponse());
+            statement.setString(3, payment.getFailureReason());
+            statement.setTimestamp(4, updatedAt);
+            statement.setTimestamp(5, payment.getProcessedAt() != null ? Timestamp.valueOf(payment.getProcessedAt()) : null);
+            statement.setString(6, payment.getTransactionId());
+            statement.setTimestamp(7, partitionKey);
+        });
+    }
+}
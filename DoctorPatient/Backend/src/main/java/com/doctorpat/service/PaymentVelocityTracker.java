@@ -0,0 +1,170 @@
+package com.doctorpat.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts payment attempts per patient and per card over a sliding window, entirely in memory,
+ * so bursts can be held for review without querying the payments table on every checkout.
+ * Each key owns a small ring of time buckets; buckets that fall out of the window are reused,
+ * idle keys are swept by a scheduled job, and the number of tracked keys is capped. When a window
+ * is full, attempts from new keys are held for review instead of going through unchecked.
+ */
+@Service
+public class PaymentVelocityTracker {
+    
+    // Returned by VelocityWindow.record when the key could not be tracked
+    private static final int UNTRACKED = -1;
+    
+    private final boolean enabled;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final long windowMinutes;
+    private final LongSupplier clock;
+    private final VelocityWindow<Long> patientWindow;
+    private final VelocityWindow<String> cardWindow;
+    
+    @Autowired
+    public PaymentVelocityTracker(
+            @Value("${payment.velocity.enabled:true}") boolean enabled,
+            @Value("${payment.velocity.window-seconds:600}") long windowSeconds,
+            @Value("${payment.velocity.bucket-seconds:60}") long bucketSeconds,
+            @Value("${payment.velocity.max-payments-per-patient:5}") int maxPaymentsPerPatient,
+            @Value("${payment.velocity.max-payments-per-card:5}") int maxPaymentsPerCard,
+            @Value("${payment.velocity.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this(enabled, windowSeconds, bucketSeconds, maxPaymentsPerPatient, maxPaymentsPerCard, maxTrackedKeys,
+                System::currentTimeMillis);
+    }
+    
+    PaymentVelocityTracker(boolean enabled, long windowSeconds, long bucketSeconds, int maxPaymentsPerPatient,
+                           int maxPaymentsPerCard, int maxTrackedKeys, LongSupplier clock) {
+        this.enabled = enabled;
+        this.bucketMillis = bucketSeconds * 1000;
+        this.bucketCount = (int) Math.max(1, windowSeconds / bucketSeconds);
+        this.windowMinutes = Math.max(1, windowSeconds / 60);
+        this.clock = clock;
+        this.patientWindow = new VelocityWindow<>(maxPaymentsPerPatient, maxTrackedKeys);
+        this.cardWindow = new VelocityWindow<>(maxPaymentsPerCard, maxTrackedKeys);
+    }
+    
+    /**
+     * Records a payment attempt and returns the reason to hold it for review when the patient
+     * or the card has gone over its limit within the window.
+     */
+    public Optional<String> recordAttempt(Long patientId, String cardType, String cardLastFour) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        
+        long bucket = clock.getAsLong() / bucketMillis;
+        int patientCount = patientId != null ? patientWindow.record(patientId, bucket) : 0;
+        String fingerprint = cardFingerprint(cardType, cardLastFour);
+        int cardCount = fingerprint != null ? cardWindow.record(fingerprint, bucket) : 0;
+        
+        if (patientCount == UNTRACKED || cardCount == UNTRACKED) {
+            return Optional.of("Held for review: too many payers in the last " + windowMinutes
+                    + " minutes to check this payment");
+        }
+        if (patientCount > patientWindow.threshold) {
+            return Optional.of("Held for review: " + patientCount + " payments by this patient in "
+                    + windowMinutes + " minutes");
+        }
+        if (cardCount > cardWindow.threshold) {
+            return Optional.of("Held for review: " + cardCount + " payments with this card in "
+                    + windowMinutes + " minutes");
+        }
+        return Optional.empty();
+    }
+    
+    // Drops keys that have been idle for a whole window so their counters can be reused
+    @Scheduled(fixedDelayString = "${payment.velocity.sweep-interval-ms:60000}")
+    public void sweep() {
+        long bucket = clock.getAsLong() / bucketMillis;
+        patientWindow.sweep(bucket);
+        cardWindow.sweep(bucket);
+    }
+    
+    public int getTrackedKeys() {
+        return patientWindow.counters.size() + cardWindow.counters.size();
+    }
+    
+    private static String cardFingerprint(String cardType, String cardLastFour) {
+        if (cardLastFour == null || cardLastFour.isBlank()) {
+            return null;
+        }
+        String type = cardType != null ? cardType.trim().toUpperCase(Locale.ROOT) : "";
+        return type + ":" + cardLastFour.trim();
+    }
+    
+    private class VelocityWindow<K> {
+        
+        private final ConcurrentHashMap<K, RingCounter> counters = new ConcurrentHashMap<>();
+        private final int threshold;
+        private final int maxKeys;
+        
+        VelocityWindow(int threshold, int maxKeys) {
+            this.threshold = threshold;
+            this.maxKeys = maxKeys;
+        }
+        
+        int record(K key, long bucket) {
+            RingCounter counter = counters.get(key);
+            if (counter == null) {
+                // Full until the next scheduled sweep; sweeping here would scan the whole map on the request thread
+                if (counters.size() >= maxKeys) {
+                    return UNTRACKED;
+                }
+                counter = counters.computeIfAbsent(key, k -> new RingCounter(bucketCount));
+            }
+            return counter.incrementAndSum(bucket);
+        }
+        
+        // An attempt racing with the removal of its idle counter is simply not counted
+        void sweep(long bucket) {
+            counters.values().removeIf(counter -> counter.isIdle(bucket));
+        }
+    }
+    
+    private static class RingCounter {
+        
+        private final long[] bucketIds;
+        private final int[] counts;
+        private volatile long lastBucket;
+        
+        RingCounter(int size) {
+            bucketIds = new long[size];
+            counts = new int[size];
+            Arrays.fill(bucketIds, Long.MIN_VALUE);
+        }
+        
+        synchronized int incrementAndSum(long bucket) {
+            int slot = (int) (bucket % counts.length);
+            if (bucketIds[slot] != bucket) {
+                bucketIds[slot] = bucket;
+                counts[slot] = 0;
+            }
+            counts[slot]++;
+            lastBucket = bucket;
+            
+            int sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (bucketIds[i] > bucket - counts.length) {
+                    sum += counts[i];
+                }
+            }
+            return sum;
+        }
+        
+        boolean isIdle(long bucket) {
+            return bucket - lastBucket >= counts.length;
+        }
+    }
+}
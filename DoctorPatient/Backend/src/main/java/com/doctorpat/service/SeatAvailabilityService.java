@@ -0,0 +1,341 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.SeatAvailability;
+import com.doctorpat.event.WellnessEnrollmentChangedEvent;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes seat-count changes of wellness services to Server-Sent Events subscribers. Enrollment
+ * and catalog events only mark a service as changed; on each tick the changed services are read
+ * from the catalog snapshot and fanned out to their subscribers, so a burst of enrollments turns
+ * into at most one update per service per interval. Each subscriber keeps at most one pending
+ * update per subscribed service and has at most one send task queued on a small sender pool with
+ * a bounded queue; when the queue is full the subscriber is skipped and retried on the next tick.
+ * A subscriber whose send stays blocked past the send timeout (a client that stopped reading) is
+ * dropped. Streams are capped per client as well as in total, so one client can't use them all.
+ */
+@Service
+public class SeatAvailabilityService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SeatAvailabilityService.class);
+    
+    static final String EVENT_NAME = "seats";
+    
+    private final WellnessCatalogService wellnessCatalogService;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int maxSubscribersPerClient;
+    private final int maxServicesPerSubscriber;
+    private final long sendTimeoutNanos;
+    private final Executor sender;
+    
+    private final Set<Long> changedServices = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> subscribersByService = new ConcurrentHashMap<>();
+    private final Map<String, Integer> subscribersByClient = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // Subscribers the full sender queue turned away, retried on the next tick
+    private final Set<Subscriber> skipped = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    
+    @Autowired
+    public SeatAvailabilityService(
+            WellnessCatalogService wellnessCatalogService,
+            @Value("${wellness.seats.stream.timeout-ms:300000}") long timeoutMillis,
+            @Value("${wellness.seats.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${wellness.seats.stream.max-subscribers-per-client:4}") int maxSubscribersPerClient,
+            @Value("${wellness.seats.stream.max-services-per-subscriber:50}") int maxServicesPerSubscriber,
+            @Value("${wellness.seats.stream.send-timeout-ms:10000}") long sendTimeoutMillis,
+            @Value("${wellness.seats.stream.sender-threads:4}") int senderThreads,
+            @Value("${wellness.seats.stream.sender-queue-capacity:1000}") int senderQueueCapacity) {
+        this(wellnessCatalogService, timeoutMillis, maxSubscribers, maxSubscribersPerClient, maxServicesPerSubscriber,
+                sendTimeoutMillis, new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(senderQueueCapacity)));
+    }
+    
+    SeatAvailabilityService(WellnessCatalogService wellnessCatalogService, long timeoutMillis, int maxSubscribers,
+                            int maxSubscribersPerClient, int maxServicesPerSubscriber, long sendTimeoutMillis,
+                            Executor sender) {
+        this.wellnessCatalogService = wellnessCatalogService;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.maxSubscribersPerClient = maxSubscribersPerClient;
+        this.maxServicesPerSubscriber = maxServicesPerSubscriber;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.sender = sender;
+    }
+    
+    public int getMaxServicesPerSubscriber() {
+        return maxServicesPerSubscriber;
+    }
+    
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+    
+    /**
+     * Opens a stream for the given services on behalf of a client (its address). The current seat
+     * counts are sent right away, then only changes. Throws {@link SubscriberLimitException} when
+     * the client or the server has reached its subscriber limit.
+     */
+    public SseEmitter subscribe(Set<Long> serviceIds, String clientId) {
+        return subscribe(serviceIds, clientId, new SseEmitter(timeoutMillis));
+    }
+    
+    SseEmitter subscribe(Set<Long> serviceIds, String clientId, SseEmitter emitter) {
+        if (!acquireClientSlot(clientId)) {
+            throw new SubscriberLimitException("Too many seat availability streams for this client", true);
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            releaseClientSlot(clientId);
+            throw new SubscriberLimitException("Too many seat availability subscribers", false);
+        }
+        
+        Subscriber subscriber = new Subscriber(emitter, clientId, new LinkedHashSet<>(serviceIds));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        for (Long serviceId : subscriber.serviceIds) {
+            // Added inside compute so it can't race with unsubscribe dropping an emptied set
+            subscribersByService.compute(serviceId, (id, subscribers) -> {
+                Set<Subscriber> updated = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                updated.add(subscriber);
+                return updated;
+            });
+            subscriber.enqueue(availability(serviceId));
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+    
+    @EventListener
+    public void onEnrollmentChanged(WellnessEnrollmentChangedEvent event) {
+        changedServices.add(event.getServiceId());
+    }
+    
+    @EventListener
+    public void onWellnessServiceChanged(WellnessServiceChangedEvent event) {
+        changedServices.add(event.getService().getId());
+    }
+    
+    @Scheduled(fixedDelayString = "${wellness.seats.stream.interval-ms:1000}")
+    public void publishChanges() {
+        dropStalledSubscribers();
+        Iterator<Subscriber> retry = skipped.iterator();
+        while (retry.hasNext()) {
+            Subscriber subscriber = retry.next();
+            retry.remove();
+            schedule(subscriber);
+        }
+        
+        Iterator<Long> changed = changedServices.iterator();
+        while (changed.hasNext()) {
+            Long serviceId = changed.next();
+            changed.remove();
+            Set<Subscriber> subscribers = subscribersByService.get(serviceId);
+            if (subscribers == null || subscribers.isEmpty()) {
+                continue;
+            }
+            SeatAvailability availability = availability(serviceId);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(availability);
+                schedule(subscriber);
+            }
+        }
+    }
+    
+    // Keeps idle connections from being closed by proxies and notices clients that went away.
+    // Goes through the subscriber's own send task, so it never queues a second task for it.
+    @Scheduled(fixedDelayString = "${wellness.seats.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<Subscriber> all = new LinkedHashSet<>();
+        subscribersByService.values().forEach(all::addAll);
+        for (Subscriber subscriber : all) {
+            subscriber.requestHeartbeat();
+            schedule(subscriber);
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        subscribersByService.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+    
+    private SeatAvailability availability(Long serviceId) {
+        return wellnessCatalogService.getActiveService(serviceId)
+                .map(service -> new SeatAvailability(serviceId, true, service.getCurrentParticipants(),
+                        service.getMaxParticipants()))
+                .orElseGet(() -> new SeatAvailability(serviceId, false, null, null));
+    }
+    
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.markScheduled()) {
+            return;
+        }
+        try {
+            sender.execute(subscriber::drain);
+        } catch (RejectedExecutionException e) {
+            // The pending updates stay with the subscriber; only the latest per service is kept anyway
+            subscriber.unmarkScheduled();
+            skipped.add(subscriber);
+        }
+    }
+    
+    // A send blocks while the client doesn't read; dropping the subscriber completes its response,
+    // which ends the blocked write, and keeps it from being scheduled again
+    private void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : sending) {
+            if (now - subscriber.sendingSince > sendTimeoutNanos) {
+                subscriber.failed(new IOException("Seat availability send timed out"));
+            }
+        }
+    }
+    
+    private boolean acquireClientSlot(String clientId) {
+        boolean[] acquired = new boolean[1];
+        subscribersByClient.compute(clientId, (id, count) -> {
+            int current = count != null ? count : 0;
+            acquired[0] = current < maxSubscribersPerClient;
+            return acquired[0] ? current + 1 : count;
+        });
+        return acquired[0];
+    }
+    
+    private void releaseClientSlot(String clientId) {
+        subscribersByClient.computeIfPresent(clientId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+    
+    private boolean unsubscribe(Subscriber subscriber) {
+        if (!subscriber.close()) {
+            return false;
+        }
+        for (Long serviceId : subscriber.serviceIds) {
+            subscribersByService.computeIfPresent(serviceId, (id, subscribers) -> {
+                subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        skipped.remove(subscriber);
+        releaseClientSlot(subscriber.clientId);
+        subscriberCount.decrementAndGet();
+        return true;
+    }
+    
+    private class Subscriber {
+        
+        private final SseEmitter emitter;
+        private final String clientId;
+        private final Set<Long> serviceIds;
+        // Latest unsent update per service: bounded by the number of subscribed services
+        private final Map<Long, SeatAvailability> pending = new LinkedHashMap<>();
+        private boolean heartbeatDue;
+        private boolean scheduled;
+        private boolean closed;
+        private volatile long sendingSince;
+        
+        Subscriber(SseEmitter emitter, String clientId, Set<Long> serviceIds) {
+            this.emitter = emitter;
+            this.clientId = clientId;
+            this.serviceIds = serviceIds;
+        }
+        
+        synchronized void enqueue(SeatAvailability availability) {
+            pending.put(availability.getServiceId(), availability);
+        }
+        
+        synchronized void requestHeartbeat() {
+            heartbeatDue = true;
+        }
+        
+        synchronized boolean markScheduled() {
+            if (scheduled || closed || (pending.isEmpty() && !heartbeatDue)) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+        
+        synchronized void unmarkScheduled() {
+            scheduled = false;
+        }
+        
+        synchronized boolean close() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            pending.clear();
+            return true;
+        }
+        
+        void drain() {
+            List<SeatAvailability> updates;
+            boolean keepAlive;
+            synchronized (this) {
+                updates = new ArrayList<>(pending.values());
+                pending.clear();
+                // Any event keeps the connection alive
+                keepAlive = heartbeatDue && updates.isEmpty();
+                heartbeatDue = false;
+            }
+            sendingSince = System.nanoTime();
+            sending.add(this);
+            try {
+                for (SeatAvailability update : updates) {
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(update));
+                }
+                if (keepAlive) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                failed(e);
+                return;
+            } finally {
+                sending.remove(this);
+            }
+            
+            synchronized (this) {
+                scheduled = false;
+            }
+            // Updates that arrived while sending
+            schedule(this);
+        }
+        
+        private void failed(Exception e) {
+            if (unsubscribe(this)) {
+                log.debug("Dropping seat availability subscriber: {}", e.getMessage());
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
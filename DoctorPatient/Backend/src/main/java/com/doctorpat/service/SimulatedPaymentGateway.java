@@ -0,0 +1,89 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.Payment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a real payment gateway. Latency is drawn from a base value plus
+ * uniform jitter, with a configurable share of slow calls to model a heavy tail.
+ */
+@Component
+public class SimulatedPaymentGateway implements PaymentGateway {
+    
+    private final long baseLatencyMs;
+    private final long latencyJitterMs;
+    private final double slowCallRate;
+    private final long slowCallLatencyMs;
+    private final double failureRate;
+    private final double declineRate;
+    
+    public SimulatedPaymentGateway(
+            @Value("${payment.gateway.stub.base-latency-ms:1000}") long baseLatencyMs,
+            @Value("${payment.gateway.stub.latency-jitter-ms:0}") long latencyJitterMs,
+            @Value("${payment.gateway.stub.slow-call-rate:0.0}") double slowCallRate,
+            @Value("${payment.gateway.stub.slow-call-latency-ms:5000}") long slowCallLatencyMs,
+            @Value("${payment.gateway.stub.failure-rate:0.0}") double failureRate,
+            @Value("${payment.gateway.stub.decline-rate:0.1}") double declineRate) {
+        this.baseLatencyMs = baseLatencyMs;
+        this.latencyJitterMs = latencyJitterMs;
+        this.slowCallRate = slowCallRate;
+        this.slowCallLatencyMs = slowCallLatencyMs;
+        this.failureRate = failureRate;
+        this.declineRate = declineRate;
+    }
+    
+    @Override
+    public PaymentGatewayResult authorize(Payment payment) {
+        simulateRoundTrip();
+        return decide();
+    }
+    
+    // A batch costs one round trip; each payment in it can still be declined on its own
+    @Override
+    public List<PaymentGatewayResult> authorizeBatch(List<Payment> payments) {
+        simulateRoundTrip();
+        List<PaymentGatewayResult> results = new ArrayList<>(payments.size());
+        for (int i = 0; i < payments.size(); i++) {
+            results.add(decide());
+        }
+        return results;
+    }
+    
+    private void simulateRoundTrip() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        long latency = random.nextDouble() < slowCallRate ? slowCallLatencyMs : baseLatencyMs;
+        if (latencyJitterMs > 0) {
+            latency += random.nextLong(latencyJitterMs + 1);
+        }
+        sleep(latency);
+        
+        if (random.nextDouble() < failureRate) {
+            throw new PaymentGatewayException("Payment gateway error");
+        }
+    }
+    
+    private PaymentGatewayResult decide() {
+        if (ThreadLocalRandom.current().nextDouble() < declineRate) {
+            return PaymentGatewayResult.declined("Payment declined by gateway");
+        }
+        return PaymentGatewayResult.approved("Approved");
+    }
+    
+    private void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymentGatewayException("Payment gateway call interrupted");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.Specialization;
+import com.doctorpat.entity.User;
+import com.doctorpat.repository.SpecializationRepository;
+import com.doctorpat.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maps free-form specialization text ("cardiology ", "Cardiology, Internal  medicine") onto the
+ * specializations catalog, so doctors are found through an indexed join on the normalized name
+ * instead of comparing the text column.
+ */
+@Service
+public class SpecializationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(SpecializationService.class);
+    
+    @Autowired
+    private SpecializationRepository specializationRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    public static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
+    // Normalized names of a comma-separated specialization list
+    public static List<String> slugs(String text) {
+        List<String> slugs = new ArrayList<>();
+        if (text != null) {
+            for (String part : text.split(",")) {
+                if (!part.isBlank() && !slugs.contains(normalize(part))) {
+                    slugs.add(normalize(part));
+                }
+            }
+        }
+        return slugs;
+    }
+    
+    /**
+     * Links the doctor to the catalog entries for the given comma-separated text, creating
+     * missing entries, and rewrites the display text from the catalog names.
+     */
+    public void assign(User doctor, String text) {
+        Set<Specialization> specializations = new LinkedHashSet<>();
+        if (text != null) {
+            for (String part : text.split(",")) {
+                if (!part.isBlank()) {
+                    specializations.add(resolve(part));
+                }
+            }
+        }
+        
+        doctor.setSpecializations(specializations);
+        doctor.setSpecialization(specializations.isEmpty() ? null : specializations.stream()
+                .map(Specialization::getName)
+                .collect(Collectors.joining(", ")));
+    }
+    
+    public List<Specialization> getAll() {
+        return specializationRepository.findAllByOrderByNameAsc();
+    }
+    
+    private Specialization resolve(String name) {
+        String slug = normalize(name);
+        return specializationRepository.findBySlug(slug)
+                .orElseGet(() -> create(displayName(name), slug));
+    }
+    
+    private Specialization create(String name, String slug) {
+        try {
+            return specializationRepository.saveAndFlush(new Specialization(name, slug));
+        } catch (DataIntegrityViolationException e) {
+            // Another registration created the same entry first
+            return specializationRepository.findBySlug(slug).orElseThrow(() -> e);
+        }
+    }
+    
+    private static String displayName(String name) {
+        StringBuilder display = new StringBuilder();
+        for (String word : name.trim().split("\\s+")) {
+            if (display.length() > 0) {
+                display.append(' ');
+            }
+            display.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return display.toString();
+    }
+    
+    // Migrates doctors saved before the catalog existed; a no-op once every doctor is linked
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillDoctorSpecializations() {
+        List<User> doctors = userRepository.findDoctorsWithoutSpecializations();
+        for (User doctor : doctors) {
+            assign(doctor, doctor.getSpecialization());
+        }
+        if (!doctors.isEmpty()) {
+            userRepository.saveAll(doctors);
+            log.info("Linked {} doctors to the specializations catalog", doctors.size());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.doctorpat.service;
+
+/**
+ * Thrown when a seat availability stream can't be opened: either the client already has as many
+ * streams as it may, or the server has no room for more subscribers.
+ */
+public class SubscriberLimitException extends IllegalStateException {
+    
+    private final boolean clientLimit;
+    
+    public SubscriberLimitException(String message, boolean clientLimit) {
+        super(message);
+        this.clientLimit = clientLimit;
+    }
+    
+    public boolean isClientLimit() {
+        return clientLimit;
+    }
+}
@@ -0,0 +1,462 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.UserImportResponse;
+import com.doctorpat.dto.UserRegistrationRequest;
+import com.doctorpat.entity.Specialization;
+import com.doctorpat.entity.User;
+import com.doctorpat.event.DoctorsImportedEvent;
+import com.doctorpat.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Registers many patients and doctors from a CSV or NDJSON upload. The file is read in chunks;
+ * per chunk, existing emails are looked up with one query, passwords are hashed in parallel on
+ * a dedicated fork-join pool, and the users are written with one JDBC batch. Rows that can't be
+ * imported are reported with their line number and don't stop the rest.
+ */
+@Service
+public class UserImportService {
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+    
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "email", "password", "role");
+    
+    private static final String INSERT_USER_SQL = "INSERT INTO users (name, email, password, role, phone_number, " +
+            "profile_image, date_of_birth, gender, address, specialization, license_number, years_of_experience, " +
+            "consultation_fee, is_active, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String INSERT_DOCTOR_SPECIALIZATION_SQL =
+            "INSERT INTO doctor_specializations (doctor_id, specialization_id) VALUES (?, ?)";
+    
+    private final UserRepository userRepository;
+    private final SpecializationService specializationService;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final int chunkSize;
+    private final ForkJoinPool hashingPool;
+    
+    @Autowired
+    public UserImportService(
+            UserRepository userRepository,
+            SpecializationService specializationService,
+            PasswordEncoder passwordEncoder,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${user.import.chunk-size:500}") int chunkSize,
+            @Value("${user.import.hash-threads:0}") int hashThreads) {
+        this(userRepository, specializationService, passwordEncoder, jdbcTemplate, transactionTemplate, eventPublisher,
+                objectMapper, validator, chunkSize,
+                new ForkJoinPool(hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors()));
+    }
+    
+    UserImportService(UserRepository userRepository, SpecializationService specializationService,
+                      PasswordEncoder passwordEncoder, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                      ApplicationEventPublisher eventPublisher, ObjectMapper objectMapper, Validator validator,
+                      int chunkSize, ForkJoinPool hashingPool) {
+        this.userRepository = userRepository;
+        this.specializationService = specializationService;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(UserRegistrationRequest.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.validator = validator;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.hashingPool = hashingPool;
+    }
+    
+    /**
+     * Imports the users in the input. CSV needs a header row naming the registration fields
+     * (name, email, password, role, phoneNumber, dateOfBirth, gender, address, specialization,
+     * licenseNumber, yearsOfExperience, consultationFee, ...). Only patients and doctors can be
+     * imported. Throws {@link IllegalArgumentException} when the CSV header is unusable.
+     */
+    public UserImportResponse importUsers(InputStream input, Format format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 16384);
+        RowReader rows = format == Format.NDJSON ? new NdjsonRowReader(reader) : new CsvRowReader(reader);
+        
+        UserImportResponse response = new UserImportResponse();
+        Set<String> seenEmails = new HashSet<>();
+        List<Long> doctorIds = new ArrayList<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        Row row;
+        while ((row = rows.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, seenEmails, doctorIds, response);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, seenEmails, doctorIds, response);
+        }
+        
+        if (!doctorIds.isEmpty()) {
+            eventPublisher.publishEvent(new DoctorsImportedEvent(doctorIds));
+        }
+        log.info("Imported {} of {} users ({} failed)", response.getImported(), response.getTotal(), response.getFailed());
+        return response;
+    }
+    
+    @PreDestroy
+    public void close() {
+        hashingPool.shutdown();
+    }
+    
+    private void importChunk(List<Row> chunk, Set<String> seenEmails, List<Long> doctorIds, UserImportResponse response) {
+        List<Row> valid = new ArrayList<>();
+        for (Row row : chunk) {
+            if (row.error == null) {
+                row.error = validate(row.request);
+            }
+            if (row.error == null && !seenEmails.add(row.email.toLowerCase(Locale.ROOT))) {
+                row.error = "Duplicate email in file";
+            }
+            if (row.error == null) {
+                valid.add(row);
+            }
+        }
+        
+        if (!valid.isEmpty()) {
+            Set<String> existing = userRepository.findExistingEmails(valid.stream().map(row -> row.email).toList())
+                    .stream()
+                    .map(email -> email.toLowerCase(Locale.ROOT))
+                    .collect(Collectors.toSet());
+            valid.removeIf(row -> {
+                if (existing.contains(row.email.toLowerCase(Locale.ROOT))) {
+                    row.error = "User with this email already exists";
+                    return true;
+                }
+                return false;
+            });
+        }
+        
+        if (!valid.isEmpty()) {
+            // BCrypt is deliberately slow; parallel streams run on the pool that submitted them
+            hashingPool.submit(() -> valid.parallelStream().forEach(row -> row.user = AuthService.newUser(
+                    row.request, passwordEncoder.encode(row.request.getPassword())))).join();
+            for (Row row : valid) {
+                if (row.user.getRole() == User.UserRole.DOCTOR) {
+                    specializationService.assign(row.user, row.request.getSpecialization());
+                }
+            }
+            save(valid);
+        }
+        
+        int imported = 0;
+        for (Row row : chunk) {
+            if (row.error != null) {
+                response.addError(new UserImportResponse.RowError(row.line, row.email, row.error));
+            } else {
+                imported++;
+                if (row.user.getRole() == User.UserRole.DOCTOR) {
+                    doctorIds.add(row.user.getId());
+                }
+            }
+        }
+        response.addImported(imported);
+    }
+    
+    private String validate(UserRegistrationRequest request) {
+        Set<ConstraintViolation<UserRegistrationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        String role = request.getRole().toUpperCase(Locale.ROOT);
+        if (!role.equals(User.UserRole.PATIENT.name()) && !role.equals(User.UserRole.DOCTOR.name())) {
+            return "Role must be PATIENT or DOCTOR";
+        }
+        if (request.getGender() != null) {
+            try {
+                User.Gender.valueOf(request.getGender().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return "Invalid gender: " + request.getGender();
+            }
+        }
+        return null;
+    }
+    
+    private void save(List<Row> rows) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertUsers(rows));
+        } catch (DataAccessException e) {
+            // A concurrent registration took one of the emails; find the offending rows one by one
+            log.warn("Batch insert of {} users failed, retrying row by row: {}", rows.size(), e.getMessage());
+            for (Row row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertUsers(List.of(row)));
+                } catch (DataAccessException rowError) {
+                    row.error = "Could not save user";
+                }
+            }
+        }
+    }
+    
+    // IDENTITY ids stop Hibernate from batching inserts, so the rows go through one JDBC batch
+    private void insertUsers(List<Row> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_USER_SQL, Statement.RETURN_GENERATED_KEYS),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    User user = rows.get(i).user;
+                    statement.setString(1, user.getName());
+                    statement.setString(2, user.getEmail());
+                    statement.setString(3, user.getPassword());
+                    statement.setString(4, user.getRole().name());
+                    statement.setString(5, user.getPhoneNumber());
+                    statement.setString(6, user.getProfileImage());
+                    statement.setString(7, user.getDateOfBirth());
+                    statement.setString(8, user.getGender() != null ? user.getGender().name() : null);
+                    statement.setString(9, user.getAddress());
+                    statement.setString(10, user.getSpecialization());
+                    statement.setString(11, user.getLicenseNumber());
+                    statement.setObject(12, user.getYearsOfExperience(), Types.INTEGER);
+                    statement.setObject(13, user.getConsultationFee(), Types.DOUBLE);
+                    statement.setBoolean(14, true);
+                    statement.setTimestamp(15, now);
+                    statement.setTimestamp(16, now);
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return rows.size();
+                }
+            },
+            keys);
+        
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated ids but got " + keyList.size());
+        }
+        List<Object[]> links = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            User user = rows.get(i).user;
+            user.setId(((Number) keyList.get(i).values().iterator().next()).longValue());
+            for (Specialization specialization : user.getSpecializations()) {
+                links.add(new Object[] {user.getId(), specialization.getId()});
+            }
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_DOCTOR_SPECIALIZATION_SQL, links);
+        }
+    }
+    
+    private static String invalidValue(IOException e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()
+                && mapping.getPath().get(0).getFieldName() != null) {
+            return "Invalid value for " + mapping.getPath().get(0).getFieldName();
+        }
+        return e instanceof JsonProcessingException ? "Malformed record" : e.getMessage();
+    }
+    
+    private static class Row {
+        
+        private final long line;
+        private final UserRegistrationRequest request;
+        private final String email;
+        private String error;
+        private User user;
+        
+        Row(long line, UserRegistrationRequest request, String email, String error) {
+            this.line = line;
+            this.request = request;
+            this.email = email;
+            this.error = error;
+        }
+    }
+    
+    private interface RowReader {
+        
+        // Null at the end of the input
+        Row next() throws IOException;
+    }
+    
+    private class NdjsonRowReader implements RowReader {
+        
+        private final BufferedReader reader;
+        private long line;
+        
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+        
+        @Override
+        public Row next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    UserRegistrationRequest request = requestReader.readValue(text);
+                    return new Row(line, request, request.getEmail(), null);
+                } catch (JsonProcessingException e) {
+                    return new Row(line, null, null, invalidValue(e));
+                }
+            }
+            return null;
+        }
+    }
+    
+    private class CsvRowReader implements RowReader {
+        
+        private final PushbackReader reader;
+        private List<String> header;
+        private long line = 1;
+        
+        CsvRowReader(Reader reader) {
+            this.reader = new PushbackReader(reader);
+        }
+        
+        @Override
+        public Row next() throws IOException {
+            if (header == null) {
+                readHeader();
+            }
+            while (true) {
+                long start = line;
+                List<String> fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                
+                Map<String, String> values = new LinkedHashMap<>();
+                for (int i = 0; i < Math.min(fields.size(), header.size()); i++) {
+                    if (!fields.get(i).isBlank()) {
+                        values.put(header.get(i), fields.get(i).trim());
+                    }
+                }
+                if (fields.size() != header.size()) {
+                    return new Row(start, null, values.get("email"),
+                            "Expected " + header.size() + " columns but found " + fields.size());
+                }
+                try {
+                    UserRegistrationRequest request = requestReader.readValue((JsonNode) objectMapper.valueToTree(values));
+                    return new Row(start, request, request.getEmail(), null);
+                } catch (IOException e) {
+                    return new Row(start, null, values.get("email"), invalidValue(e));
+                }
+            }
+        }
+        
+        private void readHeader() throws IOException {
+            List<String> fields = readRecord();
+            header = fields == null ? List.of() : fields.stream().map(String::trim).toList();
+            if (!header.containsAll(REQUIRED_COLUMNS)) {
+                throw new IllegalArgumentException("CSV header must contain the columns " + REQUIRED_COLUMNS);
+            }
+        }
+        
+        // One RFC 4180 record; quoted fields may contain commas, doubled quotes and line breaks
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            for (; c != -1; c = reader.read()) {
+                if (quoted) {
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (next != -1) {
+                                reader.unread(next);
+                            }
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.WellnessEnrollmentChangedEvent;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import com.doctorpat.repository.WellnessServiceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Serves reads of the active wellness catalog from an in-memory snapshot, indexed by price and
+ * duration (sorted maps) and by category. Catalog changes build a new snapshot and swap it in
+ * through a volatile field. Enrollments only change one service's participant count, so their
+ * snapshot shares every group of the previous one except those holding that service. Readers
+ * never lock and never query the database.
+ */
+@Service
+public class WellnessCatalogService {
+    
+    @Autowired
+    private WellnessServiceRepository wellnessServiceRepository;
+    
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        snapshot = new Snapshot(wellnessServiceRepository.findByIsActiveTrue().stream()
+                .map(WellnessCatalogService::copy)
+                .toList());
+    }
+    
+    @EventListener
+    public synchronized void onWellnessServiceChanged(WellnessServiceChangedEvent event) {
+        WellnessService service = event.getService();
+        List<WellnessService> services = snapshot.without(service.getId());
+        if (Boolean.TRUE.equals(service.getIsActive())) {
+            services.add(copy(service));
+        }
+        snapshot = new Snapshot(services);
+    }
+    
+    @EventListener
+    public synchronized void onEnrollmentChanged(WellnessEnrollmentChangedEvent event) {
+        WellnessService current = snapshot.get(event.getServiceId());
+        if (current == null) {
+            return;
+        }
+        WellnessService updated = copy(current);
+        updated.setCurrentParticipants(Math.max(0, participants(current) + event.getDelta()));
+        snapshot = snapshot.replace(current, updated);
+    }
+    
+    public List<WellnessService> getActiveServices() {
+        return snapshot.services;
+    }
+    
+    public Optional<WellnessService> getActiveService(Long serviceId) {
+        return Optional.ofNullable(snapshot.get(serviceId));
+    }
+    
+    public List<WellnessService> getByCategory(WellnessService.ServiceCategory category) {
+        return snapshot.byCategory.getOrDefault(category, List.of());
+    }
+    
+    // Either bound may be null; both are inclusive. Cheapest first.
+    public List<WellnessService> getByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        NavigableMap<BigDecimal, List<WellnessService>> byPrice = snapshot.byPrice;
+        if (minPrice != null && maxPrice != null) {
+            if (minPrice.compareTo(maxPrice) > 0) {
+                return List.of();
+            }
+            byPrice = byPrice.subMap(minPrice, true, maxPrice, true);
+        } else if (minPrice != null) {
+            byPrice = byPrice.tailMap(minPrice, true);
+        } else if (maxPrice != null) {
+            byPrice = byPrice.headMap(maxPrice, true);
+        }
+        return flatten(byPrice.values());
+    }
+    
+    // Shortest first
+    public List<WellnessService> getByMaxDuration(int maxMinutes) {
+        return flatten(snapshot.byDuration.headMap(maxMinutes, true).values());
+    }
+    
+    public List<WellnessService> getAvailable() {
+        return snapshot.available;
+    }
+    
+    private static List<WellnessService> flatten(Collection<List<WellnessService>> groups) {
+        List<WellnessService> services = new ArrayList<>();
+        for (List<WellnessService> group : groups) {
+            services.addAll(group);
+        }
+        return services;
+    }
+    
+    private static int participants(WellnessService service) {
+        return service.getCurrentParticipants() != null ? service.getCurrentParticipants() : 0;
+    }
+    
+    private static boolean hasSeats(WellnessService service) {
+        return service.getMaxParticipants() == null || participants(service) < service.getMaxParticipants();
+    }
+    
+    // The snapshot holds its own copies, so later changes to a managed entity can't leak into it
+    static WellnessService copy(WellnessService source) {
+        WellnessService copy = new WellnessService();
+        copy.setId(source.getId());
+        copy.setName(source.getName());
+        copy.setDescription(source.getDescription());
+        copy.setCategory(source.getCategory());
+        copy.setDurationMinutes(source.getDurationMinutes());
+        copy.setPrice(source.getPrice());
+        copy.setIsActive(source.getIsActive());
+        copy.setMaxParticipants(source.getMaxParticipants());
+        copy.setCurrentParticipants(source.getCurrentParticipants());
+        copy.setServiceImage(source.getServiceImage());
+        copy.setRequirements(source.getRequirements());
+        copy.setBenefits(source.getBenefits());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+    
+    // Never changed once built; the indexes and their groups are unmodifiable
+    private static class Snapshot {
+        
+        private static final Comparator<WellnessService> BY_ID = Comparator.comparing(WellnessService::getId);
+        
+        private final List<WellnessService> services;
+        private final NavigableMap<BigDecimal, List<WellnessService>> byPrice;
+        private final NavigableMap<Integer, List<WellnessService>> byDuration;
+        private final Map<WellnessService.ServiceCategory, List<WellnessService>> byCategory;
+        private final List<WellnessService> available;
+        
+        Snapshot(List<WellnessService> active) {
+            List<WellnessService> sorted = new ArrayList<>(active);
+            sorted.sort(BY_ID);
+            
+            TreeMap<BigDecimal, List<WellnessService>> prices = new TreeMap<>();
+            TreeMap<Integer, List<WellnessService>> durations = new TreeMap<>();
+            Map<WellnessService.ServiceCategory, List<WellnessService>> categories =
+                    new EnumMap<>(WellnessService.ServiceCategory.class);
+            List<WellnessService> open = new ArrayList<>();
+            for (WellnessService service : sorted) {
+                if (service.getPrice() != null) {
+                    prices.computeIfAbsent(service.getPrice(), price -> new ArrayList<>()).add(service);
+                }
+                if (service.getDurationMinutes() != null) {
+                    durations.computeIfAbsent(service.getDurationMinutes(), minutes -> new ArrayList<>()).add(service);
+                }
+                if (service.getCategory() != null) {
+                    categories.computeIfAbsent(service.getCategory(), category -> new ArrayList<>()).add(service);
+                }
+                if (hasSeats(service)) {
+                    open.add(service);
+                }
+            }
+            
+            prices.replaceAll((price, group) -> List.copyOf(group));
+            durations.replaceAll((minutes, group) -> List.copyOf(group));
+            categories.replaceAll((category, group) -> List.copyOf(group));
+            this.services = List.copyOf(sorted);
+            this.byPrice = Collections.unmodifiableNavigableMap(prices);
+            this.byDuration = Collections.unmodifiableNavigableMap(durations);
+            this.byCategory = Collections.unmodifiableMap(categories);
+            this.available = List.copyOf(open);
+        }
+        
+        private Snapshot(List<WellnessService> services,
+                         NavigableMap<BigDecimal, List<WellnessService>> byPrice,
+                         NavigableMap<Integer, List<WellnessService>> byDuration,
+                         Map<WellnessService.ServiceCategory, List<WellnessService>> byCategory,
+                         List<WellnessService> available) {
+            this.services = services;
+            this.byPrice = byPrice;
+            this.byDuration = byDuration;
+            this.byCategory = byCategory;
+            this.available = available;
+        }
+        
+        // Services are sorted by id, so no separate id index has to be copied on each replace
+        WellnessService get(Long serviceId) {
+            WellnessService probe = new WellnessService();
+            probe.setId(serviceId);
+            int position = Collections.binarySearch(services, probe, BY_ID);
+            return position >= 0 ? services.get(position) : null;
+        }
+        
+        /**
+         * A snapshot with one service swapped for an updated copy with the same id, price,
+         * duration and category. Only the lists that hold it are copied; every other group is
+         * shared with this snapshot, and nothing is re-sorted or re-indexed.
+         */
+        Snapshot replace(WellnessService current, WellnessService updated) {
+            NavigableMap<BigDecimal, List<WellnessService>> prices = byPrice;
+            if (current.getPrice() != null) {
+                TreeMap<BigDecimal, List<WellnessService>> next = new TreeMap<>(byPrice);
+                next.put(current.getPrice(), replaced(byPrice.get(current.getPrice()), current, updated));
+                prices = Collections.unmodifiableNavigableMap(next);
+            }
+            NavigableMap<Integer, List<WellnessService>> durations = byDuration;
+            if (current.getDurationMinutes() != null) {
+                TreeMap<Integer, List<WellnessService>> next = new TreeMap<>(byDuration);
+                next.put(current.getDurationMinutes(),
+                        replaced(byDuration.get(current.getDurationMinutes()), current, updated));
+                durations = Collections.unmodifiableNavigableMap(next);
+            }
+            Map<WellnessService.ServiceCategory, List<WellnessService>> categories = byCategory;
+            if (current.getCategory() != null) {
+                Map<WellnessService.ServiceCategory, List<WellnessService>> next =
+                        new EnumMap<>(WellnessService.ServiceCategory.class);
+                next.putAll(byCategory);
+                next.put(current.getCategory(), replaced(byCategory.get(current.getCategory()), current, updated));
+                categories = Collections.unmodifiableMap(next);
+            }
+            
+            List<WellnessService> open = available;
+            boolean wasOpen = hasSeats(current);
+            boolean isOpen = hasSeats(updated);
+            if (wasOpen && isOpen) {
+                open = replaced(available, current, updated);
+            } else if (wasOpen || isOpen) {
+                List<WellnessService> next = new ArrayList<>(available);
+                int position = Collections.binarySearch(next, current, BY_ID);
+                if (isOpen) {
+                    next.add(-position - 1, updated);
+                } else {
+                    next.remove(position);
+                }
+                open = Collections.unmodifiableList(next);
+            }
+            return new Snapshot(replaced(services, current, updated), prices, durations, categories, open);
+        }
+        
+        // Lists are sorted by id, so the service is found by binary search
+        private static List<WellnessService> replaced(List<WellnessService> group, WellnessService current,
+                                                      WellnessService updated) {
+            List<WellnessService> next = new ArrayList<>(group);
+            next.set(Collections.binarySearch(next, current, BY_ID), updated);
+            return Collections.unmodifiableList(next);
+        }
+        
+        // Mutable copy of the services without the given one, to build the next snapshot from
+        List<WellnessService> without(Long serviceId) {
+            List<WellnessService> remaining = new ArrayList<>(services);
+            remaining.removeIf(service -> service.getId().equals(serviceId));
+            return remaining;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.WellnessEnrollment;
+import com.doctorpat.event.WellnessEnrollmentChangedEvent;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import com.doctorpat.repository.WellnessEnrollmentRepository;
+import com.doctorpat.repository.WellnessServiceRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Enrolls and unenrolls patients in wellness services with conditional UPDATE statements,
+ * never loading or saving the service. Each seat taken is recorded as an enrollment row, unique
+ * per patient and service, so a patient holds at most one seat per service and can only give
+ * back their own. With the buffer enabled, seats are reserved from the database in blocks by the
+ * same conditional UPDATE and handed out from an in-memory, striped count, which keeps a flash
+ * sale on one popular class from queueing every request on the same row lock. A seat is only
+ * handed out after the database already counts it, so an acknowledged enrollment can't be lost
+ * and several instances can't oversell. Until a block is used up or given back, its unsold seats
+ * show as taken; when a service is changed, its unsold seats are given back so the next
+ * reservation is checked against the new settings.
+ */
+@Service
+public class WellnessEnrollmentService {
+    
+    private static final Logger log = LoggerFactory.getLogger(WellnessEnrollmentService.class);
+    
+    private final WellnessServiceRepository wellnessServiceRepository;
+    private final WellnessEnrollmentRepository wellnessEnrollmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean bufferEnabled;
+    private final int stripes;
+    private final int blockSize;
+    private final Map<Long, SeatCounter> counters = new ConcurrentHashMap<>();
+    
+    @Autowired
+    public WellnessEnrollmentService(
+            WellnessServiceRepository wellnessServiceRepository,
+            WellnessEnrollmentRepository wellnessEnrollmentRepository,
+            ApplicationEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate,
+            @Value("${wellness.enrollment.buffer.enabled:false}") boolean bufferEnabled,
+            @Value("${wellness.enrollment.buffer.stripes:8}") int stripes,
+            @Value("${wellness.enrollment.buffer.block-size:20}") int blockSize) {
+        this.wellnessServiceRepository = wellnessServiceRepository;
+        this.wellnessEnrollmentRepository = wellnessEnrollmentRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.bufferEnabled = bufferEnabled;
+        this.stripes = Math.max(1, stripes);
+        this.blockSize = Math.max(1, blockSize);
+    }
+    
+    // False when the service is full, inactive or doesn't exist, or the patient is already enrolled
+    public boolean enroll(Long serviceId, Long patientId) {
+        if (bufferEnabled && takeReservedSeat(serviceId)) {
+            try {
+                wellnessEnrollmentRepository.save(new WellnessEnrollment(serviceId, patientId));
+                return true;
+            } catch (RuntimeException e) {
+                // The database still counts the seat, so it goes back to the reservation
+                counters.get(serviceId).add(1);
+                if (e instanceof DataIntegrityViolationException) {
+                    return false;
+                }
+                throw e;
+            }
+        }
+        
+        // The count update locks the service row, and the enrollment insert rolls it back when the
+        // patient already holds a seat
+        boolean enrolled;
+        try {
+            enrolled = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (wellnessServiceRepository.addParticipants(serviceId, 1) == 0) {
+                    return false;
+                }
+                wellnessEnrollmentRepository.save(new WellnessEnrollment(serviceId, patientId));
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+        if (enrolled) {
+            eventPublisher.publishEvent(new WellnessEnrollmentChangedEvent(serviceId, 1));
+        }
+        return enrolled;
+    }
+    
+    // False when the patient isn't enrolled in the service
+    public boolean unenroll(Long serviceId, Long patientId) {
+        boolean unenrolled = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (wellnessEnrollmentRepository.deleteEnrollment(serviceId, patientId) == 0) {
+                return false;
+            }
+            if (wellnessServiceRepository.removeParticipant(serviceId) == 0) {
+                log.warn("Wellness service {} had an enrollment but no participants counted", serviceId);
+            }
+            return true;
+        }));
+        if (unenrolled) {
+            eventPublisher.publishEvent(new WellnessEnrollmentChangedEvent(serviceId, -1));
+        }
+        return unenrolled;
+    }
+    
+    // Takes a seat the database already counts; false when the caller has to enroll directly
+    private boolean takeReservedSeat(Long serviceId) {
+        SeatCounter counter = counters.computeIfAbsent(serviceId, id -> new SeatCounter(0, stripes));
+        if (counter.tryTake()) {
+            return true;
+        }
+        if (!counter.blocksExhausted) {
+            // One reservation at a time per service; threads that waited here take from the block it added
+            synchronized (counter) {
+                if (counter.tryTake()) {
+                    return true;
+                }
+                if (!counter.blocksExhausted) {
+                    if (changeParticipants(serviceId, blockSize)) {
+                        counter.add(blockSize - 1);
+                        return true;
+                    }
+                    counter.blocksExhausted = true;
+                }
+            }
+        }
+        // Fewer seats left than a block: enroll directly, one seat at a time, until the next release run
+        return false;
+    }
+    
+    /**
+     * Gives back the reserved seats of services that had no enrollments since the previous run,
+     * so a quiet class doesn't keep seats it isn't selling. If the write fails, the seats stay
+     * reserved here and are tried again on the next run. Services that ran out of whole blocks
+     * try reserving blocks again after each run.
+     */
+    @Scheduled(fixedDelayString = "${wellness.enrollment.buffer.release-interval-ms:1000}")
+    public void releaseIdleSeats() {
+        release(false);
+    }
+    
+    @PreDestroy
+    public void releaseAllSeats() {
+        release(true);
+    }
+    
+    // Seats reserved before a service was deactivated or made smaller must not be handed out
+    @EventListener
+    public synchronized void onWellnessServiceChanged(WellnessServiceChangedEvent event) {
+        SeatCounter counter = counters.get(event.getService().getId());
+        if (counter != null) {
+            giveBack(event.getService().getId(), counter);
+        }
+    }
+    
+    private synchronized void release(boolean all) {
+        counters.forEach((serviceId, counter) -> {
+            counter.blocksExhausted = false;
+            int free = counter.freeSeats();
+            boolean idle = free == counter.lastSeenFree;
+            counter.lastSeenFree = free;
+            if (free == 0 || !(all || idle)) {
+                return;
+            }
+            giveBack(serviceId, counter);
+        });
+    }
+    
+    private void giveBack(Long serviceId, SeatCounter counter) {
+        int drained = counter.drainFree();
+        try {
+            if (drained > 0 && !changeParticipants(serviceId, -drained)) {
+                log.warn("Could not give back {} reserved seats of wellness service {}: participant count changed outside the buffer",
+                        drained, serviceId);
+            }
+        } catch (RuntimeException e) {
+            counter.add(drained);
+            log.warn("Could not give back {} reserved seats of wellness service {}, keeping them reserved",
+                    drained, serviceId, e);
+        }
+    }
+    
+    private boolean changeParticipants(Long serviceId, int delta) {
+        int updated;
+        if (delta > 0) {
+            updated = wellnessServiceRepository.addParticipants(serviceId, delta);
+        } else if (delta == -1) {
+            updated = wellnessServiceRepository.removeParticipant(serviceId);
+        } else {
+            updated = wellnessServiceRepository.removeParticipants(serviceId, -delta);
+        }
+        if (updated == 0) {
+            return false;
+        }
+        eventPublisher.publishEvent(new WellnessEnrollmentChangedEvent(serviceId, delta));
+        return true;
+    }
+    
+    /**
+     * Reserved seats of one service that haven't been handed out yet, spread over stripes so that
+     * concurrent enrollments mostly update different slots. A seat is only taken through a
+     * compare-and-set on a positive count, so no more seats are handed out than were reserved.
+     */
+    static class SeatCounter {
+        
+        private final AtomicIntegerArray free;
+        // Set when a whole block no longer fits; cleared by each release run to try blocks again
+        private volatile boolean blocksExhausted;
+        // Only read and written by release, to spot counters with no enrollments since the last run
+        private int lastSeenFree = -1;
+        
+        SeatCounter(int available, int stripes) {
+            free = new AtomicIntegerArray(stripes);
+            add(available);
+        }
+        
+        boolean tryTake() {
+            int start = ThreadLocalRandom.current().nextInt(free.length());
+            for (int i = 0; i < free.length(); i++) {
+                int stripe = (start + i) % free.length();
+                if (decrementIfPositive(free, stripe)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        void add(int seats) {
+            for (int i = 0; i < free.length(); i++) {
+                free.addAndGet(i, seats / free.length() + (i < seats % free.length() ? 1 : 0));
+            }
+        }
+        
+        int drainFree() {
+            int total = 0;
+            for (int stripe = 0; stripe < free.length(); stripe++) {
+                total += free.getAndSet(stripe, 0);
+            }
+            return total;
+        }
+        
+        int freeSeats() {
+            int total = 0;
+            for (int stripe = 0; stripe < free.length(); stripe++) {
+                total += free.get(stripe);
+            }
+            return total;
+        }
+        
+        private static boolean decrementIfPositive(AtomicIntegerArray counts, int stripe) {
+            int count;
+            do {
+                count = counts.get(stripe);
+                if (count <= 0) {
+                    return false;
+                }
+            } while (!counts.compareAndSet(stripe, count, count - 1));
+            return true;
+        }
+    }
+}
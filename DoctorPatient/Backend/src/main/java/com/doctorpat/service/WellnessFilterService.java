@@ -0,0 +1,115 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.WellnessCatalogFilter;
+import com.doctorpat.dto.WellnessCatalogResult;
+import com.doctorpat.entity.WellnessService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filters active wellness services by any combination of category, price range, duration,
+ * free seats and keyword with one dynamically built query, and counts the full match set per
+ * category and price band with a second, grouped query over the same predicates.
+ */
+@Service
+public class WellnessFilterService {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private WellnessSearchService wellnessSearchService;
+    
+    @Transactional(readOnly = true)
+    public WellnessCatalogResult filter(WellnessCatalogFilter filter, int page, int size) {
+        List<Long> keywordMatches = null;
+        if (filter.getKeyword() != null && !filter.getKeyword().isBlank()) {
+            keywordMatches = wellnessSearchService.searchIds(filter.getKeyword());
+            if (keywordMatches.isEmpty()) {
+                return new WellnessCatalogResult(List.of(), page, size,
+                        new EnumMap<>(WellnessService.ServiceCategory.class),
+                        new EnumMap<>(WellnessCatalogResult.PriceBand.class));
+            }
+        }
+        
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        
+        CriteriaQuery<WellnessService> query = cb.createQuery(WellnessService.class);
+        Root<WellnessService> service = query.from(WellnessService.class);
+        query.where(predicates(cb, service, filter, keywordMatches))
+                .orderBy(cb.asc(service.get("name")), cb.asc(service.get("id")));
+        List<WellnessService> services = entityManager.createQuery(query)
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+        
+        // Grouped by exact price rather than a CASE over bands, so the GROUP BY is portable and
+        // can be answered from the (is_active, category, price) index; bands are summed here
+        CriteriaQuery<Object[]> facets = cb.createQuery(Object[].class);
+        Root<WellnessService> counted = facets.from(WellnessService.class);
+        facets.multiselect(counted.get("category"), counted.get("price"), cb.count(counted))
+                .where(predicates(cb, counted, filter, keywordMatches))
+                .groupBy(counted.get("category"), counted.get("price"));
+        
+        Map<WellnessService.ServiceCategory, Long> categoryCounts = new EnumMap<>(WellnessService.ServiceCategory.class);
+        Map<WellnessCatalogResult.PriceBand, Long> priceBandCounts = new EnumMap<>(WellnessCatalogResult.PriceBand.class);
+        for (Object[] row : entityManager.createQuery(facets).getResultList()) {
+            long count = (Long) row[2];
+            categoryCounts.merge((WellnessService.ServiceCategory) row[0], count, Long::sum);
+            if (row[1] != null) {
+                priceBandCounts.merge(priceBand((BigDecimal) row[1]), count, Long::sum);
+            }
+        }
+        
+        return new WellnessCatalogResult(services, page, size, categoryCounts, priceBandCounts);
+    }
+    
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<WellnessService> service,
+                                          WellnessCatalogFilter filter, List<Long> keywordMatches) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isTrue(service.get("isActive")));
+        if (filter.getCategory() != null) {
+            predicates.add(cb.equal(service.get("category"), filter.getCategory()));
+        }
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(service.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(service.get("price"), filter.getMaxPrice()));
+        }
+        if (filter.getMaxDuration() != null) {
+            predicates.add(cb.lessThanOrEqualTo(service.get("durationMinutes"), filter.getMaxDuration()));
+        }
+        if (filter.isAvailableOnly()) {
+            predicates.add(cb.or(
+                    cb.isNull(service.get("maxParticipants")),
+                    cb.lessThan(service.get("currentParticipants"), service.<Integer>get("maxParticipants"))));
+        }
+        if (keywordMatches != null) {
+            predicates.add(service.get("id").in(keywordMatches));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+    
+    static WellnessCatalogResult.PriceBand priceBand(BigDecimal price) {
+        for (WellnessCatalogResult.PriceBand band : WellnessCatalogResult.PriceBand.values()) {
+            if (band.getTo() == null || price.compareTo(band.getTo()) < 0) {
+                return band;
+            }
+        }
+        return WellnessCatalogResult.PriceBand.OVER_100;
+    }
+}
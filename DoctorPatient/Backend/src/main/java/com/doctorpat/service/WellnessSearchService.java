@@ -0,0 +1,261 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import com.doctorpat.repository.WellnessServiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over active wellness services. Name, description, benefits and requirements
+ * are tokenized and stemmed into an in-memory inverted index, and matches are ranked with BM25
+ * (name hits weigh the most). The index only holds active services and is updated one service
+ * at a time as they are created, edited or deactivated.
+ */
+@Service
+public class WellnessSearchService {
+    
+    private static final Logger log = LoggerFactory.getLogger(WellnessSearchService.class);
+    
+    // Usual BM25 defaults: term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it",
+            "of", "on", "or", "our", "the", "to", "with", "your", "you");
+    
+    enum Field {
+        NAME(3.0, WellnessService::getName),
+        DESCRIPTION(1.0, WellnessService::getDescription),
+        BENEFITS(1.5, WellnessService::getBenefits),
+        REQUIREMENTS(0.5, WellnessService::getRequirements);
+        
+        private final double weight;
+        private final Function<WellnessService, String> extractor;
+        
+        Field(double weight, Function<WellnessService, String> extractor) {
+            this.weight = weight;
+            this.extractor = extractor;
+        }
+    }
+    
+    @Autowired
+    private WellnessServiceRepository wellnessServiceRepository;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Map<Long, Double>> postings = new HashMap<>();
+    private double totalLength;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<WellnessService> services = wellnessServiceRepository.findByIsActiveTrue();
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            totalLength = 0;
+            for (WellnessService service : services) {
+                add(service);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed {} wellness services for search", services.size());
+    }
+    
+    @EventListener
+    public void onWellnessServiceChanged(WellnessServiceChangedEvent event) {
+        index(event.getService());
+    }
+    
+    public void index(WellnessService service) {
+        lock.writeLock().lock();
+        try {
+            remove(service.getId());
+            if (Boolean.TRUE.equals(service.getIsActive())) {
+                add(service);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns one page of the active services matching any of the query terms, best match
+     * first. The ranking comes from the index; only the services on the page are loaded.
+     */
+    public Page<WellnessService> search(String query, int page, int size) {
+        PageRequest pageRequest = PageRequest.of(page, size);
+        List<Long> ranked = searchIds(query);
+        if (ranked.isEmpty()) {
+            return Page.empty(pageRequest);
+        }
+        
+        int from = (int) Math.min(pageRequest.getOffset(), ranked.size());
+        List<Long> pageIds = ranked.subList(from, Math.min(from + size, ranked.size()));
+        Map<Long, WellnessService> services = wellnessServiceRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(WellnessService::getId, Function.identity()));
+        List<WellnessService> content = pageIds.stream()
+                .map(services::get)
+                .filter(service -> service != null)
+                .toList();
+        return new PageImpl<>(content, pageRequest, ranked.size());
+    }
+    
+    // Ids of every active service matching the query, best match first
+    public List<Long> searchIds(String query) {
+        Set<String> terms = new LinkedHashSet<>(analyze(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            return rank(terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private List<Long> rank(Set<String> terms) {
+        int documentCount = documents.size();
+        double averageLength = documentCount > 0 ? totalLength / documentCount : 0;
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<Long, Double> matches = postings.get(term);
+            if (matches == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documentCount - matches.size() + 0.5) / (matches.size() + 0.5));
+            for (Map.Entry<Long, Double> match : matches.entrySet()) {
+                double frequency = match.getValue();
+                double lengthRatio = averageLength > 0 ? documents.get(match.getKey()).length / averageLength : 1;
+                double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengthRatio));
+                scores.merge(match.getKey(), score, Double::sum);
+            }
+        }
+        
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(entry -> documents.get(entry.getKey()).name)
+                        .thenComparing(Map.Entry::getKey))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+    
+    private void add(WellnessService service) {
+        // Field-weighted term frequencies: a word in the name counts three times
+        Map<String, Double> frequencies = new HashMap<>();
+        for (Field field : Field.values()) {
+            for (String term : analyze(field.extractor.apply(service))) {
+                frequencies.merge(term, field.weight, Double::sum);
+            }
+        }
+        
+        double length = frequencies.values().stream().mapToDouble(Double::doubleValue).sum();
+        String name = service.getName() != null ? service.getName().toLowerCase(Locale.ROOT) : "";
+        documents.put(service.getId(), new Document(name, length, frequencies.keySet()));
+        totalLength += length;
+        frequencies.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new HashMap<>()).put(service.getId(), frequency));
+    }
+    
+    private void remove(Long serviceId) {
+        Document document = documents.remove(serviceId);
+        if (document == null) {
+            return;
+        }
+        totalLength -= document.length;
+        for (String term : document.terms) {
+            Map<Long, Double> matches = postings.get(term);
+            matches.remove(serviceId);
+            if (matches.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+    
+    // Lower-cased, accent-free, stemmed words without stop words
+    static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        for (String word : folded.split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() > 1 && !STOP_WORDS.contains(word)) {
+                terms.add(stem(word));
+            }
+        }
+        return terms;
+    }
+    
+    /**
+     * Light English suffix stripping: enough to match plurals and -ing/-ed/-ly forms
+     * ("classes", "stretching", "relaxed", "gently" -> "class", "stretch", "relax", "gent").
+     * It only has to be consistent between indexing and querying, not linguistically exact.
+     */
+    static String stem(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        if (word.endsWith("ies") && word.length() > 4) {
+            word = word.substring(0, word.length() - 3) + "y";
+        } else if (word.endsWith("sses") || word.endsWith("ches") || word.endsWith("shes")
+                || word.endsWith("xes") || word.endsWith("zes")) {
+            word = word.substring(0, word.length() - 2);
+        } else if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            word = word.substring(0, word.length() - 1);
+        }
+        
+        for (String suffix : new String[]{"ing", "ed", "ly"}) {
+            if (word.endsWith(suffix) && word.length() - suffix.length() >= 3) {
+                word = word.substring(0, word.length() - suffix.length());
+                // "running" -> "runn" -> "run"
+                int last = word.length() - 1;
+                if (word.charAt(last) == word.charAt(last - 1) && "aeiouls".indexOf(word.charAt(last)) < 0) {
+                    word = word.substring(0, last);
+                }
+                break;
+            }
+        }
+        return word;
+    }
+    
+    private static class Document {
+        
+        private final String name;
+        private final double length;
+        private final Set<String> terms;
+        
+        Document(String name, double length, Set<String> terms) {
+            this.name = name;
+            this.length = length;
+            this.terms = terms;
+        }
+    }
+}
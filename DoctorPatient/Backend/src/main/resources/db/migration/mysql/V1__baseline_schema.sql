@@ -0,0 +1,92 @@
+-- Schema as Hibernate's ddl-auto=update created it before migrations were introduced. Databases
+-- created that way are baselined at this version (spring.flyway.baseline-on-migrate), so this
+-- script only runs on an empty database; both then get every later version, in order. Keep it as
+-- it is: a change made here never reaches the baselined databases and belongs in a new version.
+-- Hibernate named the unique and foreign keys of those databases itself, so later versions must
+-- not refer to them by the names used here.
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role ENUM('PATIENT','DOCTOR','ADMIN') NOT NULL,
+    phone_number VARCHAR(255),
+    profile_image VARCHAR(255),
+    date_of_birth VARCHAR(255),
+    gender ENUM('MALE','FEMALE','OTHER'),
+    address TEXT,
+    specialization TEXT,
+    license_number VARCHAR(255),
+    years_of_experience INT,
+    consultation_fee DOUBLE,
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    is_active BIT(1),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE appointments (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    patient_id BIGINT NOT NULL,
+    doctor_id BIGINT NOT NULL,
+    appointment_date DATE NOT NULL,
+    appointment_time TIME(6) NOT NULL,
+    status ENUM('SCHEDULED','CONFIRMED','IN_PROGRESS','COMPLETED','CANCELLED','NO_SHOW') NOT NULL,
+    payment_status ENUM('PENDING','PAID','REFUNDED','CANCELLED'),
+    notes TEXT,
+    consultation_fee DOUBLE,
+    appointment_duration INT,
+    cancellation_reason VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_appointments_patient FOREIGN KEY (patient_id) REFERENCES users (id),
+    CONSTRAINT fk_appointments_doctor FOREIGN KEY (doctor_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE wellness_services (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    category ENUM('FITNESS','NUTRITION','MENTAL_HEALTH','PREVENTIVE_CARE','REHABILITATION','WEIGHT_MANAGEMENT',
+        'STRESS_MANAGEMENT','SLEEP_THERAPY','YOGA','MEDITATION') NOT NULL,
+    duration_minutes INT,
+    price DECIMAL(10,2),
+    is_active BIT(1),
+    max_participants INT,
+    current_participants INT,
+    service_image VARCHAR(255),
+    requirements VARCHAR(255),
+    benefits VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE payments (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    appointment_id BIGINT NOT NULL,
+    patient_id BIGINT NOT NULL,
+    doctor_id BIGINT NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    payment_method ENUM('CREDIT_CARD','DEBIT_CARD','BANK_TRANSFER','CASH','INSURANCE') NOT NULL,
+    status ENUM('PENDING','PROCESSING','COMPLETED','FAILED','REFUNDED','CANCELLED') NOT NULL,
+    transaction_id VARCHAR(255),
+    payment_gateway_response VARCHAR(255),
+    card_last_four VARCHAR(255),
+    card_type VARCHAR(255),
+    billing_address VARCHAR(255),
+    failure_reason VARCHAR(255),
+    refund_amount DECIMAL(38,2),
+    refund_reason VARCHAR(255),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    processed_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_payments_transaction UNIQUE (transaction_id),
+    CONSTRAINT fk_payments_appointment FOREIGN KEY (appointment_id) REFERENCES appointments (id),
+    CONSTRAINT fk_payments_patient FOREIGN KEY (patient_id) REFERENCES users (id),
+    CONSTRAINT fk_payments_doctor FOREIGN KEY (doctor_id) REFERENCES users (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,27 @@
+-- Composite indexes for the repository queries. Until now only primary keys, the unique keys and
+-- the indexes declared on the entities existed, so lookups by role, status or date scanned the table.
+-- The leading doctor_id/patient_id columns also back the appointment foreign keys, which makes
+-- the single-column indexes MySQL created for those keys redundant; MySQL drops them itself.
+
+-- Role/active filters (findByRole*, findAllActive*, countByRole, countActiveByRole) and the
+-- active patient list ordered by name
+ALTER TABLE users
+    ADD INDEX idx_users_role_active_name (role, is_active, name);
+
+-- Doctor calendar (by day, by time slot, by date range, daily counts) and patient history,
+-- overdue scan (status = 'SCHEDULED' AND appointment_date < ?) and the status/payment counts
+ALTER TABLE appointments
+    ADD INDEX idx_appointments_doctor_date_time (doctor_id, appointment_date, appointment_time),
+    ADD INDEX idx_appointments_patient_date (patient_id, appointment_date),
+    ADD INDEX idx_appointments_status_date (status, appointment_date),
+    ADD INDEX idx_appointments_payment_status (payment_status);
+
+-- Active catalog filtered by category and price range, and sorted by price or duration
+-- (WellnessFilterService), plus category listings and counts regardless of the active flag
+ALTER TABLE wellness_services
+    ADD INDEX idx_wellness_active_category_price (is_active, category, price),
+    ADD INDEX idx_wellness_active_price (is_active, price),
+    ADD INDEX idx_wellness_active_duration (is_active, duration_minutes),
+    ADD INDEX idx_wellness_category (category);
+
+-- The payments indexes come with the partitioned table in V4
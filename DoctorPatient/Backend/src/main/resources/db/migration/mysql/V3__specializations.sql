@@ -0,0 +1,20 @@
+-- Normalized doctor specializations. users.specialization stays as display text; lookups by
+-- specialization go through doctor_specializations. SpecializationService fills both tables
+-- from the existing free-text values at startup.
+CREATE TABLE specializations (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    name VARCHAR(100) NOT NULL,
+    slug VARCHAR(100) NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_specializations_slug UNIQUE (slug)
+) ENGINE=InnoDB;
+
+CREATE TABLE doctor_specializations (
+    doctor_id BIGINT NOT NULL,
+    specialization_id BIGINT NOT NULL,
+    PRIMARY KEY (doctor_id, specialization_id),
+    KEY idx_doctor_specializations_specialization (specialization_id, doctor_id),
+    CONSTRAINT fk_doctor_specializations_doctor FOREIGN KEY (doctor_id) REFERENCES users (id),
+    CONSTRAINT fk_doctor_specializations_specialization FOREIGN KEY (specialization_id) REFERENCES specializations (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,59 @@
+-- Range-partitions payments by month on created_at so date-bounded queries only read the partitions
+-- they need. MySQL can't partition the existing table in place: it has foreign keys, and its unique
+-- key on transaction_id doesn't contain created_at. So the rows are copied into a new partitioned
+-- table that replaces it. This takes time proportional to the number of payments and the copy isn't
+-- transactional; run it with every application instance stopped (see "Upgrading" in the README).
+--
+-- Differences to the old table:
+-- * no foreign keys; MySQL doesn't support them on partitioned tables
+-- * every unique key includes created_at, so transaction ids are unique per (transaction_id, created_at)
+-- * created_at is NOT NULL; rows without one get their update time, or the migration time
+-- * payment_method and status are VARCHAR, so adding a value doesn't rebuild the table
+-- * the indexes for the payment queries: by doctor or patient and date, by appointment and status
+--   (duplicate-payment check), by status and date (revenue, counts), by date (range reads, export)
+--   and by method
+--
+-- Everything lands in p_future; PaymentPartitionService splits the monthly partitions off it at startup.
+CREATE TABLE payments_partitioned (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    appointment_id BIGINT NOT NULL,
+    patient_id BIGINT NOT NULL,
+    doctor_id BIGINT NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    payment_method VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    transaction_id VARCHAR(255),
+    payment_gateway_response VARCHAR(255),
+    card_last_four VARCHAR(255),
+    card_type VARCHAR(255),
+    billing_address VARCHAR(255),
+    failure_reason VARCHAR(255),
+    refund_amount DECIMAL(38,2),
+    refund_reason VARCHAR(255),
+    created_at DATETIME(6) NOT NULL,
+    updated_at DATETIME(6),
+    processed_at DATETIME(6),
+    PRIMARY KEY (id, created_at),
+    UNIQUE KEY uk_payments_transaction_created (transaction_id, created_at),
+    KEY idx_payments_doctor_created (doctor_id, created_at),
+    KEY idx_payments_patient_created (patient_id, created_at),
+    KEY idx_payments_appointment_status (appointment_id, status),
+    KEY idx_payments_status_created (status, created_at),
+    KEY idx_payments_created (created_at),
+    KEY idx_payments_method (payment_method)
+) ENGINE=InnoDB
+PARTITION BY RANGE COLUMNS(created_at) (
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
+
+INSERT INTO payments_partitioned (id, appointment_id, patient_id, doctor_id, amount, payment_method, status,
+        transaction_id, payment_gateway_response, card_last_four, card_type, billing_address, failure_reason,
+        refund_amount, refund_reason, created_at, updated_at, processed_at)
+SELECT id, appointment_id, patient_id, doctor_id, amount, payment_method, status,
+        transaction_id, payment_gateway_response, card_last_four, card_type, billing_address, failure_reason,
+        refund_amount, refund_reason, COALESCE(created_at, updated_at, NOW(6)), updated_at, processed_at
+FROM payments;
+
+RENAME TABLE payments TO payments_unpartitioned, payments_partitioned TO payments;
+
+DROP TABLE payments_unpartitioned;
@@ -0,0 +1,15 @@
+-- One row per patient enrolled in a wellness service. wellness_services.current_participants stays
+-- the seat count the conditional UPDATEs check; these rows record who holds the seats, so a patient
+-- can enroll once per service and only give back their own seat. Existing counts have no rows and
+-- are kept as they are.
+CREATE TABLE wellness_enrollments (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    wellness_service_id BIGINT NOT NULL,
+    patient_id BIGINT NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_wellness_enrollments_service_patient UNIQUE (wellness_service_id, patient_id),
+    KEY idx_wellness_enrollments_patient (patient_id),
+    CONSTRAINT fk_wellness_enrollments_service FOREIGN KEY (wellness_service_id) REFERENCES wellness_services (id),
+    CONSTRAINT fk_wellness_enrollments_patient FOREIGN KEY (patient_id) REFERENCES users (id)
+) ENGINE=InnoDB;
@@ -0,0 +1,134 @@
+package com.doctorpat.config;
+
+import com.doctorpat.entity.User;
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.DoctorsImportedEvent;
+import com.doctorpat.repository.UserRepository;
+import com.doctorpat.repository.WellnessServiceRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.cache.CacheManager;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each repository call runs in its own transaction, so reads after a commit can come from the cache
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+@Import(SecondLevelCacheConfig.class)
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WellnessServiceRepository wellnessServiceRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager secondLevelCacheManager;
+
+    @Autowired
+    private SecondLevelCacheConfig secondLevelCacheConfig;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctor = new User("Dr. Cached", "cached@example.com", "$2a$10$hash", User.UserRole.DOCTOR);
+        doctor = userRepository.save(doctor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM wellness_services");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void testFindById_ServedFromUsersRegion() {
+        // Arrange
+        entityManagerFactory.getCache().evictAll();
+
+        // Act
+        userRepository.findById(doctor.getId());
+
+        // Assert
+        assertTrue(entityManagerFactory.getCache().contains(User.class, doctor.getId()));
+        assertNotNull(secondLevelCacheManager.getCache(SecondLevelCacheConfig.USERS_REGION));
+    }
+
+    @Test
+    void testUpdate_ReplacesCachedUser() {
+        // Arrange
+        User cached = userRepository.findById(doctor.getId()).orElseThrow();
+        cached.setName("Dr. Renamed");
+
+        // Act
+        userRepository.save(cached);
+
+        // Assert
+        assertEquals("Dr. Renamed", userRepository.findById(doctor.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testBulkUpdate_EvictsCachedWellnessService() {
+        // Arrange
+        WellnessService yoga = new WellnessService();
+        yoga.setName("Yoga");
+        yoga.setCategory(WellnessService.ServiceCategory.YOGA);
+        yoga.setDurationMinutes(60);
+        yoga.setPrice(new BigDecimal("20.00"));
+        yoga.setMaxParticipants(10);
+        Long yogaId = wellnessServiceRepository.save(yoga).getId();
+        wellnessServiceRepository.findById(yogaId);
+
+        // Act
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> wellnessServiceRepository.addParticipants(yogaId, 3));
+
+        // Assert
+        assertEquals(3, wellnessServiceRepository.findById(yogaId).orElseThrow().getCurrentParticipants());
+    }
+
+    @Test
+    void testOnDoctorsImported_EvictsActiveDoctorsQuery() {
+        // Arrange
+        assertEquals(1, userRepository.findAllActiveDoctors().size());
+        jdbcTemplate.update("INSERT INTO users (name, email, password, role, is_active) VALUES (?, ?, ?, ?, ?)",
+                "Dr. Imported", "imported@example.com", "$2a$10$hash", "DOCTOR", true);
+        // Written behind Hibernate's back, so the cached result is still served
+        assertEquals(1, userRepository.findAllActiveDoctors().size());
+
+        // Act
+        secondLevelCacheConfig.onDoctorsImported(new DoctorsImportedEvent(List.of()));
+
+        // Assert
+        assertEquals(2, userRepository.findAllActiveDoctors().size());
+    }
+}
@@ -0,0 +1,115 @@
+package com.doctorpat.datasource;
+
+import com.doctorpat.config.ReadReplicaConfig;
+import com.doctorpat.entity.User;
+import com.doctorpat.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two in-memory databases stand in for the primary and the replica; the replica gets the
+// primary's schema copied over and a differently named copy of the row, so reads show where they ran
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary",
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=jdbc:h2:mem:routing_replica"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+@Import(ReadReplicaConfig.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private Long doctorId;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP ALL OBJECTS");
+        primary.queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+
+        doctorId = userRepository.save(new User("Dr. Primary", "doctor@example.com", "$2a$10$hash", User.UserRole.DOCTOR)).getId();
+        replica.update("INSERT INTO users (id, name, email, password, role, is_active) VALUES (?, ?, ?, ?, ?, ?)",
+                doctorId, "Dr. Replica", "doctor@example.com", "$2a$10$hash", "DOCTOR", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingDataSource.unpin();
+        primary.update("DELETE FROM users");
+    }
+
+    @Test
+    void testReadOnlyTransaction_ReadsFromReplica() {
+        // Act
+        User doctor = userRepository.findById(doctorId).orElseThrow();
+
+        // Assert
+        assertEquals("Dr. Replica", doctor.getName());
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM users", Integer.class));
+    }
+
+    @Test
+    void testReadWriteTransaction_ReadsFromPrimary() {
+        // Act
+        User doctor = new TransactionTemplate(transactionManager).execute(
+                status -> userRepository.findById(doctorId).orElseThrow());
+
+        // Assert
+        assertEquals("Dr. Primary", doctor.getName());
+    }
+
+    @Test
+    void testPinnedThread_ReadOnlyTransactionReadsFromPrimary() {
+        // Arrange
+        ReadWriteRoutingDataSource.pinToPrimary();
+
+        // Act
+        User doctor = userRepository.findById(doctorId).orElseThrow();
+
+        // Assert
+        assertEquals("Dr. Primary", doctor.getName());
+    }
+
+    @Test
+    void testDerivedCountQuery_ReadsFromReplica() {
+        // Arrange
+        replica.update("INSERT INTO users (id, name, email, password, role, is_active) VALUES (?, ?, ?, ?, ?, ?)",
+                doctorId + 1, "Dr. Lagging", "lagging@example.com", "$2a$10$hash", "DOCTOR", true);
+
+        // Act & Assert
+        assertEquals(2L, userRepository.countByRole(User.UserRole.DOCTOR));
+    }
+}
@@ -0,0 +1,93 @@
+package com.doctorpat.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private RecentWriters recentWriters;
+    private ReadYourWritesFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        recentWriters = new RecentWriters(Duration.ofSeconds(5), nanos::get);
+        filter = new ReadYourWritesFilter(recentWriters);
+        // Every read below runs as if inside a read-only transaction
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testDoFilter_ReadsOfOtherUsersGoToReplica() throws Exception {
+        // Act
+        ReadWriteRoutingDataSource.Route route = routeOf("GET", "ann@example.com");
+
+        // Assert
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, route);
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, ReadWriteRoutingDataSource.currentRoute());
+    }
+
+    @Test
+    void testDoFilter_WritesRunOnPrimary() throws Exception {
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routeOf("POST", "ann@example.com"));
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routeOf("DELETE", null));
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, ReadWriteRoutingDataSource.currentRoute());
+    }
+
+    @Test
+    void testDoFilter_WriterReadsFromPrimaryUntilStickinessExpires() throws Exception {
+        // Arrange
+        routeOf("PUT", "ann@example.com");
+
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routeOf("GET", "ann@example.com"));
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routeOf("GET", "bob@example.com"));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routeOf("GET", "ann@example.com"));
+    }
+
+    @Test
+    void testDoFilter_UserRecordedOutsideTheFilterReadsFromPrimary() throws Exception {
+        // Arrange: registration is anonymous, so AuthService records the new user itself
+        recentWriters.record("new@example.com");
+
+        // Act & Assert
+        assertEquals(ReadWriteRoutingDataSource.Route.PRIMARY, routeOf("GET", "new@example.com"));
+        assertEquals(ReadWriteRoutingDataSource.Route.REPLICA, routeOf("GET", "ann@example.com"));
+    }
+
+    private ReadWriteRoutingDataSource.Route routeOf(String method, String user) throws Exception {
+        if (user != null) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(user, null, AuthorityUtils.NO_AUTHORITIES));
+        } else {
+            SecurityContextHolder.clearContext();
+        }
+        AtomicReference<ReadWriteRoutingDataSource.Route> route = new AtomicReference<>();
+        filter.doFilter(new MockHttpServletRequest(method, "/users/1"), new MockHttpServletResponse(),
+                (request, response) -> route.set(ReadWriteRoutingDataSource.currentRoute()));
+        return route.get();
+    }
+}
@@ -0,0 +1,128 @@
+package com.doctorpat.loadtest;
+
+import com.doctorpat.repository.SpecializationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+class LoadTestDataGeneratorTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SpecializationRepository specializationRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // The generator only runs on an empty database; other tests share this one
+        deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+    }
+
+    private void deleteAll() {
+        for (String table : List.of("payments", "appointments", "doctor_specializations", "users",
+                "specializations", "wellness_services")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    void testRun_GeneratesRequestedPopulation() {
+        // Act
+        generator(7L).run(new DefaultApplicationArguments());
+
+        // Assert
+        assertEquals(1, count("SELECT COUNT(*) FROM users WHERE role = 'ADMIN'"));
+        assertEquals(4, count("SELECT COUNT(*) FROM users WHERE role = 'DOCTOR'"));
+        assertEquals(30, count("SELECT COUNT(*) FROM users WHERE role = 'PATIENT'"));
+        assertEquals(100, count("SELECT COUNT(*) FROM appointments"));
+        assertEquals(12, count("SELECT COUNT(*) FROM wellness_services"));
+        assertTrue(count("SELECT COUNT(*) FROM doctor_specializations") >= 4);
+        assertEquals(1, count("SELECT COUNT(*) FROM users WHERE email = 'patient30@loadtest.local'"));
+
+        // Every payment belongs to a paid appointment of the same patient and doctor
+        assertTrue(count("SELECT COUNT(*) FROM payments") > 0);
+        assertEquals(count("SELECT COUNT(*) FROM payments"), count("SELECT COUNT(*) FROM payments p " +
+                "JOIN appointments a ON a.id = p.appointment_id AND a.patient_id = p.patient_id " +
+                "AND a.doctor_id = p.doctor_id WHERE a.payment_status = 'PAID' AND a.status = 'COMPLETED'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM appointments WHERE appointment_date >= DATE '2025-06-01' " +
+                "AND status NOT IN ('SCHEDULED', 'CONFIRMED')"));
+    }
+
+    @Test
+    void testRun_SameSeedGivesSameData() {
+        // Arrange
+        generator(7L).run(new DefaultApplicationArguments());
+        List<Map<String, Object>> first = appointments();
+        deleteAll();
+
+        // Act
+        generator(7L).run(new DefaultApplicationArguments());
+
+        // Assert
+        assertEquals(first, appointments());
+    }
+
+    @Test
+    void testRun_SkipsWhenUsersExist() {
+        // Arrange
+        generator(7L).run(new DefaultApplicationArguments());
+
+        // Act
+        generator(8L).run(new DefaultApplicationArguments());
+
+        // Assert
+        assertEquals(35, count("SELECT COUNT(*) FROM users"));
+        assertEquals(100, count("SELECT COUNT(*) FROM appointments"));
+    }
+
+    private LoadTestDataGenerator generator(long seed) {
+        // Batches of 8 so every table spans several batches
+        return new LoadTestDataGenerator(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new BCryptPasswordEncoder(4), specializationRepository, seed, "2025-06-01", 4, 30, 100, 0.6, 12,
+                "LoadTest123", 8);
+    }
+
+    // Generated columns only, so runs can be compared regardless of the ids the database handed out
+    private List<Map<String, Object>> appointments() {
+        return jdbcTemplate.queryForList("SELECT p.email AS patient, d.email AS doctor, a.appointment_date, " +
+                "a.appointment_time, a.status, a.payment_status FROM appointments a " +
+                "JOIN users p ON p.id = a.patient_id JOIN users d ON d.id = a.doctor_id ORDER BY a.id");
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
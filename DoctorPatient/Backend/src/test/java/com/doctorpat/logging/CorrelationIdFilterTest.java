@@ -0,0 +1,73 @@
+package com.doctorpat.logging;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    void testDoFilter_KeepsCallerRequestId() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        request.addHeader(CorrelationIdFilter.HEADER, "lb-7f3a.42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        String logged = requestIdSeenBy(request, response);
+
+        // Assert
+        assertEquals("lb-7f3a.42", logged);
+        assertEquals("lb-7f3a.42", response.getHeader(CorrelationIdFilter.HEADER));
+        assertNull(MDC.get(CorrelationIdFilter.MDC_KEY));
+    }
+
+    @Test
+    void testDoFilter_ReplacesMissingOrUnsafeRequestId() throws Exception {
+        // Arrange
+        MockHttpServletRequest forged = new MockHttpServletRequest("GET", "/users/1");
+        forged.addHeader(CorrelationIdFilter.HEADER, "abc\n{\"level\":\"ERROR\"}");
+        MockHttpServletResponse forgedResponse = new MockHttpServletResponse();
+        MockHttpServletResponse plainResponse = new MockHttpServletResponse();
+
+        // Act
+        String forgedId = requestIdSeenBy(forged, forgedResponse);
+        String plainId = requestIdSeenBy(new MockHttpServletRequest("GET", "/users/1"), plainResponse);
+
+        // Assert
+        assertTrue(forgedId.matches("[0-9a-f]{16}"));
+        assertTrue(plainId.matches("[0-9a-f]{16}"));
+        assertNotEquals(forgedId, plainId);
+        assertEquals(plainId, plainResponse.getHeader(CorrelationIdFilter.HEADER));
+    }
+
+    @Test
+    void testDecorate_RunsTaskWithSubmitterRequestId() {
+        // Arrange
+        MdcTaskDecorator decorator = new MdcTaskDecorator();
+        AtomicReference<String> seen = new AtomicReference<>();
+        MDC.put(CorrelationIdFilter.MDC_KEY, "req-1");
+        Runnable task = decorator.decorate(() -> seen.set(MDC.get(CorrelationIdFilter.MDC_KEY)));
+        MDC.clear();
+
+        // Act
+        task.run();
+
+        // Assert
+        assertEquals("req-1", seen.get());
+        assertNull(MDC.get(CorrelationIdFilter.MDC_KEY));
+    }
+
+    private String requestIdSeenBy(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.doFilter(request, response, (req, res) -> seen.set(MDC.get(CorrelationIdFilter.MDC_KEY)));
+        return seen.get();
+    }
+}
@@ -0,0 +1,66 @@
+package com.doctorpat.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.DEBUG);
+        filter = new SamplingTurboFilter();
+        filter.setLoggers("org.hibernate.SQL, com.doctorpat");
+        filter.setLevel("DEBUG");
+        filter.setOneIn(10);
+        filter.start();
+    }
+
+    @Test
+    void testDecide_KeepsAboutOneInNOfSampledDebugEvents() {
+        // Arrange
+        Logger sql = context.getLogger("org.hibernate.SQL");
+
+        // Act
+        int kept = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (decide(sql, Level.DEBUG) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+
+        // Assert
+        assertTrue(kept > 800 && kept < 1200, "kept " + kept);
+    }
+
+    @Test
+    void testDecide_LeavesOtherEventsAlone() {
+        // Arrange
+        Logger service = context.getLogger("com.doctorpat.service.PaymentGatewayService");
+        Logger similarName = context.getLogger("com.doctorpatient.Other");
+        Logger security = context.getLogger("org.springframework.security");
+        context.getLogger("com.doctorpat").setLevel(Level.INFO);
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(service, Level.WARN));
+            assertEquals(FilterReply.NEUTRAL, decide(service, Level.DEBUG));
+            assertEquals(FilterReply.NEUTRAL, decide(similarName, Level.DEBUG));
+            assertEquals(FilterReply.NEUTRAL, decide(security, Level.DEBUG));
+            assertEquals(FilterReply.NEUTRAL,
+                    filter.decide(null, context.getLogger("org.hibernate.SQL"), Level.DEBUG, null, null, null));
+        }
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "select 1", null, null);
+    }
+}
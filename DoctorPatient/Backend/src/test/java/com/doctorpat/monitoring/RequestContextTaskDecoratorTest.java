@@ -0,0 +1,99 @@
+package com.doctorpat.monitoring;
+
+import com.doctorpat.datasource.ReadWriteRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestContextTaskDecoratorTest {
+
+    private final ExecutorService pool = Executors.newSingleThreadExecutor();
+    private final RequestContextTaskDecorator decorator = new RequestContextTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        RequestSqlStats.clear();
+        ReadWriteRoutingDataSource.unpin();
+    }
+
+    @Test
+    void testDecorate_CarriesPinAndSqlStatsToPoolThread() throws Exception {
+        // Arrange
+        RequestSqlStats requestStats = RequestSqlStats.start();
+        ReadWriteRoutingDataSource.pinToPrimary();
+        AtomicBoolean pinnedInTask = new AtomicBoolean();
+        AtomicReference<RequestSqlStats> statsInTask = new AtomicReference<>();
+        Runnable task = decorator.decorate(() -> {
+            pinnedInTask.set(ReadWriteRoutingDataSource.isPinnedToPrimary());
+            statsInTask.set(RequestSqlStats.current());
+            execute("select count(*) from appointments a where a.doctor_id = ?");
+            execute("select count(*) from appointments a where a.doctor_id = ?");
+        });
+
+        // Act
+        pool.submit(task).get(5, TimeUnit.SECONDS);
+        AtomicBoolean pinnedAfter = new AtomicBoolean(true);
+        AtomicReference<RequestSqlStats> statsAfter = new AtomicReference<>();
+        pool.submit(() -> {
+            pinnedAfter.set(ReadWriteRoutingDataSource.isPinnedToPrimary());
+            statsAfter.set(RequestSqlStats.current());
+        }).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(pinnedInTask.get());
+        assertNotNull(statsInTask.get());
+        assertNotSame(requestStats, statsInTask.get());
+        assertEquals(2, requestStats.getStatements());
+        assertEquals(2, requestStats.topShapes(1).get(0).getCount());
+        assertFalse(pinnedAfter.get());
+        assertNull(statsAfter.get());
+    }
+
+    @Test
+    void testDecorate_TaskRunOnRequestThreadKeepsRequestContext() {
+        // Arrange: a full pool runs the section on the submitting thread
+        RequestSqlStats requestStats = RequestSqlStats.start();
+        ReadWriteRoutingDataSource.pinToPrimary();
+        Runnable task = decorator.decorate(() -> execute("select 1"));
+
+        // Act
+        task.run();
+
+        // Assert
+        assertSame(requestStats, RequestSqlStats.current());
+        assertTrue(ReadWriteRoutingDataSource.isPinnedToPrimary());
+        assertEquals(1, requestStats.getStatements());
+    }
+
+    @Test
+    void testDecorate_NoRequestContextLeavesTaskWithout() throws Exception {
+        // Arrange
+        AtomicBoolean pinnedInTask = new AtomicBoolean(true);
+        AtomicReference<RequestSqlStats> statsInTask = new AtomicReference<>();
+        Runnable task = decorator.decorate(() -> {
+            pinnedInTask.set(ReadWriteRoutingDataSource.isPinnedToPrimary());
+            statsInTask.set(RequestSqlStats.current());
+        });
+
+        // Act
+        pool.submit(task).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertFalse(pinnedInTask.get());
+        assertNull(statsInTask.get());
+    }
+
+    private static void execute(String sql) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        stats.queryStarted();
+        stats.queryFinished(sql);
+    }
+}
@@ -0,0 +1,79 @@
+package com.doctorpat.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlBudgetFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlBudgetFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new SqlBudgetFilter(meterRegistry, true, 3, 2);
+        request = new MockHttpServletRequest("GET", "/api/appointments");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/appointments");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void testDoFilter_AddsServerTimingAndRecordsStatements() throws Exception {
+        // Arrange
+        FilterChain chain = (req, res) -> {
+            execute("select a.id from appointments a where a.patient_id = ?");
+            execute("select u.id from users u where u.id in (?, ?, ?)");
+        };
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertTrue(response.getHeader(SqlBudgetFilter.SERVER_TIMING).startsWith("db;dur="));
+        assertTrue(response.getHeader(SqlBudgetFilter.SERVER_TIMING).contains("desc=\"2 statements\""));
+        assertEquals(2.0, meterRegistry.get("http.server.requests.sql.statements").tag("uri", "/appointments")
+                .summary().totalAmount());
+        assertTrue(meterRegistry.find("http.server.requests.sql.budget.exceeded").counters().isEmpty());
+        assertNull(RequestSqlStats.current());
+    }
+
+    @Test
+    void testDoFilter_CountsRequestsOverBudget() throws Exception {
+        // Arrange
+        FilterChain chain = (req, res) -> {
+            for (long id = 1; id <= 5; id++) {
+                execute("select p.id from payments p where p.appointment_id = " + id);
+            }
+        };
+
+        // Act
+        filter.doFilter(request, response, chain);
+
+        // Assert
+        assertEquals(1.0, meterRegistry.get("http.server.requests.sql.budget.exceeded").counter().count());
+    }
+
+    @Test
+    void testShape_CollapsesLiteralsAndParameterLists() {
+        // Act & Assert
+        assertEquals("select * from users where id in (?...) and role = ? and name = ?",
+                RequestSqlStats.shape("select *\n  from users where id in (?, ?,?) and role = 'DOCTOR' and name = 'O''Brien'"));
+        assertEquals(RequestSqlStats.shape("select * from payments where appointment_id = 1"),
+                RequestSqlStats.shape("select * from payments where appointment_id = 42"));
+    }
+
+    private static void execute(String sql) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        stats.queryStarted();
+        stats.queryFinished(sql);
+    }
+}
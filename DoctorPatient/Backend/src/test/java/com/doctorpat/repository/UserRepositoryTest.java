@@ -0,0 +1,79 @@
+package com.doctorpat.repository;
+
+import com.doctorpat.dto.PatientSummary;
+import com.doctorpat.dto.UserSummary;
+import com.doctorpat.entity.User;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpatest")
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        User patient = user("Zoe Patient", "zoe@example.com", User.UserRole.PATIENT);
+        patient.setDateOfBirth("1990-04-12");
+        patient.setGender(User.Gender.FEMALE);
+        patient.setAddress("12 Long Street");
+        entityManager.persist(patient);
+
+        User inactive = user("Amy Former", "amy@example.com", User.UserRole.PATIENT);
+        inactive.setIsActive(false);
+        entityManager.persist(inactive);
+
+        User doctor = user("Dr. Smith", "smith@example.com", User.UserRole.DOCTOR);
+        doctor.setSpecialization("Cardiology");
+        entityManager.persist(doctor);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testFindActivePatientSummaries_ReturnsOnlyActivePatients() {
+        // Act
+        List<PatientSummary> patients = userRepository.findActivePatientSummaries();
+
+        // Assert
+        assertEquals(1, patients.size());
+        assertEquals("Zoe Patient", patients.get(0).getName());
+        assertEquals("1990-04-12", patients.get(0).getDateOfBirth());
+        assertEquals(User.Gender.FEMALE, patients.get(0).getGender());
+    }
+
+    @Test
+    void testSummaries_DoNotLoadUserEntities() {
+        // Act
+        List<UserSummary> all = userRepository.findAllSummaries();
+        List<UserSummary> doctors = userRepository.findSummariesByRole(User.UserRole.DOCTOR);
+
+        // Assert
+        assertEquals(List.of("Zoe Patient", "Amy Former", "Dr. Smith"), all.stream().map(UserSummary::getName).toList());
+        assertEquals(1, doctors.size());
+        assertEquals(User.UserRole.DOCTOR, doctors.get(0).getRole());
+        assertFalse(all.get(1).getIsActive());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    private static User user(String name, String email, User.UserRole role) {
+        return new User(name, email, "$2a$10$hash", role);
+    }
+}
@@ -0,0 +1,92 @@
+package com.doctorpat.repository;
+
+import com.doctorpat.entity.WellnessEnrollment;
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.service.WellnessEnrollmentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against in-memory H2 without a test transaction, so a failed enrollment rolls back for real
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+class WellnessEnrollmentRepositoryTest {
+
+    @Autowired
+    private WellnessEnrollmentRepository wellnessEnrollmentRepository;
+
+    @Autowired
+    private WellnessServiceRepository wellnessServiceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void testSave_RejectsSecondEnrollmentOfSamePatient() {
+        // Arrange
+        WellnessService yoga = wellnessServiceRepository.save(service("Yoga"));
+        wellnessEnrollmentRepository.save(new WellnessEnrollment(yoga.getId(), 7L));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class,
+                () -> wellnessEnrollmentRepository.save(new WellnessEnrollment(yoga.getId(), 7L)));
+        assertDoesNotThrow(() -> wellnessEnrollmentRepository.save(new WellnessEnrollment(yoga.getId(), 8L)));
+    }
+
+    @Test
+    void testDeleteEnrollment_OnlyDeletesThePatientsOwnRow() {
+        // Arrange
+        WellnessService pilates = wellnessServiceRepository.save(service("Pilates"));
+        wellnessEnrollmentRepository.save(new WellnessEnrollment(pilates.getId(), 7L));
+
+        // Act & Assert
+        assertEquals(0, wellnessEnrollmentRepository.deleteEnrollment(pilates.getId(), 8L));
+        assertEquals(1, wellnessEnrollmentRepository.deleteEnrollment(pilates.getId(), 7L));
+        assertEquals(0, wellnessEnrollmentRepository.deleteEnrollment(pilates.getId(), 7L));
+    }
+
+    @Test
+    void testEnroll_RepeatedEnrollmentRollsBackItsSeat() {
+        // Arrange
+        WellnessService meditation = wellnessServiceRepository.save(service("Meditation"));
+        WellnessEnrollmentService enrollmentService = new WellnessEnrollmentService(wellnessServiceRepository,
+                wellnessEnrollmentRepository, eventPublisher, transactionTemplate, false, 8, 20);
+
+        // Act
+        boolean first = enrollmentService.enroll(meditation.getId(), 7L);
+        boolean repeated = enrollmentService.enroll(meditation.getId(), 7L);
+        boolean unenrolledOther = enrollmentService.unenroll(meditation.getId(), 8L);
+
+        // Assert
+        assertTrue(first);
+        assertFalse(repeated);
+        assertFalse(unenrolledOther);
+        assertEquals(1, wellnessServiceRepository.findById(meditation.getId()).orElseThrow().getCurrentParticipants());
+    }
+
+    private static WellnessService service(String name) {
+        WellnessService service = new WellnessService();
+        service.setName(name);
+        service.setCategory(WellnessService.ServiceCategory.FITNESS);
+        service.setPrice(new BigDecimal("20.00"));
+        service.setDurationMinutes(60);
+        service.setMaxParticipants(10);
+        return service;
+    }
+}
@@ -0,0 +1,112 @@
+package com.doctorpat.repository;
+
+import com.doctorpat.entity.WellnessService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs against in-memory H2 without a test transaction, so each thread commits its own UPDATE
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+class WellnessServiceRepositoryTest {
+
+    @Autowired
+    private WellnessServiceRepository wellnessServiceRepository;
+
+    @Test
+    void testAddParticipants_ConcurrentEnrollmentsNeverOverbook() throws Exception {
+        // Arrange
+        WellnessService yoga = wellnessServiceRepository.save(service("Flash Sale Yoga", 50));
+        ExecutorService patients = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            // Act
+            List<Future<Integer>> attempts = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                attempts.add(patients.submit(() -> {
+                    start.await();
+                    return wellnessServiceRepository.addParticipants(yoga.getId(), 1);
+                }));
+            }
+            start.countDown();
+
+            int enrolled = 0;
+            for (Future<Integer> attempt : attempts) {
+                enrolled += attempt.get(30, TimeUnit.SECONDS);
+            }
+
+            // Assert
+            assertEquals(50, enrolled);
+            assertEquals(50, wellnessServiceRepository.findById(yoga.getId()).orElseThrow().getCurrentParticipants());
+        } finally {
+            patients.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAddParticipants_RejectsBatchThatDoesNotFitAndInactiveService() {
+        // Arrange
+        WellnessService pilates = wellnessServiceRepository.save(service("Pilates", 10));
+        WellnessService retired = service("Retired Class", 10);
+        retired.setIsActive(false);
+        retired = wellnessServiceRepository.save(retired);
+
+        // Act & Assert
+        assertEquals(1, wellnessServiceRepository.addParticipants(pilates.getId(), 8));
+        assertEquals(0, wellnessServiceRepository.addParticipants(pilates.getId(), 3));
+        assertEquals(0, wellnessServiceRepository.addParticipants(retired.getId(), 1));
+        assertEquals(8, wellnessServiceRepository.findById(pilates.getId()).orElseThrow().getCurrentParticipants());
+    }
+
+    @Test
+    void testRemoveParticipant_StopsAtZero() {
+        // Arrange
+        WellnessService meditation = wellnessServiceRepository.save(service("Meditation", 10));
+        wellnessServiceRepository.addParticipants(meditation.getId(), 1);
+
+        // Act & Assert
+        assertEquals(1, wellnessServiceRepository.removeParticipant(meditation.getId()));
+        assertEquals(0, wellnessServiceRepository.removeParticipant(meditation.getId()));
+        assertEquals(0, wellnessServiceRepository.findById(meditation.getId()).orElseThrow().getCurrentParticipants());
+    }
+
+    @Test
+    void testRemoveParticipants_RefusesToGoBelowZero() {
+        // Arrange
+        WellnessService yoga = wellnessServiceRepository.save(service("Yoga", 10));
+        wellnessServiceRepository.addParticipants(yoga.getId(), 5);
+
+        // Act & Assert
+        assertEquals(0, wellnessServiceRepository.removeParticipants(yoga.getId(), 6));
+        assertEquals(1, wellnessServiceRepository.removeParticipants(yoga.getId(), 4));
+        assertEquals(1, wellnessServiceRepository.findById(yoga.getId()).orElseThrow().getCurrentParticipants());
+    }
+
+    private static WellnessService service(String name, int maxParticipants) {
+        WellnessService service = new WellnessService();
+        service.setName(name);
+        service.setCategory(WellnessService.ServiceCategory.FITNESS);
+        service.setPrice(new BigDecimal("20.00"));
+        service.setDurationMinutes(60);
+        service.setMaxParticipants(maxParticipants);
+        return service;
+    }
+}
@@ -4,6 +4,7 @@ import com.doctorpat.dto.AuthRequest;
 import com.doctorpat.dto.AuthResponse;
 import com.doctorpat.dto.UserRegistrationRequest;
 import com.doctorpat.entity.User;
+import com.doctorpat.event.DoctorDirectoryChangedEvent;
 import com.doctorpat.repository.UserRepository;
 import com.doctorpat.security.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -21,6 +23,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +44,12 @@ class AuthServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private SpecializationService specializationService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -198,6 +207,8 @@ class AuthServiceTest {
         verify(passwordEncoder).encode("password123");
         verify(userRepository).save(any(User.class));
         verify(jwtUtil, times(2)).generateToken("jane@example.com", "DOCTOR");
+        verify(specializationService).assign(any(User.class), eq("Cardiology"));
+        verify(eventPublisher).publishEvent(any(DoctorDirectoryChangedEvent.class));
     }
 
     @Test
@@ -0,0 +1,180 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.AutocompleteSuggestion;
+import com.doctorpat.entity.User;
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.DoctorDirectoryChangedEvent;
+import com.doctorpat.event.DoctorsImportedEvent;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import com.doctorpat.repository.SpecializationRepository;
+import com.doctorpat.repository.UserRepository;
+import com.doctorpat.repository.WellnessServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompleteServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SpecializationRepository specializationRepository;
+
+    @Mock
+    private WellnessServiceRepository wellnessServiceRepository;
+
+    @InjectMocks
+    private AutocompleteService autocompleteService;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllActiveDoctors()).thenReturn(List.of(
+                doctor(3L, "Dr. Sarah Connor", 12),
+                doctor(4L, "Dr. José Cardenas", 4)));
+        when(specializationRepository.countActiveDoctorsBySpecialization()).thenReturn(List.of(
+                new Object[]{1L, "Cardiology", 2L},
+                new Object[]{2L, "Dermatology", 1L}));
+        when(wellnessServiceRepository.findByIsActiveTrue()).thenReturn(List.of(
+                service(7L, "Cardio Kickboxing", 20, true)));
+
+        autocompleteService.rebuild();
+    }
+
+    @Test
+    void testSuggest_MatchesStartOfAnyWordIgnoringCaseAndAccents() {
+        // Act
+        List<AutocompleteSuggestion> suggestions = autocompleteService.suggest("jose", 10);
+
+        // Assert
+        assertEquals(1, suggestions.size());
+        assertEquals(AutocompleteSuggestion.Type.DOCTOR, suggestions.get(0).getType());
+        assertEquals(4L, suggestions.get(0).getId());
+        assertEquals("Dr. José Cardenas", suggestions.get(0).getText());
+    }
+
+    @Test
+    void testSuggest_RanksLeadingMatchesFirstThenByWeight() {
+        // Act
+        List<String> texts = autocompleteService.suggest("card", 10).stream()
+                .map(AutocompleteSuggestion::getText)
+                .toList();
+
+        // Assert
+        assertEquals(List.of("Cardio Kickboxing", "Cardiology", "Dr. José Cardenas"), texts);
+    }
+
+    @Test
+    void testSuggest_ShortPrefixesRankLikeLongerOnes() {
+        // Act
+        List<String> texts = autocompleteService.suggest("Ca", 10).stream()
+                .map(AutocompleteSuggestion::getText)
+                .toList();
+
+        // Assert
+        assertEquals(List.of("Cardio Kickboxing", "Cardiology", "Dr. José Cardenas"), texts);
+        assertEquals(List.of("Cardio Kickboxing", "Cardiology"), autocompleteService.suggest("c", 2).stream()
+                .map(AutocompleteSuggestion::getText)
+                .toList());
+    }
+
+    @Test
+    void testSuggest_LimitsResultsAndIgnoresBlankQuery() {
+        // Act & Assert
+        assertEquals(1, autocompleteService.suggest("c", 1).size());
+        assertTrue(autocompleteService.suggest("  ", 10).isEmpty());
+        assertTrue(autocompleteService.suggest("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void testOnWellnessServiceChanged_AddsAndRemovesService() {
+        // Act
+        autocompleteService.onWellnessServiceChanged(new WellnessServiceChangedEvent(service(8L, "Yoga Flow", 0, true)));
+        autocompleteService.refreshChanges();
+        List<AutocompleteSuggestion> added = autocompleteService.suggest("yo", 10);
+        autocompleteService.onWellnessServiceChanged(new WellnessServiceChangedEvent(service(7L, "Cardio Kickboxing", 20, false)));
+        autocompleteService.refreshChanges();
+        List<AutocompleteSuggestion> removed = autocompleteService.suggest("kick", 10);
+
+        // Assert
+        assertEquals(8L, added.get(0).getId());
+        assertTrue(removed.isEmpty());
+    }
+
+    @Test
+    void testOnDoctorDirectoryChanged_RemovesDeactivatedDoctor() {
+        // Arrange
+        User deactivated = doctor(3L, "Dr. Sarah Connor", 12);
+        deactivated.setIsActive(false);
+        when(userRepository.findAllById(List.of(3L))).thenReturn(List.of(deactivated));
+
+        // Act
+        autocompleteService.onDoctorDirectoryChanged(new DoctorDirectoryChangedEvent(3L, "Cardiology", "Cardiology"));
+        List<AutocompleteSuggestion> beforeTick = autocompleteService.suggest("sarah", 10);
+        autocompleteService.refreshChanges();
+
+        // Assert
+        assertEquals(1, beforeTick.size());
+        assertTrue(autocompleteService.suggest("sarah", 10).isEmpty());
+        verify(specializationRepository, times(2)).countActiveDoctorsBySpecialization();
+    }
+
+    @Test
+    void testRefreshChanges_SkipsRebuildWhenNoNameChanged() {
+        // Arrange
+        AutocompleteService.PrefixIndex index = autocompleteService.getIndex();
+        when(userRepository.findAllById(List.of(3L))).thenReturn(List.of(doctor(3L, "Dr. Sarah Connor", 13)));
+
+        // Act: a new participant count and a doctor edit that keeps name and specialization
+        autocompleteService.onWellnessServiceChanged(new WellnessServiceChangedEvent(service(7L, "Cardio Kickboxing", 21, true)));
+        autocompleteService.onDoctorDirectoryChanged(new DoctorDirectoryChangedEvent(3L, "Cardiology", "Cardiology"));
+        autocompleteService.refreshChanges();
+
+        // Assert
+        assertSame(index, autocompleteService.getIndex());
+        verify(specializationRepository, times(1)).countActiveDoctorsBySpecialization();
+    }
+
+    @Test
+    void testRefreshChanges_CoalescesEventsIntoOneRebuild() {
+        // Act
+        autocompleteService.onWellnessServiceChanged(new WellnessServiceChangedEvent(service(8L, "Yoga", 0, true)));
+        autocompleteService.onWellnessServiceChanged(new WellnessServiceChangedEvent(service(8L, "Yoga Flow", 0, true)));
+        autocompleteService.onDoctorsImported(new DoctorsImportedEvent(List.of(5L)));
+        autocompleteService.refreshChanges();
+        autocompleteService.refreshChanges();
+
+        // Assert: the import reloads everything from the repositories and drops the queued service
+        verify(userRepository, times(2)).findAllActiveDoctors();
+        verify(wellnessServiceRepository, times(2)).findByIsActiveTrue();
+        assertTrue(autocompleteService.suggest("yoga", 10).isEmpty());
+    }
+
+    private static User doctor(Long id, String name, int yearsOfExperience) {
+        User doctor = new User();
+        doctor.setId(id);
+        doctor.setName(name);
+        doctor.setRole(User.UserRole.DOCTOR);
+        doctor.setYearsOfExperience(yearsOfExperience);
+        doctor.setIsActive(true);
+        return doctor;
+    }
+
+    private static WellnessService service(Long id, String name, int participants, boolean active) {
+        WellnessService service = new WellnessService();
+        service.setId(id);
+        service.setName(name);
+        service.setCurrentParticipants(participants);
+        service.setIsActive(active);
+        return service;
+    }
+}
@@ -0,0 +1,192 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.AdminDashboard;
+import com.doctorpat.dto.DashboardAppointment;
+import com.doctorpat.dto.DashboardPayment;
+import com.doctorpat.dto.DoctorDashboard;
+import com.doctorpat.dto.PatientDashboard;
+import com.doctorpat.entity.Appointment;
+import com.doctorpat.entity.Payment;
+import com.doctorpat.entity.User;
+import com.doctorpat.repository.AppointmentRepository;
+import com.doctorpat.repository.PaymentRepository;
+import com.doctorpat.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Sections run on their own threads, so the data has to be committed rather than left in a test transaction
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+class DashboardServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+    private DashboardService dashboardService;
+    private User doctor;
+    private User patient;
+    private Appointment todayNine;
+    private Appointment todayTen;
+    private Appointment tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new DashboardService(userRepository, appointmentRepository, paymentRepository, 5000,
+                new TaskExecutorAdapter(pool));
+
+        doctor = userRepository.save(new User("Dr. Grey", "grey@example.com", "$2a$10$hash", User.UserRole.DOCTOR));
+        patient = userRepository.save(new User("Ann Patient", "ann@example.com", "$2a$10$hash", User.UserRole.PATIENT));
+
+        LocalDate today = LocalDate.now();
+        todayTen = appointment(today, 10, Appointment.AppointmentStatus.COMPLETED, Appointment.PaymentStatus.PAID);
+        todayNine = appointment(today, 9, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        tomorrow = appointment(today.plusDays(1), 9, Appointment.AppointmentStatus.CONFIRMED,
+                Appointment.PaymentStatus.PENDING);
+        appointment(today.plusDays(2), 9, Appointment.AppointmentStatus.CANCELLED, Appointment.PaymentStatus.PENDING);
+        Appointment yesterday = appointment(today.minusDays(1), 9, Appointment.AppointmentStatus.COMPLETED,
+                Appointment.PaymentStatus.PENDING);
+
+        payment(todayTen, "100.00", Payment.PaymentStatus.COMPLETED);
+        payment(yesterday, "40.00", Payment.PaymentStatus.FAILED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM appointments");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void testGetDoctorDashboard_CombinesAllSections() {
+        // Act
+        DoctorDashboard dashboard = dashboardService.getDoctorDashboard("grey@example.com");
+
+        // Assert
+        assertEquals(doctor.getId(), dashboard.getProfile().getId());
+        assertEquals(List.of(todayNine.getId(), todayTen.getId()),
+                dashboard.getTodaysAppointments().stream().map(DashboardAppointment::getId).toList());
+        assertEquals("Ann Patient", dashboard.getTodaysAppointments().get(0).getCounterpartName());
+        assertEquals(1L, dashboard.getUpcomingAppointments());
+        assertEquals(3L, dashboard.getUnpaidAppointments());
+        assertEquals(0, new BigDecimal("100.00").compareTo(dashboard.getMonthRevenue()));
+        assertTrue(dashboard.getUnavailable().isEmpty());
+    }
+
+    @Test
+    void testGetPatientDashboard_ListsNextAppointmentsAndLatestPayments() {
+        // Act
+        PatientDashboard dashboard = dashboardService.getPatientDashboard("ann@example.com");
+
+        // Assert
+        assertEquals(patient.getId(), dashboard.getProfile().getId());
+        assertEquals(List.of(todayNine.getId(), tomorrow.getId()),
+                dashboard.getUpcomingAppointments().stream().map(DashboardAppointment::getId).toList());
+        assertEquals("Dr. Grey", dashboard.getUpcomingAppointments().get(0).getCounterpartName());
+        assertEquals(3L, dashboard.getUnpaidAppointments());
+        assertEquals(List.of(Payment.PaymentStatus.FAILED, Payment.PaymentStatus.COMPLETED),
+                dashboard.getRecentPayments().stream().map(DashboardPayment::getStatus).toList());
+        assertTrue(dashboard.getUnavailable().isEmpty());
+    }
+
+    @Test
+    void testGetAdminDashboard_CountsEveryStatus() {
+        // Act
+        AdminDashboard dashboard = dashboardService.getAdminDashboard();
+
+        // Assert
+        assertEquals(1L, dashboard.getUsersByRole().get(User.UserRole.DOCTOR));
+        assertEquals(0L, dashboard.getUsersByRole().get(User.UserRole.ADMIN));
+        assertEquals(1L, dashboard.getAppointmentsByStatus().get(Appointment.AppointmentStatus.SCHEDULED));
+        assertEquals(1L, dashboard.getAppointmentsByStatus().get(Appointment.AppointmentStatus.CONFIRMED));
+        assertEquals(1L, dashboard.getAppointmentsByStatus().get(Appointment.AppointmentStatus.CANCELLED));
+        assertEquals(1L, dashboard.getPaymentsByStatus().get(Payment.PaymentStatus.FAILED));
+        assertEquals(0L, dashboard.getPaymentsByStatus().get(Payment.PaymentStatus.REFUNDED));
+        assertEquals(0, new BigDecimal("100.00").compareTo(dashboard.getMonthRevenue()));
+    }
+
+    @Test
+    void testGetPatientDashboard_SlowOrFailingSectionsAreReportedUnavailable() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentRepository slowPayments = mock(PaymentRepository.class);
+        when(slowPayments.findRecentForPatient(eq("ann@example.com"), any())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        AppointmentRepository failingAppointments = mock(AppointmentRepository.class);
+        when(failingAppointments.findUpcomingForPatient(eq("ann@example.com"), any(), any())).thenReturn(List.of(
+                new DashboardAppointment(1L, LocalDate.now(), LocalTime.NOON, Appointment.AppointmentStatus.SCHEDULED,
+                        Appointment.PaymentStatus.PENDING, 100.0, doctor.getId(), "Dr. Grey")));
+        when(failingAppointments.countUnpaidForPatient("ann@example.com"))
+                .thenThrow(new IllegalStateException("Replica down"));
+        DashboardService service = new DashboardService(userRepository, failingAppointments, slowPayments, 300,
+                new TaskExecutorAdapter(pool));
+
+        // Act
+        PatientDashboard dashboard;
+        try {
+            dashboard = service.getPatientDashboard("ann@example.com");
+        } finally {
+            release.countDown();
+        }
+
+        // Assert
+        assertEquals(List.of("unpaidAppointments", "recentPayments"), dashboard.getUnavailable());
+        assertNull(dashboard.getRecentPayments());
+        assertNull(dashboard.getUnpaidAppointments());
+        assertEquals(patient.getId(), dashboard.getProfile().getId());
+        assertEquals(1, dashboard.getUpcomingAppointments().size());
+    }
+
+    private Appointment appointment(LocalDate date, int hour, Appointment.AppointmentStatus status,
+                                    Appointment.PaymentStatus paymentStatus) {
+        Appointment appointment = new Appointment(patient, doctor, date, LocalTime.of(hour, 0));
+        appointment.setStatus(status);
+        appointment.setPaymentStatus(paymentStatus);
+        appointment.setConsultationFee(100.0);
+        return appointmentRepository.save(appointment);
+    }
+
+    private void payment(Appointment appointment, String amount, Payment.PaymentStatus status) {
+        Payment payment = new Payment(appointment, patient, doctor, new BigDecimal(amount),
+                Payment.PaymentMethod.CREDIT_CARD);
+        payment.setStatus(status);
+        paymentRepository.save(payment);
+    }
+}
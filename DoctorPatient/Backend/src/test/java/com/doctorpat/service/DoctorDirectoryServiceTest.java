@@ -0,0 +1,93 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.User;
+import com.doctorpat.event.DoctorDirectoryChangedEvent;
+import com.doctorpat.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorDirectoryServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private DoctorDirectoryService directoryService;
+    private User cardiologist;
+
+    @BeforeEach
+    void setUp() {
+        directoryService = new DoctorDirectoryService(userRepository, 100, 600);
+
+        cardiologist = new User();
+        cardiologist.setId(3L);
+        cardiologist.setRole(User.UserRole.DOCTOR);
+        cardiologist.setSpecialization("Cardiology");
+    }
+
+    @Test
+    void testGetActiveDoctors_ConcurrentMissesShareOneQuery() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(userRepository.findAllActiveDoctors()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(cardiologist);
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        try {
+            // Act
+            List<Future<List<User>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> directoryService.getActiveDoctors()));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            for (Future<List<User>> result : results) {
+                assertEquals(List.of(cardiologist), result.get(5, TimeUnit.SECONDS));
+            }
+            verify(userRepository, times(1)).findAllActiveDoctors();
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testOnDoctorDirectoryChanged_InvalidatesAffectedListings() {
+        // Arrange
+        when(userRepository.findAllActiveDoctors()).thenReturn(List.of(cardiologist));
+        when(userRepository.findDoctorsBySpecialization("cardiology")).thenReturn(List.of(cardiologist));
+        when(userRepository.findDoctorsBySpecialization("dermatology")).thenReturn(List.of());
+        directoryService.getActiveDoctors();
+        directoryService.getDoctorsBySpecialization("Cardiology");
+        directoryService.getDoctorsBySpecialization(" cardiology ");
+        directoryService.getDoctorsBySpecialization("Dermatology");
+
+        // Act
+        directoryService.onDoctorDirectoryChanged(new DoctorDirectoryChangedEvent(3L, "Cardiology", "Cardiology"));
+        directoryService.getActiveDoctors();
+        directoryService.getDoctorsBySpecialization("Cardiology");
+        directoryService.getDoctorsBySpecialization("Dermatology");
+
+        // Assert
+        verify(userRepository, times(2)).findAllActiveDoctors();
+        verify(userRepository, times(2)).findDoctorsBySpecialization("cardiology");
+        verify(userRepository, times(1)).findDoctorsBySpecialization("dermatology");
+    }
+}
@@ -0,0 +1,88 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.PaymentExportRow;
+import com.doctorpat.entity.Payment;
+import com.doctorpat.repository.PaymentRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentExportServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @InjectMocks
+    private PaymentExportService paymentExportService;
+
+    @Test
+    void testWrite_CsvEscapesValuesAndIsGzipped() throws IOException {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        paymentExportService.write(Stream.of(row(1L, null), row(2L, "Card \"declined\", retry")),
+                PaymentExportService.Format.CSV, output);
+
+        // Assert
+        String[] lines = gunzip(output).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,transaction_id,"));
+        assertEquals("1,tx-1,10,20,30,99.50,CREDIT_CARD,COMPLETED,VISA,1234,,,2024-01-15T10:00:00,", lines[1]);
+        assertTrue(lines[2].contains(",\"Card \"\"declined\"\", retry\","));
+    }
+
+    @Test
+    void testWrite_NdjsonWritesOneObjectPerLine() throws IOException {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        paymentExportService.write(Stream.of(row(1L, null), row(2L, null)),
+                PaymentExportService.Format.NDJSON, output);
+
+        // Assert
+        String[] lines = gunzip(output).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(2L, second.get("id").asLong());
+        assertEquals("tx-2", second.get("transactionId").asText());
+        assertEquals("2024-01-15T10:00:00", second.get("createdAt").asText());
+    }
+
+    private static PaymentExportRow row(Long id, String failureReason) {
+        return new PaymentExportRow(id, "tx-" + id, 10L, 20L, 30L, new BigDecimal("99.50"),
+                Payment.PaymentMethod.CREDIT_CARD, Payment.PaymentStatus.COMPLETED, "VISA", "1234",
+                null, failureReason, LocalDateTime.of(2024, 1, 15, 10, 0), null);
+    }
+
+    private static String gunzip(ByteArrayOutputStream output) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
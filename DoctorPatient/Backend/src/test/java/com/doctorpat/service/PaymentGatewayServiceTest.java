@@ -0,0 +1,236 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.Payment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentGatewayServiceTest {
+
+    private PaymentGatewayService gatewayService;
+
+    @AfterEach
+    void tearDown() {
+        if (gatewayService != null) {
+            gatewayService.shutdown();
+        }
+    }
+
+    @Test
+    void testAuthorize_Approved() {
+        // Arrange
+        gatewayService = new PaymentGatewayService(stub(0, 0, 0.0, 0.0, 0.0), 1000, 5, 3, 1000);
+
+        // Act
+        PaymentGatewayResult result = gatewayService.authorize(payment());
+
+        // Assert
+        assertEquals(PaymentGatewayResult.Outcome.APPROVED, result.getOutcome());
+        assertEquals(CircuitBreaker.State.CLOSED, gatewayService.getCircuitState());
+    }
+
+    @Test
+    void testAuthorize_DeclineDoesNotTripCircuit() {
+        // Arrange
+        gatewayService = new PaymentGatewayService(stub(0, 0, 0.0, 0.0, 1.0), 1000, 5, 1, 1000);
+
+        // Act
+        PaymentGatewayResult first = gatewayService.authorize(payment());
+        PaymentGatewayResult second = gatewayService.authorize(payment());
+
+        // Assert
+        assertEquals(PaymentGatewayResult.Outcome.DECLINED, first.getOutcome());
+        assertEquals(PaymentGatewayResult.Outcome.DECLINED, second.getOutcome());
+        assertEquals(CircuitBreaker.State.CLOSED, gatewayService.getCircuitState());
+    }
+
+    @Test
+    void testAuthorize_TimeoutFallsBackToPending() {
+        // Arrange
+        gatewayService = new PaymentGatewayService(stub(2000, 0, 0.0, 0.0, 0.0), 50, 5, 3, 1000);
+
+        // Act
+        long start = System.nanoTime();
+        PaymentGatewayResult result = gatewayService.authorize(payment());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(PaymentGatewayResult.Outcome.PENDING, result.getOutcome());
+        assertTrue(elapsedMs < 1000, "Timed out call took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void testAuthorizeBatch_ReturnsResultsInPaymentOrder() {
+        // Arrange: the default authorizeBatch falls back to one authorize call per payment
+        PaymentGateway byAmountGateway = payment -> payment.getAmount().intValue() == 100
+                ? PaymentGatewayResult.approved("Approved")
+                : PaymentGatewayResult.declined("Card declined");
+        gatewayService = new PaymentGatewayService(byAmountGateway, 1000, 5, 3, 1000);
+
+        // Act
+        List<PaymentGatewayResult> results = gatewayService.authorizeBatch(
+                List.of(payment("200.00"), payment("100.00"), payment("200.00")));
+
+        // Assert
+        assertEquals(List.of(PaymentGatewayResult.Outcome.DECLINED, PaymentGatewayResult.Outcome.APPROVED,
+                        PaymentGatewayResult.Outcome.DECLINED),
+                results.stream().map(PaymentGatewayResult::getOutcome).toList());
+    }
+
+    @Test
+    void testAuthorizeBatch_FailureMarksEveryPaymentPending() {
+        // Arrange
+        PaymentGateway failingGateway = payment -> {
+            throw new PaymentGatewayException("Payment gateway error");
+        };
+        gatewayService = new PaymentGatewayService(failingGateway, 1000, 5, 3, 1000);
+
+        // Act
+        List<PaymentGatewayResult> results = gatewayService.authorizeBatch(List.of(payment(), payment(), payment()));
+
+        // Assert
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getOutcome() == PaymentGatewayResult.Outcome.PENDING));
+        assertEquals(CircuitBreaker.State.CLOSED, gatewayService.getCircuitState());
+    }
+
+    @Test
+    void testCircuit_OpensAfterConsecutiveFailures() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway failingGateway = payment -> {
+            calls.incrementAndGet();
+            throw new PaymentGatewayException("Payment gateway error");
+        };
+        gatewayService = new PaymentGatewayService(failingGateway, 1000, 5, 3, 60000);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            gatewayService.authorize(payment());
+        }
+        PaymentGatewayResult result = gatewayService.authorize(payment());
+
+        // Assert
+        assertEquals(PaymentGatewayResult.Outcome.NOT_SENT, result.getOutcome());
+        assertEquals(CircuitBreaker.State.OPEN, gatewayService.getCircuitState());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void testCircuit_HalfOpenProbeClosesCircuit() throws InterruptedException {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        PaymentGateway recoveringGateway = payment -> {
+            if (calls.incrementAndGet() <= 2) {
+                throw new PaymentGatewayException("Payment gateway error");
+            }
+            return PaymentGatewayResult.approved("Approved");
+        };
+        gatewayService = new PaymentGatewayService(recoveringGateway, 1000, 5, 2, 50);
+        gatewayService.authorize(payment());
+        gatewayService.authorize(payment());
+        assertEquals(CircuitBreaker.State.OPEN, gatewayService.getCircuitState());
+
+        // Act
+        Thread.sleep(100);
+        PaymentGatewayResult result = gatewayService.authorize(payment());
+
+        // Assert
+        assertEquals(PaymentGatewayResult.Outcome.APPROVED, result.getOutcome());
+        assertEquals(CircuitBreaker.State.CLOSED, gatewayService.getCircuitState());
+    }
+
+    @Test
+    void testBulkhead_RejectsCallsOverConcurrencyLimit() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        PaymentGateway blockingGateway = payment -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return PaymentGatewayResult.approved("Approved");
+        };
+        gatewayService = new PaymentGatewayService(blockingGateway, 5000, 2, 3, 1000);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<PaymentGatewayResult> first = callers.submit(() -> gatewayService.authorize(payment()));
+            Future<PaymentGatewayResult> second = callers.submit(() -> gatewayService.authorize(payment()));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Act
+            PaymentGatewayResult rejected = gatewayService.authorize(payment());
+            release.countDown();
+
+            // Assert
+            assertEquals(PaymentGatewayResult.Outcome.NOT_SENT, rejected.getOutcome());
+            assertEquals(PaymentGatewayResult.Outcome.APPROVED, first.get(5, TimeUnit.SECONDS).getOutcome());
+            assertEquals(PaymentGatewayResult.Outcome.APPROVED, second.get(5, TimeUnit.SECONDS).getOutcome());
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTailLatency_BoundedByTimeoutUnderDegradation() throws Exception {
+        // Arrange: 30% of gateway calls take a full second, the rest 5-15 ms
+        gatewayService = new PaymentGatewayService(stub(5, 10, 0.3, 0.0, 0.0), 100, 8, 1000, 1000);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<Long>> latencies = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < 200; i++) {
+                latencies.add(callers.submit(() -> {
+                    long start = System.nanoTime();
+                    gatewayService.authorize(payment());
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }));
+            }
+            List<Long> samples = new ArrayList<>();
+            for (Future<Long> latency : latencies) {
+                samples.add(latency.get(30, TimeUnit.SECONDS));
+            }
+            Collections.sort(samples);
+            long p99 = samples.get((int) Math.ceil(samples.size() * 0.99) - 1);
+
+            // Assert
+            assertTrue(p99 < 500, "p99 latency of " + p99 + " ms should be bounded by the 100 ms timeout");
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static SimulatedPaymentGateway stub(long baseLatencyMs, long jitterMs, double slowCallRate,
+                                                double failureRate, double declineRate) {
+        return new SimulatedPaymentGateway(baseLatencyMs, jitterMs, slowCallRate, 1000, failureRate, declineRate);
+    }
+
+    private static Payment payment() {
+        return payment("100.00");
+    }
+
+    private static Payment payment(String amount) {
+        Payment payment = new Payment();
+        payment.setAmount(new BigDecimal(amount));
+        payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        return payment;
+    }
+}
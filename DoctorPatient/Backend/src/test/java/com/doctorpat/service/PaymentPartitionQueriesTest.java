@@ -0,0 +1,130 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.Payment;
+import com.doctorpat.entity.User;
+import com.doctorpat.monitoring.CapturingStatementInspector;
+import com.doctorpat.repository.PaymentRepository;
+import com.doctorpat.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// H2 has no partitions, so this checks the queries the partition EXPLAIN relies on: the SQL of the real
+// finders has to bound created_at directly, which is what lets MySQL prune to the months in range
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+@Import(PaymentPartitionService.class)
+class PaymentPartitionQueriesTest {
+
+    private static final Pattern CREATED_AT_RANGE = Pattern.compile(
+            "\\bcreated_at\\s*>=\\s*\\?.*\\bcreated_at\\s*<=\\s*\\?", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    @Autowired
+    private PaymentPartitionService paymentPartitionService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void testDateRangeQueries_CaptureFinderSqlWithPartitionKeyRange() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2026, 1, 31, 23, 59, 59);
+
+        // Act
+        Map<String, PaymentPartitionService.CapturedQuery> queries =
+                paymentPartitionService.dateRangeQueries(start, end, 7L, 8L);
+
+        // Assert
+        assertEquals(List.of("findByDateRange", "findByPatientAndDateRange", "findByDoctorAndDateRange"),
+                List.copyOf(queries.keySet()));
+        queries.forEach((name, query) -> {
+            assertTrue(query.getSql().toLowerCase().contains("from payments"), name + ": " + query.getSql());
+            assertTrue(CREATED_AT_RANGE.matcher(query.getSql()).find(), name + ": " + query.getSql());
+            assertEquals(query.getSql().chars().filter(c -> c == '?').count(), query.getArgs().length, name);
+        });
+        assertTrue(queries.get("findByPatientAndDateRange").getSql().matches("(?is).*\\bpatient_id\\s*=\\s*\\?.*"));
+        assertEquals(7L, queries.get("findByPatientAndDateRange").getArgs()[0]);
+        assertEquals(Timestamp.valueOf(start), queries.get("findByDoctorAndDateRange").getArgs()[1]);
+    }
+
+    @Test
+    void testDateRangeQueries_IdsAreOptional() {
+        // Act
+        Map<String, PaymentPartitionService.CapturedQuery> queries = paymentPartitionService.dateRangeQueries(
+                LocalDateTime.of(2026, 1, 1, 0, 0), LocalDateTime.of(2026, 1, 31, 0, 0), null, null);
+
+        // Assert
+        assertEquals(List.of("findByDateRange"), List.copyOf(queries.keySet()));
+    }
+
+    @Test
+    void testDryRun_ReadsNoRowsAndLeavesLaterQueriesAlone() {
+        // Arrange
+        LocalDateTime createdAt = payment("tx-1").getCreatedAt();
+        List<List<Payment>> found = new ArrayList<>();
+
+        // Act
+        List<String> statements = CapturingStatementInspector.dryRun(() ->
+                found.add(paymentRepository.findByDateRange(createdAt.minusDays(1), createdAt.plusDays(1))));
+
+        // Assert
+        assertEquals(1, statements.size());
+        assertTrue(found.get(0).isEmpty());
+        assertEquals(1, paymentRepository.findByDateRange(createdAt.minusDays(1), createdAt.plusDays(1)).size());
+    }
+
+    @Test
+    void testUniqueKey_RejectsSameTransactionIdAndCreatedAt() {
+        // Arrange
+        Payment payment = payment("tx-1");
+        String insert = "INSERT INTO payments (appointment_id, patient_id, doctor_id, amount, payment_method, status, " +
+                "transaction_id, created_at) VALUES (1, ?, ?, 10.00, 'CREDIT_CARD', 'PENDING', ?, ?)";
+
+        // Act & Assert
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(insert, payment.getPatient().getId(),
+                payment.getDoctor().getId(), "tx-1", Timestamp.valueOf(payment.getCreatedAt())));
+    }
+
+    private Payment payment(String transactionId) {
+        User patient = userRepository.save(new User("Pat " + transactionId, transactionId + "-pat@example.com",
+                "$2a$10$hash", User.UserRole.PATIENT));
+        User doctor = userRepository.save(new User("Dr. " + transactionId, transactionId + "-doc@example.com",
+                "$2a$10$hash", User.UserRole.DOCTOR));
+        jdbcTemplate.update("INSERT INTO payments (appointment_id, patient_id, doctor_id, amount, payment_method, " +
+                        "status, transaction_id, created_at) VALUES (1, ?, ?, 10.00, 'CREDIT_CARD', 'COMPLETED', ?, ?)",
+                patient.getId(), doctor.getId(), transactionId, Timestamp.valueOf(LocalDateTime.of(2026, 1, 15, 10, 0)));
+        return paymentRepository.findByTransactionId(transactionId).orElseThrow();
+    }
+}
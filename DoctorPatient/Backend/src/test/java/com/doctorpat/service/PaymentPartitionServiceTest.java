@@ -0,0 +1,61 @@
+package com.doctorpat.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentPartitionServiceTest {
+
+    @Test
+    void testPlanPartitions_ContinuesAfterLastMonthlyPartition() {
+        // Arrange
+        List<String> existing = List.of("p202609", "p202610", "p_future");
+
+        // Act
+        List<YearMonth> months = PaymentPartitionService.planPartitions(existing, null, YearMonth.of(2026, 10), 3);
+
+        // Assert
+        assertEquals(List.of(YearMonth.of(2026, 11), YearMonth.of(2026, 12), YearMonth.of(2027, 1)), months);
+    }
+
+    @Test
+    void testPlanPartitions_NothingToDoWhenAlreadyAhead() {
+        // Arrange
+        List<String> existing = List.of("p202610", "p202611", "p202612", "p202701", "p_future");
+
+        // Act
+        List<YearMonth> months = PaymentPartitionService.planPartitions(existing, null, YearMonth.of(2026, 10), 3);
+
+        // Assert
+        assertTrue(months.isEmpty());
+    }
+
+    @Test
+    void testPlanPartitions_MigratedTableStartsAtEarliestRow() {
+        // Arrange
+        List<String> existing = List.of("p_future");
+
+        // Act
+        List<YearMonth> months = PaymentPartitionService.planPartitions(existing, YearMonth.of(2026, 8),
+                YearMonth.of(2026, 10), 1);
+
+        // Assert
+        assertEquals(List.of(YearMonth.of(2026, 8), YearMonth.of(2026, 9), YearMonth.of(2026, 10),
+                YearMonth.of(2026, 11)), months);
+    }
+
+    @Test
+    void testReorganizeStatement_SplitsMonthsOffFuturePartition() {
+        // Act
+        String sql = PaymentPartitionService.reorganizeStatement(List.of(YearMonth.of(2026, 11), YearMonth.of(2026, 12)));
+
+        // Assert
+        assertEquals("ALTER TABLE payments REORGANIZE PARTITION p_future INTO (" +
+                "PARTITION p202611 VALUES LESS THAN ('2026-12-01 00:00:00'), " +
+                "PARTITION p202612 VALUES LESS THAN ('2027-01-01 00:00:00'), " +
+                "PARTITION p_future VALUES LESS THAN (MAXVALUE))", sql);
+    }
+}
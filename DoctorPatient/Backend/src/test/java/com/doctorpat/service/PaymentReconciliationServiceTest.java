@@ -0,0 +1,140 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.Appointment;
+import com.doctorpat.entity.Payment;
+import com.doctorpat.entity.User;
+import com.doctorpat.repository.AppointmentRepository;
+import com.doctorpat.repository.PaymentRepository;
+import com.doctorpat.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+class PaymentReconciliationServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private PaymentReconciliationService reconciliationService;
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        reconciliationService = new PaymentReconciliationService(paymentRepository, 300, 3600, 1800);
+        User patient = userRepository.save(new User("Pat Patient", "pat@example.com", "$2a$10$hash", User.UserRole.PATIENT));
+        User doctor = userRepository.save(new User("Dr. Dee", "dee@example.com", "$2a$10$hash", User.UserRole.DOCTOR));
+        appointment = appointmentRepository.save(
+                new Appointment(patient, doctor, LocalDate.now().plusDays(1), LocalTime.of(10, 0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM appointments");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void testReconcile_ReleasesStaleClaimsAndKeepsInFlightOnes() {
+        // Arrange
+        String stale = payment(Payment.PaymentStatus.PROCESSING, LocalDateTime.now().minusMinutes(10));
+        String inFlight = payment(Payment.PaymentStatus.PROCESSING, LocalDateTime.now().minusSeconds(5));
+
+        // Act
+        reconciliationService.reconcile();
+
+        // Assert
+        assertEquals("PENDING", status(stale));
+        assertEquals(PaymentReconciliationService.RELEASED_REASON, failureReason(stale));
+        assertEquals("PROCESSING", status(inFlight));
+    }
+
+    @Test
+    void testReconcile_CancelsExpiredPendingPaymentsOnly() {
+        // Arrange
+        String expired = payment(Payment.PaymentStatus.PENDING, LocalDateTime.now().minusHours(2));
+        String recent = payment(Payment.PaymentStatus.PENDING, LocalDateTime.now().minusMinutes(10));
+        String completed = payment(Payment.PaymentStatus.COMPLETED, LocalDateTime.now().minusHours(2));
+
+        // Act
+        reconciliationService.reconcile();
+
+        // Assert
+        assertEquals("CANCELLED", status(expired));
+        assertEquals(PaymentReconciliationService.EXPIRED_REASON, failureReason(expired));
+        assertEquals("PENDING", status(recent));
+        assertEquals("COMPLETED", status(completed));
+    }
+
+    @Test
+    void testReconcile_CancelsPaymentsHeldForReviewPastTheReviewExpiry() {
+        // Arrange
+        String unreviewed = payment(Payment.PaymentStatus.UNDER_REVIEW, LocalDateTime.now().minusHours(1));
+        String held = payment(Payment.PaymentStatus.UNDER_REVIEW, LocalDateTime.now().minusMinutes(10));
+
+        // Act
+        reconciliationService.reconcile();
+
+        // Assert
+        assertEquals("CANCELLED", status(unreviewed));
+        assertEquals(PaymentReconciliationService.REVIEW_EXPIRED_REASON, failureReason(unreviewed));
+        assertEquals("UNDER_REVIEW", status(held));
+    }
+
+    private String payment(Payment.PaymentStatus status, LocalDateTime createdAt) {
+        Payment payment = new Payment();
+        payment.setAppointment(appointment);
+        payment.setPatient(appointment.getPatient());
+        payment.setDoctor(appointment.getDoctor());
+        payment.setAmount(new BigDecimal("100.00"));
+        payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        payment.setStatus(status);
+        payment.setTransactionId(UUID.randomUUID().toString());
+        paymentRepository.save(payment);
+        jdbcTemplate.update("UPDATE payments SET created_at = ? WHERE transaction_id = ?",
+                Timestamp.valueOf(createdAt), payment.getTransactionId());
+        return payment.getTransactionId();
+    }
+
+    private String status(String transactionId) {
+        return jdbcTemplate.queryForObject("SELECT status FROM payments WHERE transaction_id = ?", String.class,
+                transactionId);
+    }
+
+    private String failureReason(String transactionId) {
+        return jdbcTemplate.queryForObject("SELECT failure_reason FROM payments WHERE transaction_id = ?",
+                String.class, transactionId);
+    }
+}
@@ -0,0 +1,294 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.BatchSettlementRequest;
+import com.doctorpat.dto.BatchSettlementResponse;
+import com.doctorpat.dto.BatchSettlementResponse.ItemResult;
+import com.doctorpat.entity.Appointment;
+import com.doctorpat.entity.Payment;
+import com.doctorpat.entity.User;
+import com.doctorpat.repository.AppointmentRepository;
+import com.doctorpat.repository.PaymentRepository;
+import com.doctorpat.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Claims and outcomes are written in the service's own transactions, so the test doesn't wrap them in one
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+class PaymentSettlementServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger gatewayCalls = new AtomicInteger();
+    private PaymentGatewayService gatewayService;
+    private JdbcTemplate jdbcTemplate;
+    private User patient;
+    private User doctor;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        patient = userRepository.save(new User("Pat Patient", "pat@example.com", "$2a$10$hash", User.UserRole.PATIENT));
+        doctor = userRepository.save(new User("Dr. Dee", "dee@example.com", "$2a$10$hash", User.UserRole.DOCTOR));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (gatewayService != null) {
+            gatewayService.shutdown();
+        }
+        jdbcTemplate.update("DELETE FROM payments");
+        jdbcTemplate.update("DELETE FROM appointments");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void testSettle_SkipsIneligibleAppointmentsAndKeepsInputOrder() {
+        // Arrange
+        PaymentSettlementService settlementService = settlementService(byAmountGateway());
+        Appointment payable = appointment(100.0, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        Appointment paid = appointment(100.0, Appointment.AppointmentStatus.COMPLETED, Appointment.PaymentStatus.PAID);
+        Appointment cancelled = appointment(100.0, Appointment.AppointmentStatus.CANCELLED, Appointment.PaymentStatus.PENDING);
+        Appointment noFee = appointment(null, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        Appointment inProgress = appointment(100.0, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        payment(inProgress, Payment.PaymentStatus.PROCESSING);
+        long missingId = payable.getId() + 1000;
+
+        // Act
+        BatchSettlementResponse response = settlementService.settle(request(payable.getId(), missingId, paid.getId(),
+                cancelled.getId(), noFee.getId(), inProgress.getId(), payable.getId()));
+
+        // Assert
+        assertEquals(List.of(payable.getId(), missingId, paid.getId(), cancelled.getId(), noFee.getId(), inProgress.getId()),
+                response.getItems().stream().map(ItemResult::getAppointmentId).toList());
+        assertEquals(List.of("Approved", "Appointment not found", "Appointment already paid", "Appointment is cancelled",
+                        "Appointment has no consultation fee", "Appointment has a payment in progress"),
+                response.getItems().stream().map(ItemResult::getMessage).toList());
+        assertEquals(ItemResult.Status.COMPLETED, response.getItems().get(0).getStatus());
+        assertEquals(1, response.getSettled());
+        assertEquals(5, response.getSkipped());
+        assertEquals(1, gatewayCalls.get());
+        assertEquals(2, paymentRepository.count());
+    }
+
+    @Test
+    void testSettle_MapsGatewayOutcomesAndMarksOnlyApprovedAppointmentsPaid() {
+        // Arrange: the stub approves 100.00, declines 200.00 and can't answer for 300.00
+        PaymentSettlementService settlementService = settlementService(byAmountGateway());
+        Appointment approved = appointment(100.0, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        Appointment declined = appointment(200.0, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        Appointment pending = appointment(300.0, Appointment.AppointmentStatus.CONFIRMED, Appointment.PaymentStatus.PENDING);
+
+        // Act
+        BatchSettlementResponse response = settlementService.settle(
+                request(declined.getId(), pending.getId(), approved.getId()));
+
+        // Assert
+        assertEquals(List.of(ItemResult.Status.FAILED, ItemResult.Status.PENDING, ItemResult.Status.COMPLETED),
+                response.getItems().stream().map(ItemResult::getStatus).toList());
+        assertEquals(1, response.getSettled());
+        assertEquals(1, response.getFailed());
+        assertEquals(1, response.getPending());
+        assertEquals(0, new BigDecimal("100.00").compareTo(response.getTotalSettled()));
+
+        Map<Long, Payment.PaymentStatus> paymentStatuses = paymentStatusesByAppointment();
+        assertEquals(Payment.PaymentStatus.COMPLETED, paymentStatuses.get(approved.getId()));
+        assertEquals(Payment.PaymentStatus.FAILED, paymentStatuses.get(declined.getId()));
+        assertEquals(Payment.PaymentStatus.PENDING, paymentStatuses.get(pending.getId()));
+
+        assertEquals(Appointment.PaymentStatus.PAID, reload(approved).getPaymentStatus());
+        assertEquals(Appointment.PaymentStatus.PENDING, reload(declined).getPaymentStatus());
+        assertEquals(Appointment.PaymentStatus.PENDING, reload(pending).getPaymentStatus());
+    }
+
+    @Test
+    void testSettle_ClaimsAppointmentsBeforeCallingGateway() {
+        // Arrange: a second settlement for the same appointment runs while the first waits on the gateway
+        AtomicReference<PaymentSettlementService> service = new AtomicReference<>();
+        AtomicReference<BatchSettlementResponse> concurrent = new AtomicReference<>();
+        Appointment appointment = appointment(100.0, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        service.set(settlementService(payment -> {
+            gatewayCalls.incrementAndGet();
+            concurrent.set(service.get().settle(request(appointment.getId())));
+            return PaymentGatewayResult.approved("Approved");
+        }));
+
+        // Act
+        BatchSettlementResponse response = service.get().settle(request(appointment.getId()));
+
+        // Assert
+        assertEquals(ItemResult.Status.COMPLETED, response.getItems().get(0).getStatus());
+        assertEquals(ItemResult.Status.SKIPPED, concurrent.get().getItems().get(0).getStatus());
+        assertEquals("Appointment has a payment in progress", concurrent.get().getItems().get(0).getMessage());
+        assertEquals(1, gatewayCalls.get());
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    void testSettle_GatewayFailureLeavesPaymentPendingAndAllowsRetry() {
+        // Arrange
+        PaymentSettlementService settlementService = settlementService(payment -> {
+            gatewayCalls.incrementAndGet();
+            throw new PaymentGatewayException("Payment gateway error");
+        });
+        Appointment appointment = appointment(100.0, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+
+        // Act
+        BatchSettlementResponse first = settlementService.settle(request(appointment.getId()));
+        BatchSettlementResponse second = settlementService.settle(request(appointment.getId()));
+
+        // Assert
+        assertEquals(ItemResult.Status.PENDING, first.getItems().get(0).getStatus());
+        assertEquals(ItemResult.Status.PENDING, second.getItems().get(0).getStatus());
+        assertEquals(2, gatewayCalls.get());
+        assertEquals(List.of("PENDING", "PENDING"), jdbcTemplate.queryForList("SELECT status FROM payments", String.class));
+        assertEquals(Appointment.PaymentStatus.PENDING, reload(appointment).getPaymentStatus());
+    }
+
+    @Test
+    void testSettle_OpenCircuitCancelsClaimWithoutCallingGateway() {
+        // Arrange: the first failure opens the circuit, so the second settlement never reaches the gateway
+        PaymentSettlementService settlementService = settlementService(payment -> {
+            gatewayCalls.incrementAndGet();
+            throw new PaymentGatewayException("Payment gateway error");
+        }, 1);
+        Appointment appointment = appointment(100.0, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        settlementService.settle(request(appointment.getId()));
+
+        // Act
+        BatchSettlementResponse response = settlementService.settle(request(appointment.getId()));
+
+        // Assert
+        assertEquals(ItemResult.Status.FAILED, response.getItems().get(0).getStatus());
+        assertEquals("Payment gateway unavailable, payment not sent", response.getItems().get(0).getMessage());
+        assertEquals(1, gatewayCalls.get());
+        assertEquals("CANCELLED", jdbcTemplate.queryForObject(
+                "SELECT status FROM payments WHERE transaction_id = ?", String.class,
+                response.getItems().get(0).getTransactionId()));
+    }
+
+    @Test
+    void testSettle_CompletedPaymentBlocksRechargeButPendingDoesNot() {
+        // Arrange
+        PaymentSettlementService settlementService = settlementService(byAmountGateway());
+        Appointment completed = appointment(100.0, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        Appointment pending = appointment(100.0, Appointment.AppointmentStatus.SCHEDULED, Appointment.PaymentStatus.PENDING);
+        payment(completed, Payment.PaymentStatus.COMPLETED);
+        payment(pending, Payment.PaymentStatus.PENDING);
+
+        // Act
+        BatchSettlementResponse response = settlementService.settle(request(completed.getId(), pending.getId()));
+
+        // Assert
+        assertEquals(List.of(ItemResult.Status.SKIPPED, ItemResult.Status.COMPLETED),
+                response.getItems().stream().map(ItemResult::getStatus).toList());
+        assertEquals(Appointment.PaymentStatus.PAID, reload(pending).getPaymentStatus());
+    }
+
+    private PaymentSettlementService settlementService(PaymentGateway gateway) {
+        return settlementService(gateway, 100);
+    }
+
+    private PaymentSettlementService settlementService(PaymentGateway gateway, int failureThreshold) {
+        gatewayService = new PaymentGatewayService(gateway, 5000, 5, failureThreshold, 60000);
+        return new PaymentSettlementService(appointmentRepository, paymentRepository, gatewayService, jdbcTemplate,
+                new TransactionTemplate(transactionManager));
+    }
+
+    private PaymentGateway byAmountGateway() {
+        return new PaymentGateway() {
+            @Override
+            public PaymentGatewayResult authorize(Payment payment) {
+                switch (payment.getAmount().intValue()) {
+                    case 100:
+                        return PaymentGatewayResult.approved("Approved");
+                    case 200:
+                        return PaymentGatewayResult.declined("Card declined");
+                    default:
+                        return PaymentGatewayResult.pending("Payment gateway timeout, payment pending");
+                }
+            }
+
+            @Override
+            public List<PaymentGatewayResult> authorizeBatch(List<Payment> payments) {
+                gatewayCalls.incrementAndGet();
+                return PaymentGateway.super.authorizeBatch(payments);
+            }
+        };
+    }
+
+    private Appointment appointment(Double fee, Appointment.AppointmentStatus status, Appointment.PaymentStatus paymentStatus) {
+        Appointment appointment = new Appointment(patient, doctor, LocalDate.now().plusDays(1), LocalTime.of(10, 0));
+        appointment.setConsultationFee(fee);
+        appointment.setStatus(status);
+        appointment.setPaymentStatus(paymentStatus);
+        return appointmentRepository.save(appointment);
+    }
+
+    private void payment(Appointment appointment, Payment.PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setAppointment(appointment);
+        payment.setPatient(patient);
+        payment.setDoctor(doctor);
+        payment.setAmount(new BigDecimal("100.00"));
+        payment.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        payment.setStatus(status);
+        paymentRepository.save(payment);
+    }
+
+    private Map<Long, Payment.PaymentStatus> paymentStatusesByAppointment() {
+        return jdbcTemplate.queryForList("SELECT appointment_id, status FROM payments").stream()
+                .collect(Collectors.toMap(row -> ((Number) row.get("appointment_id")).longValue(),
+                        row -> Payment.PaymentStatus.valueOf((String) row.get("status"))));
+    }
+
+    private Appointment reload(Appointment appointment) {
+        return appointmentRepository.findById(appointment.getId()).orElseThrow();
+    }
+
+    private static BatchSettlementRequest request(Long... appointmentIds) {
+        BatchSettlementRequest request = new BatchSettlementRequest();
+        request.setAppointmentIds(List.of(appointmentIds));
+        request.setPaymentMethod(Payment.PaymentMethod.CREDIT_CARD);
+        request.setCardLastFour("4242");
+        request.setCardType("VISA");
+        return request;
+    }
+}
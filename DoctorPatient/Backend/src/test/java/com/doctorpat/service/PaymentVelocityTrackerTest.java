@@ -0,0 +1,134 @@
+package com.doctorpat.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentVelocityTrackerTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void testRecordAttempt_AllowsPaymentsUpToThreshold() {
+        // Arrange
+        PaymentVelocityTracker tracker = tracker(3, 100);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertTrue(tracker.recordAttempt(1L, "VISA", "1234").isEmpty());
+        }
+        Optional<String> fourth = tracker.recordAttempt(1L, "VISA", "1234");
+
+        // Assert
+        assertTrue(fourth.isPresent());
+        assertTrue(fourth.get().contains("4 payments by this patient"));
+    }
+
+    @Test
+    void testRecordAttempt_SameCardAcrossPatients() {
+        // Arrange
+        PaymentVelocityTracker tracker = tracker(3, 100);
+
+        // Act
+        for (long patientId = 1; patientId <= 3; patientId++) {
+            tracker.recordAttempt(patientId, "visa", "1234");
+        }
+        Optional<String> result = tracker.recordAttempt(4L, " VISA ", "1234");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertTrue(result.get().contains("payments with this card"));
+    }
+
+    @Test
+    void testRecordAttempt_OldAttemptsSlideOutOfWindow() {
+        // Arrange
+        PaymentVelocityTracker tracker = tracker(3, 100);
+        for (int i = 0; i < 3; i++) {
+            tracker.recordAttempt(1L, null, null);
+            clock.addAndGet(60_000);
+        }
+
+        // Act: the first attempt is now more than ten minutes old
+        clock.addAndGet(8 * 60_000);
+        Optional<String> result = tracker.recordAttempt(1L, null, null);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void testSweep_RemovesIdleKeys() {
+        // Arrange
+        PaymentVelocityTracker tracker = tracker(3, 100);
+        tracker.recordAttempt(1L, "VISA", "1234");
+        tracker.recordAttempt(2L, null, null);
+        assertEquals(3, tracker.getTrackedKeys());
+
+        // Act
+        clock.addAndGet(11 * 60_000);
+        tracker.recordAttempt(2L, null, null);
+        tracker.sweep();
+
+        // Assert
+        assertEquals(1, tracker.getTrackedKeys());
+    }
+
+    @Test
+    void testRecordAttempt_TrackedKeysAreBounded() {
+        // Arrange
+        PaymentVelocityTracker tracker = tracker(3, 10);
+
+        // Act
+        for (long patientId = 1; patientId <= 50; patientId++) {
+            tracker.recordAttempt(patientId, null, null);
+        }
+
+        // Assert
+        assertEquals(10, tracker.getTrackedKeys());
+    }
+
+    @Test
+    void testRecordAttempt_HeldForReviewWhenTrackerFull() {
+        // Arrange: flooding with distinct cards must not switch the check off
+        PaymentVelocityTracker tracker = tracker(3, 10);
+        for (int card = 0; card < 10; card++) {
+            assertTrue(tracker.recordAttempt(null, "VISA", String.format("%04d", card)).isEmpty());
+        }
+
+        // Act
+        Optional<String> newCard = tracker.recordAttempt(null, "VISA", "9999");
+        Optional<String> trackedCard = tracker.recordAttempt(null, "VISA", "0001");
+
+        // Assert
+        assertTrue(newCard.isPresent());
+        assertTrue(newCard.get().contains("too many payers"));
+        assertTrue(trackedCard.isEmpty());
+        assertEquals(10, tracker.getTrackedKeys());
+    }
+
+    @Test
+    void testRecordAttempt_IdleKeysFreedOnlyBySweep() {
+        // Arrange
+        PaymentVelocityTracker tracker = tracker(3, 1);
+        tracker.recordAttempt(1L, null, null);
+        clock.addAndGet(11 * 60_000);
+
+        // Act
+        Optional<String> beforeSweep = tracker.recordAttempt(2L, null, null);
+        tracker.sweep();
+        Optional<String> afterSweep = tracker.recordAttempt(2L, null, null);
+
+        // Assert
+        assertTrue(beforeSweep.isPresent());
+        assertTrue(afterSweep.isEmpty());
+        assertEquals(1, tracker.getTrackedKeys());
+    }
+
+    private PaymentVelocityTracker tracker(int maxPayments, int maxTrackedKeys) {
+        return new PaymentVelocityTracker(true, 600, 60, maxPayments, maxPayments, maxTrackedKeys, clock::get);
+    }
+}
@@ -0,0 +1,241 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.SeatAvailability;
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.WellnessEnrollmentChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatAvailabilityServiceTest {
+
+    private static final String CLIENT = "10.0.0.1";
+
+    @Mock
+    private WellnessCatalogService wellnessCatalogService;
+
+    private SeatAvailabilityService seatService;
+    private WellnessService yoga;
+
+    @BeforeEach
+    void setUp() {
+        // Sends run on the calling thread
+        seatService = new SeatAvailabilityService(wellnessCatalogService, 60000, 2, 2, 10, 10000, Runnable::run);
+
+        yoga = new WellnessService();
+        yoga.setId(1L);
+        yoga.setMaxParticipants(10);
+        yoga.setCurrentParticipants(4);
+        when(wellnessCatalogService.getActiveService(1L)).thenReturn(Optional.of(yoga));
+    }
+
+    @Test
+    void testSubscribe_SendsCurrentSeatsFirst() {
+        // Arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // Act
+        seatService.subscribe(Set.of(1L), CLIENT, emitter);
+
+        // Assert
+        assertEquals(1, emitter.updates.size());
+        assertEquals(4, emitter.updates.get(0).getCurrentParticipants());
+        assertTrue(emitter.updates.get(0).isAvailable());
+    }
+
+    @Test
+    void testPublishChanges_CoalescesBurstIntoOneUpdatePerService() {
+        // Arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        seatService.subscribe(Set.of(1L), CLIENT, emitter);
+        for (int i = 0; i < 6; i++) {
+            seatService.onEnrollmentChanged(new WellnessEnrollmentChangedEvent(1L, 1));
+        }
+        yoga.setCurrentParticipants(10);
+
+        // Act
+        seatService.publishChanges();
+        seatService.publishChanges();
+
+        // Assert
+        assertEquals(2, emitter.updates.size());
+        assertEquals(10, emitter.updates.get(1).getCurrentParticipants());
+        assertFalse(emitter.updates.get(1).isAvailable());
+    }
+
+    @Test
+    void testPublishChanges_SkipsServicesNobodySubscribedTo() {
+        // Arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        seatService.subscribe(Set.of(1L), CLIENT, emitter);
+
+        // Act
+        seatService.onEnrollmentChanged(new WellnessEnrollmentChangedEvent(2L, 1));
+        seatService.publishChanges();
+
+        // Assert
+        assertEquals(1, emitter.updates.size());
+        verify(wellnessCatalogService, never()).getActiveService(2L);
+    }
+
+    @Test
+    void testSubscribe_RejectsOverLimitAndDropsBrokenSubscribers() {
+        // Arrange
+        RecordingEmitter broken = new RecordingEmitter();
+        seatService.subscribe(Set.of(1L), "10.0.0.1", new RecordingEmitter());
+        seatService.subscribe(Set.of(1L), "10.0.0.2", broken);
+
+        // Act & Assert
+        SubscriberLimitException rejected = assertThrows(SubscriberLimitException.class,
+                () -> seatService.subscribe(Set.of(1L), "10.0.0.3", new RecordingEmitter()));
+        assertFalse(rejected.isClientLimit());
+
+        broken.failing = true;
+        seatService.onEnrollmentChanged(new WellnessEnrollmentChangedEvent(1L, 1));
+        seatService.publishChanges();
+        assertEquals(1, seatService.getSubscriberCount());
+        assertDoesNotThrow(() -> seatService.subscribe(Set.of(1L), "10.0.0.3", new RecordingEmitter()));
+    }
+
+    @Test
+    void testSubscribe_CapsStreamsPerClient() {
+        // Arrange
+        seatService = new SeatAvailabilityService(wellnessCatalogService, 60000, 10, 2, 10, 10000, Runnable::run);
+        RecordingEmitter broken = new RecordingEmitter();
+        seatService.subscribe(Set.of(1L), CLIENT, new RecordingEmitter());
+        seatService.subscribe(Set.of(1L), CLIENT, broken);
+
+        // Act
+        SubscriberLimitException rejected = assertThrows(SubscriberLimitException.class,
+                () -> seatService.subscribe(Set.of(1L), CLIENT, new RecordingEmitter()));
+        seatService.subscribe(Set.of(1L), "10.0.0.2", new RecordingEmitter());
+        broken.failing = true;
+        seatService.onEnrollmentChanged(new WellnessEnrollmentChangedEvent(1L, 1));
+        seatService.publishChanges();
+
+        // Assert
+        assertTrue(rejected.isClientLimit());
+        assertEquals(2, seatService.getSubscriberCount());
+        assertDoesNotThrow(() -> seatService.subscribe(Set.of(1L), CLIENT, new RecordingEmitter()));
+    }
+
+    @Test
+    void testPublishChanges_RetriesSubscribersTheFullSenderQueueSkipped() {
+        // Arrange
+        AtomicBoolean queueFull = new AtomicBoolean(true);
+        Executor sender = task -> {
+            if (queueFull.get()) {
+                throw new RejectedExecutionException("Queue full");
+            }
+            task.run();
+        };
+        seatService = new SeatAvailabilityService(wellnessCatalogService, 60000, 2, 2, 10, 10000, sender);
+        RecordingEmitter emitter = new RecordingEmitter();
+        seatService.subscribe(Set.of(1L), CLIENT, emitter);
+        assertTrue(emitter.updates.isEmpty());
+
+        // Act
+        queueFull.set(false);
+        seatService.publishChanges();
+
+        // Assert
+        assertEquals(1, emitter.updates.size());
+        assertEquals(1, seatService.getSubscriberCount());
+    }
+
+    @Test
+    void testHeartbeat_QueuesNoSecondTaskForSubscriber() {
+        // Arrange
+        List<Runnable> queued = new ArrayList<>();
+        seatService = new SeatAvailabilityService(wellnessCatalogService, 60000, 2, 2, 10, 10000, queued::add);
+        RecordingEmitter emitter = new RecordingEmitter();
+        seatService.subscribe(Set.of(1L), CLIENT, emitter);
+
+        // Act
+        seatService.heartbeat();
+        seatService.heartbeat();
+        queued.remove(0).run();
+        seatService.heartbeat();
+        queued.remove(0).run();
+
+        // Assert: the update doubles as the first keep-alive
+        assertTrue(queued.isEmpty());
+        assertEquals(1, emitter.updates.size());
+        assertEquals(2, emitter.sends);
+    }
+
+    @Test
+    void testPublishChanges_DropsSubscriberWhoseSendIsBlocked() throws Exception {
+        // Arrange
+        ExecutorService sender = Executors.newSingleThreadExecutor();
+        seatService = new SeatAvailabilityService(wellnessCatalogService, 60000, 2, 2, 10, 50, sender);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter();
+        stalled.blockUntil = release;
+
+        try {
+            seatService.subscribe(Set.of(1L), CLIENT, stalled);
+            assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+
+            // Act
+            seatService.publishChanges();
+
+            // Assert
+            assertEquals(0, seatService.getSubscriberCount());
+            assertDoesNotThrow(() -> seatService.subscribe(Set.of(1L), CLIENT, new RecordingEmitter()));
+        } finally {
+            release.countDown();
+            sender.shutdownNow();
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<SeatAvailability> updates = new ArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private volatile CountDownLatch blockUntil;
+        private boolean failing;
+        private int sends;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            sends++;
+            builder.build().stream()
+                    .map(part -> part.getData())
+                    .filter(SeatAvailability.class::isInstance)
+                    .forEach(data -> updates.add((SeatAvailability) data));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.Specialization;
+import com.doctorpat.entity.User;
+import com.doctorpat.repository.SpecializationRepository;
+import com.doctorpat.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpecializationServiceTest {
+
+    @Mock
+    private SpecializationRepository specializationRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private SpecializationService specializationService;
+
+    @Test
+    void testSlugs_NormalizesAndDeduplicates() {
+        // Act
+        List<String> slugs = SpecializationService.slugs(" Cardiology ,cardiology,Internal   Medicine, ");
+
+        // Assert
+        assertEquals(List.of("cardiology", "internal medicine"), slugs);
+    }
+
+    @Test
+    void testAssign_ReusesExistingAndCreatesMissingEntries() {
+        // Arrange
+        Specialization cardiology = new Specialization("Cardiology", "cardiology");
+        when(specializationRepository.findBySlug("cardiology")).thenReturn(Optional.of(cardiology));
+        when(specializationRepository.findBySlug("sports medicine")).thenReturn(Optional.empty());
+        when(specializationRepository.saveAndFlush(any(Specialization.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        User doctor = new User();
+
+        // Act
+        specializationService.assign(doctor, "cardiology , sports  medicine");
+
+        // Assert
+        assertEquals("Cardiology, Sports Medicine", doctor.getSpecialization());
+        assertEquals(2, doctor.getSpecializations().size());
+        assertTrue(doctor.getSpecializations().contains(cardiology));
+        verify(specializationRepository).saveAndFlush(argThat(s -> s.getSlug().equals("sports medicine")));
+    }
+
+    @Test
+    void testBackfillDoctorSpecializations_LinksUnmappedDoctors() {
+        // Arrange
+        User doctor = new User();
+        doctor.setRole(User.UserRole.DOCTOR);
+        doctor.setSpecialization(" cardiology ");
+        when(userRepository.findDoctorsWithoutSpecializations()).thenReturn(List.of(doctor));
+        when(specializationRepository.findBySlug("cardiology"))
+                .thenReturn(Optional.of(new Specialization("Cardiology", "cardiology")));
+
+        // Act
+        specializationService.backfillDoctorSpecializations();
+
+        // Assert
+        assertEquals("Cardiology", doctor.getSpecialization());
+        assertEquals(1, doctor.getSpecializations().size());
+        verify(userRepository).saveAll(List.of(doctor));
+    }
+}
@@ -0,0 +1,151 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.UserImportResponse;
+import com.doctorpat.entity.User;
+import com.doctorpat.event.DoctorsImportedEvent;
+import com.doctorpat.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Writes go through the service's own transactions, so the test doesn't wrap them in one
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ActiveProfiles("jpatest")
+@Import(SpecializationService.class)
+class UserImportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SpecializationService specializationService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private JdbcTemplate jdbcTemplate;
+    private UserImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Chunks of two so the files below span several chunks
+        importService = new UserImportService(userRepository, specializationService, passwordEncoder, jdbcTemplate,
+                new TransactionTemplate(transactionManager), eventPublisher, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, new ForkJoinPool(2));
+        userRepository.save(new User("Existing Patient", "taken@example.com", "$2a$10$hash", User.UserRole.PATIENT));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.close();
+        jdbcTemplate.update("DELETE FROM doctor_specializations");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("DELETE FROM specializations");
+    }
+
+    @Test
+    void testImportUsers_CsvImportsValidRowsAndReportsTheRest() throws Exception {
+        // Arrange
+        String csv = "name,email,password,role,gender,address,specialization,yearsOfExperience\r\n" +
+                "Ann Patient,ann@example.com,secret1,patient,female,\"12 Main St,\nSpringfield\",,\r\n" +
+                "Dr. Bob,bob@example.com,secret2,DOCTOR,,,\"cardiology, Internal  medicine\",12\r\n" +
+                "No Email,,secret3,PATIENT,,,,\r\n" +
+                "Ann Again,ANN@example.com,secret4,PATIENT,,,,\r\n" +
+                "Taken,taken@example.com,secret5,PATIENT,,,,\r\n" +
+                "Sneaky,admin@example.com,secret6,ADMIN,,,,\r\n" +
+                "Dr. Eve,eve@example.com,secret7,DOCTOR,,,Cardiology,ten\r\n";
+
+        // Act
+        UserImportResponse response = importService.importUsers(stream(csv), UserImportService.Format.CSV);
+
+        // Assert
+        assertEquals(7, response.getTotal());
+        assertEquals(2, response.getImported());
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L), response.getErrors().stream().map(UserImportResponse.RowError::getLine).toList());
+        assertEquals(List.of("Email is required", "Duplicate email in file", "User with this email already exists",
+                        "Role must be PATIENT or DOCTOR", "Invalid value for yearsOfExperience"),
+                response.getErrors().stream().map(UserImportResponse.RowError::getMessage).toList());
+
+        User ann = userRepository.findByEmail("ann@example.com").orElseThrow();
+        assertEquals(User.Gender.FEMALE, ann.getGender());
+        assertEquals("12 Main St,\nSpringfield", ann.getAddress());
+        assertTrue(passwordEncoder.matches("secret1", ann.getPassword()));
+
+        User bob = userRepository.findByEmail("bob@example.com").orElseThrow();
+        assertEquals("Cardiology, Internal Medicine", bob.getSpecialization());
+        assertEquals(12, bob.getYearsOfExperience());
+        assertEquals(List.of(bob.getId()), userRepository.findDoctorsBySpecialization("internal medicine").stream()
+                .map(User::getId).toList());
+
+        ArgumentCaptor<DoctorsImportedEvent> event = ArgumentCaptor.forClass(DoctorsImportedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(List.of(bob.getId()), event.getValue().getDoctorIds());
+    }
+
+    @Test
+    void testImportUsers_NdjsonReportsMalformedLines() throws Exception {
+        // Arrange
+        String ndjson = "{\"name\":\"Carl Patient\",\"email\":\"carl@example.com\",\"password\":\"secret1\",\"role\":\"PATIENT\"}\n" +
+                "\n" +
+                "{\"name\":\"Broken\",\n" +
+                "{\"name\":\"Short\",\"email\":\"short@example.com\",\"password\":\"abc\",\"role\":\"PATIENT\"}\n";
+
+        // Act
+        UserImportResponse response = importService.importUsers(stream(ndjson), UserImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(1, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals(3L, response.getErrors().get(0).getLine());
+        assertEquals("Malformed record", response.getErrors().get(0).getMessage());
+        assertEquals("short@example.com", response.getErrors().get(1).getEmail());
+        assertEquals("Password must be at least 6 characters", response.getErrors().get(1).getMessage());
+        assertTrue(userRepository.existsByEmail("carl@example.com"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testImportUsers_CsvWithoutRequiredColumnsIsRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> importService.importUsers(
+                stream("name,email,role\nAnn,ann@example.com,PATIENT\n"), UserImportService.Format.CSV));
+        assertFalse(userRepository.existsByEmail("ann@example.com"));
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
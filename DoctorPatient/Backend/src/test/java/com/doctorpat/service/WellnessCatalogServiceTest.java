@@ -0,0 +1,143 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.WellnessEnrollmentChangedEvent;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import com.doctorpat.repository.WellnessServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WellnessCatalogServiceTest {
+
+    @Mock
+    private WellnessServiceRepository wellnessServiceRepository;
+
+    @InjectMocks
+    private WellnessCatalogService catalogService;
+
+    private WellnessService yoga;
+
+    @BeforeEach
+    void setUp() {
+        yoga = service(1L, "Morning Yoga", WellnessService.ServiceCategory.YOGA, "20.00", 60, 10, 9);
+        when(wellnessServiceRepository.findByIsActiveTrue()).thenReturn(List.of(
+                service(3L, "Strength Training", WellnessService.ServiceCategory.FITNESS, "120.00", 90, null, 0),
+                yoga,
+                service(2L, "Pilates", WellnessService.ServiceCategory.FITNESS, "40.00", 45, 10, 10)));
+
+        catalogService.reload();
+    }
+
+    @Test
+    void testGetByPriceRange_UsesInclusiveOpenEndedBounds() {
+        // Act & Assert
+        assertEquals(List.of("Morning Yoga", "Pilates"),
+                names(catalogService.getByPriceRange(null, new BigDecimal("40"))));
+        assertEquals(List.of("Pilates", "Strength Training"),
+                names(catalogService.getByPriceRange(new BigDecimal("40.00"), null)));
+        assertEquals(List.of("Pilates"),
+                names(catalogService.getByPriceRange(new BigDecimal("21"), new BigDecimal("100"))));
+        assertTrue(catalogService.getByPriceRange(new BigDecimal("50"), new BigDecimal("10")).isEmpty());
+    }
+
+    @Test
+    void testReads_ServedFromSnapshotWithoutDatabase() {
+        // Act
+        List<WellnessService> all = catalogService.getActiveServices();
+        List<WellnessService> fitness = catalogService.getByCategory(WellnessService.ServiceCategory.FITNESS);
+        List<WellnessService> upToAnHour = catalogService.getByMaxDuration(60);
+        List<WellnessService> available = catalogService.getAvailable();
+
+        // Assert
+        assertEquals(List.of("Morning Yoga", "Pilates", "Strength Training"), names(all));
+        assertEquals(List.of("Pilates", "Strength Training"), names(fitness));
+        assertEquals(List.of("Pilates", "Morning Yoga"), names(upToAnHour));
+        assertEquals(List.of("Morning Yoga", "Strength Training"), names(available));
+        verify(wellnessServiceRepository, times(1)).findByIsActiveTrue();
+        verifyNoMoreInteractions(wellnessServiceRepository);
+    }
+
+    @Test
+    void testOnEnrollmentChanged_UpdatesAvailabilityInNewSnapshot() {
+        // Arrange
+        List<WellnessService> before = catalogService.getAvailable();
+
+        // Act
+        catalogService.onEnrollmentChanged(new WellnessEnrollmentChangedEvent(1L, 1));
+
+        // Assert
+        assertEquals(List.of("Strength Training"), names(catalogService.getAvailable()));
+        assertEquals(10, catalogService.getByCategory(WellnessService.ServiceCategory.YOGA).get(0).getCurrentParticipants());
+        assertEquals(List.of("Morning Yoga", "Strength Training"), names(before));
+    }
+
+    @Test
+    void testOnEnrollmentChanged_CopiesOnlyTheGroupsHoldingTheService() {
+        // Arrange
+        List<WellnessService> fitnessBefore = catalogService.getByCategory(WellnessService.ServiceCategory.FITNESS);
+        List<WellnessService> yogaBefore = catalogService.getByCategory(WellnessService.ServiceCategory.YOGA);
+        List<WellnessService> allBefore = catalogService.getActiveServices();
+
+        // Act: a seat of the full Pilates class is given back
+        catalogService.onEnrollmentChanged(new WellnessEnrollmentChangedEvent(2L, -1));
+
+        // Assert
+        assertEquals(List.of("Morning Yoga", "Pilates", "Strength Training"), names(catalogService.getAvailable()));
+        assertEquals(9, catalogService.getActiveService(2L).orElseThrow().getCurrentParticipants());
+        assertEquals(9, catalogService.getActiveServices().get(1).getCurrentParticipants());
+        assertEquals(9, catalogService.getByCategory(WellnessService.ServiceCategory.FITNESS).get(0).getCurrentParticipants());
+        assertEquals(9, catalogService.getByPriceRange(new BigDecimal("40"), new BigDecimal("40")).get(0).getCurrentParticipants());
+        assertEquals(9, catalogService.getByMaxDuration(45).get(0).getCurrentParticipants());
+        assertEquals(10, fitnessBefore.get(0).getCurrentParticipants());
+        assertEquals(10, allBefore.get(1).getCurrentParticipants());
+        assertSame(yogaBefore, catalogService.getByCategory(WellnessService.ServiceCategory.YOGA));
+        verify(wellnessServiceRepository, times(1)).findByIsActiveTrue();
+    }
+
+    @Test
+    void testOnWellnessServiceChanged_ReplacesOrRemovesService() {
+        // Arrange
+        WellnessService repriced = service(1L, "Morning Yoga", WellnessService.ServiceCategory.YOGA, "55.00", 60, 10, 9);
+        WellnessService deactivated = service(2L, "Pilates", WellnessService.ServiceCategory.FITNESS, "40.00", 45, 10, 10);
+        deactivated.setIsActive(false);
+
+        // Act
+        catalogService.onWellnessServiceChanged(new WellnessServiceChangedEvent(repriced));
+        catalogService.onWellnessServiceChanged(new WellnessServiceChangedEvent(deactivated));
+        repriced.setName("Changed after publishing");
+
+        // Assert
+        assertEquals(List.of("Morning Yoga"),
+                names(catalogService.getByPriceRange(new BigDecimal("50"), new BigDecimal("100"))));
+        assertEquals(List.of("Strength Training"), names(catalogService.getByCategory(WellnessService.ServiceCategory.FITNESS)));
+    }
+
+    private static WellnessService service(Long id, String name, WellnessService.ServiceCategory category, String price,
+                                           int duration, Integer maxParticipants, int currentParticipants) {
+        WellnessService service = new WellnessService();
+        service.setId(id);
+        service.setName(name);
+        service.setCategory(category);
+        service.setPrice(new BigDecimal(price));
+        service.setDurationMinutes(duration);
+        service.setMaxParticipants(maxParticipants);
+        service.setCurrentParticipants(currentParticipants);
+        service.setIsActive(true);
+        return service;
+    }
+
+    private static List<String> names(List<WellnessService> services) {
+        return services.stream().map(WellnessService::getName).toList();
+    }
+}
@@ -0,0 +1,295 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.WellnessEnrollment;
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.WellnessEnrollmentChangedEvent;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import com.doctorpat.repository.WellnessEnrollmentRepository;
+import com.doctorpat.repository.WellnessServiceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WellnessEnrollmentServiceTest {
+
+    @Mock
+    private WellnessServiceRepository wellnessServiceRepository;
+
+    @Mock
+    private WellnessEnrollmentRepository wellnessEnrollmentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testEnroll_WithoutBufferUsesConditionalUpdate() {
+        // Arrange
+        WellnessEnrollmentService enrollmentService = unbufferedService();
+        when(wellnessServiceRepository.addParticipants(1L, 1)).thenReturn(1, 0);
+
+        // Act & Assert
+        assertTrue(enrollmentService.enroll(1L, 7L));
+        assertFalse(enrollmentService.enroll(1L, 8L));
+        verify(wellnessEnrollmentRepository, times(1)).save(any(WellnessEnrollment.class));
+        verify(wellnessServiceRepository, never()).findById(anyLong());
+        verify(wellnessServiceRepository, never()).save(any(WellnessService.class));
+        verify(eventPublisher, times(1)).publishEvent(any(WellnessEnrollmentChangedEvent.class));
+    }
+
+    @Test
+    void testEnroll_BufferedConcurrentEnrollmentsNeverOverbook() throws Exception {
+        // Arrange: 47 free seats, reserved in blocks of 10 and then one by one
+        AtomicInteger participants = new AtomicInteger(3);
+        simulateDatabase(participants, 50);
+        WellnessEnrollmentService enrollmentService = bufferedService(10);
+
+        // Act
+        int enrolled = enrollConcurrently(500, enrollmentService);
+
+        // Assert
+        assertEquals(47, enrolled);
+        assertEquals(50, participants.get());
+        verify(wellnessServiceRepository, times(5)).addParticipants(1L, 10);
+        verify(wellnessServiceRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testEnroll_InstancesSharingDatabaseNeverOversell() throws Exception {
+        // Arrange: each instance reserves its own blocks from the same row
+        AtomicInteger participants = new AtomicInteger(0);
+        simulateDatabase(participants, 25);
+        WellnessEnrollmentService first = bufferedService(10);
+        WellnessEnrollmentService second = bufferedService(10);
+
+        // Act
+        int enrolled = enrollConcurrently(200, first, second);
+
+        // Assert
+        assertEquals(25, enrolled);
+        assertEquals(25, participants.get());
+    }
+
+    @Test
+    void testEnroll_BufferedFailedReservationIsNotAcknowledged() {
+        // Arrange
+        WellnessEnrollmentService enrollmentService = bufferedService(10);
+        when(wellnessServiceRepository.addParticipants(1L, 10))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(1);
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () -> enrollmentService.enroll(1L, 7L));
+        assertTrue(enrollmentService.enroll(1L, 7L));
+        assertTrue(enrollmentService.enroll(1L, 8L));
+        verify(wellnessServiceRepository, times(2)).addParticipants(1L, 10);
+        verify(eventPublisher, times(1)).publishEvent(any(WellnessEnrollmentChangedEvent.class));
+    }
+
+    @Test
+    void testReleaseIdleSeats_GivesBackUnsoldSeatsOfQuietServices() {
+        // Arrange
+        WellnessEnrollmentService enrollmentService = bufferedService(10);
+        when(wellnessServiceRepository.addParticipants(1L, 10)).thenReturn(1);
+        when(wellnessServiceRepository.removeParticipants(1L, 8)).thenReturn(1);
+        enrollmentService.enroll(1L, 7L);
+
+        // Act: busy between the first two runs, quiet between the last two
+        enrollmentService.releaseIdleSeats();
+        enrollmentService.enroll(1L, 8L);
+        enrollmentService.releaseIdleSeats();
+        enrollmentService.releaseIdleSeats();
+
+        // Assert
+        verify(wellnessServiceRepository, times(1)).removeParticipants(1L, 8);
+        verify(eventPublisher).publishEvent(argThat((WellnessEnrollmentChangedEvent event) -> event.getDelta() == -8));
+    }
+
+    @Test
+    void testReleaseAllSeats_KeepsSeatsReservedWhenWriteFails() {
+        // Arrange
+        WellnessEnrollmentService enrollmentService = bufferedService(10);
+        when(wellnessServiceRepository.addParticipants(1L, 10)).thenReturn(1);
+        when(wellnessServiceRepository.removeParticipants(1L, 9))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        when(wellnessServiceRepository.removeParticipants(1L, 8)).thenReturn(1);
+        enrollmentService.enroll(1L, 7L);
+
+        // Act
+        enrollmentService.releaseAllSeats();
+        boolean servedFromReservation = enrollmentService.enroll(1L, 8L);
+        enrollmentService.releaseAllSeats();
+
+        // Assert
+        assertTrue(servedFromReservation);
+        verify(wellnessServiceRepository, times(1)).addParticipants(1L, 10);
+        verify(wellnessServiceRepository).removeParticipants(1L, 8);
+    }
+
+    @Test
+    void testEnroll_PatientAlreadyEnrolledIsRejected() {
+        // Arrange: the unique key rejects the second enrollment row, which rolls back its seat
+        WellnessEnrollmentService enrollmentService = unbufferedService();
+        when(wellnessServiceRepository.addParticipants(1L, 1)).thenReturn(1);
+        when(wellnessEnrollmentRepository.save(any(WellnessEnrollment.class)))
+                .thenReturn(null)
+                .thenThrow(new DataIntegrityViolationException("uk_wellness_enrollments_service_patient"));
+
+        // Act & Assert
+        assertTrue(enrollmentService.enroll(1L, 7L));
+        assertFalse(enrollmentService.enroll(1L, 7L));
+        verify(eventPublisher, times(1)).publishEvent(any(WellnessEnrollmentChangedEvent.class));
+    }
+
+    @Test
+    void testEnroll_BufferedPatientAlreadyEnrolledKeepsSeatReserved() {
+        // Arrange
+        WellnessEnrollmentService enrollmentService = bufferedService(10);
+        when(wellnessServiceRepository.addParticipants(1L, 10)).thenReturn(1);
+        when(wellnessServiceRepository.removeParticipants(1L, 9)).thenReturn(1);
+        when(wellnessEnrollmentRepository.save(any(WellnessEnrollment.class)))
+                .thenReturn(null)
+                .thenThrow(new DataIntegrityViolationException("uk_wellness_enrollments_service_patient"));
+
+        // Act
+        boolean first = enrollmentService.enroll(1L, 7L);
+        boolean second = enrollmentService.enroll(1L, 7L);
+        enrollmentService.releaseAllSeats();
+
+        // Assert: one of the ten reserved seats was sold, nine go back
+        assertTrue(first);
+        assertFalse(second);
+        verify(wellnessServiceRepository).removeParticipants(1L, 9);
+    }
+
+    @Test
+    void testUnenroll_OnlyGivesBackOwnSeat() {
+        // Arrange
+        WellnessEnrollmentService enrollmentService = bufferedService(10);
+        when(wellnessEnrollmentRepository.deleteEnrollment(1L, 7L)).thenReturn(1, 0);
+        when(wellnessEnrollmentRepository.deleteEnrollment(1L, 8L)).thenReturn(0);
+        when(wellnessServiceRepository.removeParticipant(1L)).thenReturn(1);
+
+        // Act & Assert
+        assertFalse(enrollmentService.unenroll(1L, 8L));
+        assertTrue(enrollmentService.unenroll(1L, 7L));
+        assertFalse(enrollmentService.unenroll(1L, 7L));
+        verify(wellnessServiceRepository, times(1)).removeParticipant(1L);
+        verify(eventPublisher, times(1)).publishEvent(argThat((WellnessEnrollmentChangedEvent event) -> event.getDelta() == -1));
+    }
+
+    @Test
+    void testOnWellnessServiceChanged_GivesBackReservedSeats() {
+        // Arrange: the service is deactivated after a block was reserved
+        WellnessEnrollmentService enrollmentService = bufferedService(10);
+        when(wellnessServiceRepository.addParticipants(1L, 10)).thenReturn(1, 0);
+        when(wellnessServiceRepository.addParticipants(1L, 1)).thenReturn(0);
+        when(wellnessServiceRepository.removeParticipants(1L, 9)).thenReturn(1);
+        WellnessService service = new WellnessService();
+        service.setId(1L);
+        service.setIsActive(false);
+        enrollmentService.enroll(1L, 7L);
+
+        // Act
+        enrollmentService.onWellnessServiceChanged(new WellnessServiceChangedEvent(service));
+        boolean enrolledAfterChange = enrollmentService.enroll(1L, 8L);
+
+        // Assert
+        assertFalse(enrolledAfterChange);
+        verify(wellnessServiceRepository).removeParticipants(1L, 9);
+        verify(wellnessEnrollmentRepository, times(1)).save(any(WellnessEnrollment.class));
+    }
+
+    @Test
+    void testSeatCounter_SpreadsSeatsOverStripes() {
+        // Arrange
+        WellnessEnrollmentService.SeatCounter counter = new WellnessEnrollmentService.SeatCounter(10, 4);
+
+        // Act
+        for (int i = 0; i < 7; i++) {
+            assertTrue(counter.tryTake());
+        }
+        counter.add(5);
+
+        // Assert
+        assertEquals(8, counter.freeSeats());
+        assertEquals(8, counter.drainFree());
+        assertFalse(counter.tryTake());
+        assertEquals(0, counter.drainFree());
+    }
+
+    private WellnessEnrollmentService unbufferedService() {
+        return new WellnessEnrollmentService(wellnessServiceRepository, wellnessEnrollmentRepository, eventPublisher,
+                new TransactionTemplate(transactionManager), false, 8, 20);
+    }
+
+    private WellnessEnrollmentService bufferedService(int blockSize) {
+        return new WellnessEnrollmentService(wellnessServiceRepository, wellnessEnrollmentRepository, eventPublisher,
+                new TransactionTemplate(transactionManager), true, 4, blockSize);
+    }
+
+    // Stands in for the conditional UPDATE: adds the count only when it still fits
+    private void simulateDatabase(AtomicInteger participants, int maxParticipants) {
+        when(wellnessServiceRepository.addParticipants(eq(1L), anyInt())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(1);
+            synchronized (participants) {
+                if (participants.get() + count > maxParticipants) {
+                    return 0;
+                }
+                participants.addAndGet(count);
+                return 1;
+            }
+        });
+    }
+
+    private static int enrollConcurrently(int attempts, WellnessEnrollmentService... instances) throws Exception {
+        ExecutorService patients = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < attempts; i++) {
+                WellnessEnrollmentService instance = instances[i % instances.length];
+                long patientId = i;
+                results.add(patients.submit(() -> {
+                    start.await();
+                    return instance.enroll(1L, patientId);
+                }));
+            }
+            start.countDown();
+
+            int enrolled = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(10, TimeUnit.SECONDS)) {
+                    enrolled++;
+                }
+            }
+            return enrolled;
+        } finally {
+            patients.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.doctorpat.service;
+
+import com.doctorpat.dto.WellnessCatalogFilter;
+import com.doctorpat.dto.WellnessCatalogResult;
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.repository.WellnessServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("jpatest")
+@Import(WellnessFilterService.class)
+class WellnessFilterServiceTest {
+
+    @Autowired
+    private WellnessFilterService filterService;
+
+    @Autowired
+    private WellnessServiceRepository wellnessServiceRepository;
+
+    @MockBean
+    private WellnessSearchService wellnessSearchService;
+
+    private WellnessService yoga;
+    private WellnessService pilates;
+
+    @BeforeEach
+    void setUp() {
+        wellnessServiceRepository.deleteAll();
+        yoga = save("Morning Yoga", WellnessService.ServiceCategory.YOGA, "20.00", 60, 10, 10, true);
+        pilates = save("Pilates", WellnessService.ServiceCategory.FITNESS, "40.00", 45, 10, 2, true);
+        save("Strength Training", WellnessService.ServiceCategory.FITNESS, "120.00", 90, null, 0, true);
+        save("Retired Class", WellnessService.ServiceCategory.FITNESS, "30.00", 30, 10, 0, false);
+    }
+
+    @Test
+    void testFilter_NoCriteriaReturnsActiveServicesWithFacets() {
+        // Act
+        WellnessCatalogResult result = filterService.filter(new WellnessCatalogFilter(), 0, 2);
+
+        // Assert
+        assertEquals(List.of("Morning Yoga", "Pilates"), names(result));
+        assertEquals(3, result.getTotalElements());
+        assertEquals(Map.of(WellnessService.ServiceCategory.FITNESS, 2L, WellnessService.ServiceCategory.YOGA, 1L),
+                result.getCategoryCounts());
+        assertEquals(Map.of(WellnessCatalogResult.PriceBand.UNDER_25, 1L,
+                        WellnessCatalogResult.PriceBand.FROM_25_TO_50, 1L,
+                        WellnessCatalogResult.PriceBand.OVER_100, 1L),
+                result.getPriceBandCounts());
+    }
+
+    @Test
+    void testFilter_CombinesCategoryPriceDurationAndAvailability() {
+        // Arrange
+        WellnessCatalogFilter filter = new WellnessCatalogFilter();
+        filter.setCategory(WellnessService.ServiceCategory.FITNESS);
+        filter.setMaxPrice(new BigDecimal("100"));
+        filter.setMaxDuration(60);
+        filter.setAvailableOnly(true);
+
+        // Act
+        WellnessCatalogResult result = filterService.filter(filter, 0, 20);
+
+        // Assert
+        assertEquals(List.of("Pilates"), names(result));
+        assertEquals(Map.of(WellnessCatalogResult.PriceBand.FROM_25_TO_50, 1L), result.getPriceBandCounts());
+    }
+
+    @Test
+    void testFilter_AvailabilityExcludesFullServices() {
+        // Arrange
+        WellnessCatalogFilter filter = new WellnessCatalogFilter();
+        filter.setAvailableOnly(true);
+
+        // Act
+        WellnessCatalogResult result = filterService.filter(filter, 0, 20);
+
+        // Assert
+        assertEquals(List.of("Pilates", "Strength Training"), names(result));
+    }
+
+    @Test
+    void testFilter_KeywordRestrictsToSearchMatches() {
+        // Arrange
+        when(wellnessSearchService.searchIds("stretch")).thenReturn(List.of(yoga.getId(), pilates.getId()));
+        when(wellnessSearchService.searchIds("nothing")).thenReturn(List.of());
+        WellnessCatalogFilter filter = new WellnessCatalogFilter();
+        filter.setKeyword("stretch");
+        filter.setMaxPrice(new BigDecimal("25"));
+        WellnessCatalogFilter noMatches = new WellnessCatalogFilter();
+        noMatches.setKeyword("nothing");
+
+        // Act
+        WellnessCatalogResult result = filterService.filter(filter, 0, 20);
+        WellnessCatalogResult empty = filterService.filter(noMatches, 0, 20);
+
+        // Assert
+        assertEquals(List.of("Morning Yoga"), names(result));
+        assertEquals(0, empty.getTotalElements());
+    }
+
+    @Test
+    void testPriceBand_UsesLowerBoundInclusive() {
+        // Act & Assert
+        assertEquals(WellnessCatalogResult.PriceBand.UNDER_25, WellnessFilterService.priceBand(new BigDecimal("24.99")));
+        assertEquals(WellnessCatalogResult.PriceBand.FROM_25_TO_50, WellnessFilterService.priceBand(new BigDecimal("25.00")));
+        assertEquals(WellnessCatalogResult.PriceBand.OVER_100, WellnessFilterService.priceBand(new BigDecimal("100")));
+    }
+
+    private WellnessService save(String name, WellnessService.ServiceCategory category, String price, int duration,
+                                 Integer maxParticipants, int currentParticipants, boolean active) {
+        WellnessService service = new WellnessService();
+        service.setName(name);
+        service.setCategory(category);
+        service.setPrice(new BigDecimal(price));
+        service.setDurationMinutes(duration);
+        service.setMaxParticipants(maxParticipants);
+        service.setCurrentParticipants(currentParticipants);
+        service.setIsActive(active);
+        return wellnessServiceRepository.save(service);
+    }
+
+    private static List<String> names(WellnessCatalogResult result) {
+        return result.getServices().stream().map(WellnessService::getName).toList();
+    }
+}
@@ -0,0 +1,138 @@
+package com.doctorpat.service;
+
+import com.doctorpat.entity.WellnessService;
+import com.doctorpat.event.WellnessServiceChangedEvent;
+import com.doctorpat.repository.WellnessServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WellnessSearchServiceTest {
+
+    @Mock
+    private WellnessServiceRepository wellnessServiceRepository;
+
+    @InjectMocks
+    private WellnessSearchService searchService;
+
+    private final Map<Long, WellnessService> database = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        save(service(1L, "Morning Yoga", "Gentle stretching to start the day", "Flexibility", "Yoga mat", true));
+        save(service(2L, "Strength Training", "Weights and resistance classes", "Muscle tone", null, true));
+        save(service(3L, "Mindfulness", "Guided meditation with light yoga stretches", "Less stress", null, true));
+        save(service(4L, "Retired Yoga Retreat", "Yoga by the lake", null, null, false));
+        when(wellnessServiceRepository.findByIsActiveTrue()).thenAnswer(invocation -> database.values().stream()
+                .filter(WellnessService::getIsActive)
+                .toList());
+        lenient().when(wellnessServiceRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<WellnessService> found = new ArrayList<>();
+            ids.forEach(id -> found.add(database.get(id)));
+            return found;
+        });
+
+        searchService.rebuild();
+    }
+
+    @Test
+    void testStem_MatchesPluralAndVerbForms() {
+        // Act & Assert
+        assertEquals("class", WellnessSearchService.stem("classes"));
+        assertEquals("stretch", WellnessSearchService.stem("stretching"));
+        assertEquals("stretch", WellnessSearchService.stem("stretches"));
+        assertEquals("run", WellnessSearchService.stem("running"));
+        assertEquals("therapy", WellnessSearchService.stem("therapies"));
+    }
+
+    @Test
+    void testSearch_RanksNameMatchesFirstAndSkipsInactiveServices() {
+        // Act
+        Page<WellnessService> results = searchService.search("yoga", 0, 10);
+
+        // Assert
+        assertEquals(List.of(1L, 3L), results.getContent().stream().map(WellnessService::getId).toList());
+        assertEquals(2, results.getTotalElements());
+    }
+
+    @Test
+    void testSearch_MatchesStemmedWordsAcrossFields() {
+        // Act
+        Page<WellnessService> results = searchService.search("Stretch class", 0, 10);
+
+        // Assert
+        assertEquals(3, results.getTotalElements());
+    }
+
+    @Test
+    void testSearch_PagesResults() {
+        // Act
+        Page<WellnessService> first = searchService.search("yoga stretching", 0, 1);
+        Page<WellnessService> second = searchService.search("yoga stretching", 1, 1);
+
+        // Assert
+        assertEquals(2, first.getTotalPages());
+        assertEquals(1L, first.getContent().get(0).getId());
+        assertEquals(3L, second.getContent().get(0).getId());
+    }
+
+    @Test
+    void testSearch_StopWordsOnlyReturnsEmptyPage() {
+        // Act
+        Page<WellnessService> results = searchService.search("the and of", 0, 10);
+
+        // Assert
+        assertTrue(results.isEmpty());
+        verify(wellnessServiceRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void testOnWellnessServiceChanged_UpdatesIndexIncrementally() {
+        // Arrange
+        WellnessService renamed = service(2L, "Pilates", "Core work on the reformer", null, null, true);
+        WellnessService deactivated = service(1L, "Morning Yoga", "Gentle stretching to start the day", null, null, false);
+        save(renamed);
+        save(deactivated);
+
+        // Act
+        searchService.onWellnessServiceChanged(new WellnessServiceChangedEvent(renamed));
+        searchService.onWellnessServiceChanged(new WellnessServiceChangedEvent(deactivated));
+
+        // Assert
+        assertTrue(searchService.search("strength", 0, 10).isEmpty());
+        assertEquals(2L, searchService.search("pilates", 0, 10).getContent().get(0).getId());
+        assertEquals(List.of(3L), searchService.search("yoga", 0, 10).getContent().stream()
+                .map(WellnessService::getId).toList());
+    }
+
+    private void save(WellnessService service) {
+        database.put(service.getId(), service);
+    }
+
+    private static WellnessService service(Long id, String name, String description, String benefits,
+                                           String requirements, boolean active) {
+        WellnessService service = new WellnessService();
+        service.setId(id);
+        service.setName(name);
+        service.setDescription(description);
+        service.setBenefits(benefits);
+        service.setRequirements(requirements);
+        service.setIsActive(active);
+        return service;
+    }
+}